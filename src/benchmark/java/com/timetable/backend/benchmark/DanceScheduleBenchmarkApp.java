@@ -0,0 +1,51 @@
+package com.timetable.backend.benchmark;
+
+import ai.timefold.solver.benchmark.api.PlannerBenchmarkFactory;
+import com.timetable.backend.solver.DanceSchedule;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.util.Arrays;
+
+/**
+ * Runs the Timefold benchmarker over generated problems of several sizes.
+ * <p>
+ * Usage (from the project root):
+ * <pre>
+ * ./mvnw -Pbenchmark test-compile exec:exec
+ * ./mvnw -Pbenchmark test-compile exec:exec -Dbenchmark.args="benchmark/moveThreadCountBenchmarkConfig.xml 1000,5000"
+ * </pre>
+ * The first argument is the benchmark config resource, the second a comma-separated list of
+ * lesson counts. The HTML report and the CSV file of every statistic are written to
+ * {@code target/benchmarks/<timestamp>/}.
+ */
+@Slf4j
+public final class DanceScheduleBenchmarkApp {
+
+    static final String DEFAULT_CONFIG = "benchmark/danceScheduleBenchmarkConfig.xml";
+    static final int[] DEFAULT_LESSON_COUNTS = {100, 1_000, 5_000, 20_000};
+
+    private DanceScheduleBenchmarkApp() {
+    }
+
+    public static void main(String[] args) {
+        String config = args.length > 0 ? args[0] : DEFAULT_CONFIG;
+        int[] lessonCounts = args.length > 1
+            ? Arrays.stream(args[1].split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray()
+            : DEFAULT_LESSON_COUNTS;
+
+        DanceSchedule[] problems = Arrays.stream(lessonCounts)
+            .mapToObj(DanceScheduleGenerator::generate)
+            .toArray(DanceSchedule[]::new);
+        for (DanceSchedule problem : problems) {
+            log.info("Generated problem {}: {} lessons, {} teachers, {} rooms, {} timeslots",
+                problem.getId(), problem.getLessonList().size(), problem.getTeacherList().size(),
+                problem.getRoomList().size(), problem.getTimeslotList().size());
+        }
+
+        File reportDirectory = PlannerBenchmarkFactory.createFromXmlResource(config)
+            .buildPlannerBenchmark(problems)
+            .benchmark();
+        log.info("Benchmark report written to {}", reportDirectory.getAbsolutePath());
+    }
+}
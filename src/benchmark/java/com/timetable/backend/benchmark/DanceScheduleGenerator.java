@@ -0,0 +1,88 @@
+package com.timetable.backend.benchmark;
+
+import com.timetable.backend.solver.DanceSchedule;
+import com.timetable.backend.solver.LessonValueRanges;
+import com.timetable.backend.solver.PlanningLesson;
+import com.timetable.backend.solver.PlanningRoom;
+import com.timetable.backend.solver.PlanningTeacher;
+import com.timetable.backend.solver.PlanningTimeslot;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates reproducible, uninitialized {@link DanceSchedule} problems of a given size.
+ * <p>
+ * The shape follows a real school week: hourly timeslots from Monday to Saturday, 09:00-22:00,
+ * about 20 lessons per teacher (drawn at random, so the teachers' loads differ), every fifth lesson
+ * 90 minutes long, rooms for roughly 60% occupancy and a few blocked timeslots per teacher.
+ * The same lesson count always yields the same problem.
+ */
+public final class DanceScheduleGenerator {
+
+    private static final List<DayOfWeek> DAYS = List.of(
+        DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY,
+        DayOfWeek.THURSDAY, DayOfWeek.FRIDAY, DayOfWeek.SATURDAY);
+    private static final int FIRST_HOUR = 9;
+    private static final int LAST_HOUR = 22;
+
+    private static final int LESSONS_PER_TEACHER = 20;
+    private static final double ROOM_OCCUPANCY = 0.6;
+    private static final double UNAVAILABLE_RATIO = 0.05;
+    private static final double PRIVATE_RATIO = 0.2;
+    private static final int LONG_LESSON_EVERY = 5;
+
+    private DanceScheduleGenerator() {
+    }
+
+    /**
+     * @param lessonCount number of lessons (planning entities)
+     * @return schedule with no lesson assigned and no lesson pinned, with the lessons' timeslot ranges set
+     */
+    public static DanceSchedule generate(int lessonCount) {
+        Random random = new Random(lessonCount);
+
+        List<PlanningTimeslot> timeslots = new ArrayList<>();
+        for (DayOfWeek day : DAYS) {
+            for (int hour = FIRST_HOUR; hour < LAST_HOUR; hour++) {
+                int index = timeslots.size();
+                timeslots.add(new PlanningTimeslot(index, index + 1L, day,
+                    LocalTime.of(hour, 0), LocalTime.of(hour + 1, 0)));
+            }
+        }
+
+        int roomCount = Math.max(2, (int) Math.ceil(lessonCount / (timeslots.size() * ROOM_OCCUPANCY)));
+        List<PlanningRoom> rooms = new ArrayList<>(roomCount);
+        for (int i = 0; i < roomCount; i++) {
+            rooms.add(new PlanningRoom(i, i + 1L, "Studio " + (i + 1), 20, i % 4 == 0));
+        }
+
+        int teacherCount = Math.max(1, lessonCount / LESSONS_PER_TEACHER);
+        int unavailablePerTeacher = (int) (timeslots.size() * UNAVAILABLE_RATIO);
+        List<PlanningTeacher> teachers = new ArrayList<>(teacherCount);
+        for (int i = 0; i < teacherCount; i++) {
+            BitSet unavailable = new BitSet(timeslots.size());
+            for (int j = 0; j < unavailablePerTeacher; j++) {
+                unavailable.set(random.nextInt(timeslots.size()));
+            }
+            teachers.add(new PlanningTeacher(i, i + 1L, "Teacher " + (i + 1), 6, unavailable));
+        }
+
+        List<PlanningLesson> lessons = new ArrayList<>(lessonCount);
+        for (int i = 0; i < lessonCount; i++) {
+            PlanningTeacher teacher = teachers.get(random.nextInt(teacherCount));
+            boolean isPrivate = random.nextDouble() < PRIVATE_RATIO;
+            int durationMinutes = i % LONG_LESSON_EVERY == 0 ? 90 : 60;
+            lessons.add(new PlanningLesson(i + 1L, teacher, "Group " + (i + 1), durationMinutes, isPrivate,
+                false, null, null));
+        }
+
+        DanceSchedule schedule = new DanceSchedule((long) lessonCount, timeslots, rooms, teachers, lessons);
+        LessonValueRanges.restrict(schedule);
+        return schedule;
+    }
+}
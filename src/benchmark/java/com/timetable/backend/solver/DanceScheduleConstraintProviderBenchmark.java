@@ -0,0 +1,246 @@
+package com.timetable.backend.solver;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import ai.timefold.solver.core.api.score.stream.Constraint;
+import ai.timefold.solver.core.api.score.stream.ConstraintCollectors;
+import ai.timefold.solver.core.api.score.stream.ConstraintFactory;
+import ai.timefold.solver.core.api.score.stream.ConstraintProvider;
+import ai.timefold.solver.core.api.score.stream.Joiners;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import ai.timefold.solver.core.impl.score.director.InnerScoreDirector;
+import ai.timefold.solver.core.impl.solver.DefaultSolverFactory;
+import com.timetable.backend.benchmark.DanceScheduleGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * JMH benchmark of score calculation, per constraint of {@link DanceScheduleConstraintProvider}.
+ * <p>
+ * Each trial scores a generated, randomly assigned schedule with a constraint provider holding
+ * only the selected constraint ({@code all} = the whole provider; {@code minimizeTeacherGapsPairwise}
+ * = the earlier gap constraint joining every pair of a teacher's lessons on a day, and
+ * {@code balanceTeacherLoadSquared} = the earlier squared lesson count per teacher, as baselines):
+ * <ul>
+ *     <li>{@code fullScoreCalculation} - a new constraint session over the whole schedule,
+ *     as at solver start and on every construction heuristic restart</li>
+ *     <li>{@code moveEvaluation} - one change move (a lesson to another timeslot) scored
+ *     incrementally and undone, as local search does for every evaluated move</li>
+ * </ul>
+ * Usage (from the project root):
+ * <pre>
+ * ./mvnw -Pbenchmark test-compile exec:exec -Dbenchmark.mainClass=org.openjdk.jmh.Main \
+ *     -Dbenchmark.args="DanceScheduleConstraintProviderBenchmark -rf csv -rff target/jmh-constraints.csv"
+ * </pre>
+ * Lives in the solver package to reach the package-private constraint methods.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DanceScheduleConstraintProviderBenchmark {
+
+    private static final Map<String, Class<? extends ConstraintProvider>> CONSTRAINT_PROVIDERS = Map.of(
+        "roomConflict", RoomConflict.class,
+        "teacherConflict", TeacherConflict.class,
+        "teacherAvailability", TeacherAvailability.class,
+        "teacherMaxDailyHours", TeacherMaxDailyHours.class,
+        "minimizeTeacherGaps", MinimizeTeacherGaps.class,
+        "minimizeTeacherGapsPairwise", MinimizeTeacherGapsPairwise.class,
+        "rewardPrimeTime", RewardPrimeTime.class,
+        "balanceTeacherLoad", BalanceTeacherLoad.class,
+        "balanceTeacherLoadSquared", BalanceTeacherLoadSquared.class,
+        "all", DanceScheduleConstraintProvider.class);
+
+    @Param({"100", "1000", "5000"})
+    private int lessonCount;
+
+    @Param({"roomConflict", "teacherConflict", "teacherAvailability", "teacherMaxDailyHours",
+        "minimizeTeacherGaps", "minimizeTeacherGapsPairwise", "rewardPrimeTime", "balanceTeacherLoad",
+        "balanceTeacherLoadSquared", "all"})
+    private String constraint;
+
+    private DanceSchedule schedule;
+    private InnerScoreDirector<DanceSchedule, HardSoftScore> scoreDirector;
+    private SplittableRandom moveRandom;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        schedule = DanceScheduleGenerator.generate(lessonCount);
+        assignRandomly(schedule, new Random(lessonCount));
+
+        SolverFactory<DanceSchedule> solverFactory = SolverFactory.create(new SolverConfig()
+            .withSolutionClass(DanceSchedule.class)
+            .withEntityClasses(PlanningLesson.class)
+            .withConstraintProviderClass(CONSTRAINT_PROVIDERS.get(constraint)));
+        scoreDirector = ((DefaultSolverFactory<DanceSchedule>) solverFactory)
+            .<HardSoftScore>getScoreDirectorFactory()
+            .buildScoreDirector(false, false);
+        scoreDirector.setWorkingSolution(schedule);
+        scoreDirector.calculateScore();
+        moveRandom = new SplittableRandom(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        scoreDirector.close();
+    }
+
+    @Benchmark
+    public HardSoftScore fullScoreCalculation() {
+        scoreDirector.setWorkingSolution(schedule);
+        return scoreDirector.calculateScore();
+    }
+
+    @Benchmark
+    public HardSoftScore moveEvaluation() {
+        List<PlanningLesson> lessons = schedule.getLessonList();
+        List<PlanningTimeslot> timeslots = schedule.getTimeslotList();
+        PlanningLesson lesson = lessons.get(moveRandom.nextInt(lessons.size()));
+        PlanningTimeslot original = lesson.getTimeslot();
+
+        changeTimeslot(lesson, timeslots.get(moveRandom.nextInt(timeslots.size())));
+        HardSoftScore score = scoreDirector.calculateScore();
+        // The undo is scored together with the next move, as in local search
+        changeTimeslot(lesson, original);
+        return score;
+    }
+
+    private void changeTimeslot(PlanningLesson lesson, PlanningTimeslot timeslot) {
+        scoreDirector.beforeVariableChanged(lesson, "timeslot");
+        lesson.setTimeslot(timeslot);
+        scoreDirector.afterVariableChanged(lesson, "timeslot");
+        scoreDirector.triggerVariableListeners();
+    }
+
+    private static void assignRandomly(DanceSchedule schedule, Random random) {
+        List<PlanningTimeslot> timeslots = schedule.getTimeslotList();
+        List<PlanningRoom> rooms = schedule.getRoomList();
+        for (PlanningLesson lesson : schedule.getLessonList()) {
+            lesson.setTimeslot(timeslots.get(random.nextInt(timeslots.size())));
+            lesson.setRoom(rooms.get(random.nextInt(rooms.size())));
+        }
+    }
+
+    private abstract static class SingleConstraint implements ConstraintProvider {
+
+        private static final DanceScheduleConstraintProvider CONSTRAINTS = new DanceScheduleConstraintProvider();
+
+        private final BiFunction<DanceScheduleConstraintProvider, ConstraintFactory, Constraint> constraint;
+
+        SingleConstraint(BiFunction<DanceScheduleConstraintProvider, ConstraintFactory, Constraint> constraint) {
+            this.constraint = constraint;
+        }
+
+        @Override
+        public Constraint[] defineConstraints(ConstraintFactory constraintFactory) {
+            return new Constraint[]{constraint.apply(CONSTRAINTS, constraintFactory)};
+        }
+    }
+
+    public static class RoomConflict extends SingleConstraint {
+        public RoomConflict() {
+            super(DanceScheduleConstraintProvider::roomConflict);
+        }
+    }
+
+    public static class TeacherConflict extends SingleConstraint {
+        public TeacherConflict() {
+            super(DanceScheduleConstraintProvider::teacherConflict);
+        }
+    }
+
+    public static class TeacherAvailability extends SingleConstraint {
+        public TeacherAvailability() {
+            super(DanceScheduleConstraintProvider::teacherAvailability);
+        }
+    }
+
+    public static class TeacherMaxDailyHours extends SingleConstraint {
+        public TeacherMaxDailyHours() {
+            super(DanceScheduleConstraintProvider::teacherMaxDailyHours);
+        }
+    }
+
+    public static class MinimizeTeacherGaps extends SingleConstraint {
+        public MinimizeTeacherGaps() {
+            super(DanceScheduleConstraintProvider::minimizeTeacherGaps);
+        }
+    }
+
+    /**
+     * Gap constraint before the sequence-chain version: every pair of a teacher's lessons on a day.
+     */
+    public static class MinimizeTeacherGapsPairwise implements ConstraintProvider {
+
+        @Override
+        public Constraint[] defineConstraints(ConstraintFactory constraintFactory) {
+            return new Constraint[]{constraintFactory
+                .forEach(PlanningLesson.class)
+                .filter(lesson -> lesson.getTimeslot() != null)
+                .join(constraintFactory.forEach(PlanningLesson.class)
+                        .filter(lesson -> lesson.getTimeslot() != null),
+                    Joiners.lessThan(PlanningLesson::getId),
+                    Joiners.equal(PlanningLesson::getTeacher),
+                    Joiners.equal(lesson -> lesson.getTimeslot().getDayIndex()))
+                .filter((lesson1, lesson2) -> gapMinutes(lesson1, lesson2) > 0)
+                .penalize(HardSoftScore.ONE_SOFT, MinimizeTeacherGapsPairwise::gapMinutes)
+                .asConstraint("Minimize teacher gaps")};
+        }
+
+        private static int gapMinutes(PlanningLesson lesson1, PlanningLesson lesson2) {
+            PlanningTimeslot timeslot1 = lesson1.getTimeslot();
+            PlanningTimeslot timeslot2 = lesson2.getTimeslot();
+            return Math.max(0, Math.max(timeslot2.getStartMinuteOfWeek() - timeslot1.getEndMinuteOfWeek(),
+                timeslot1.getStartMinuteOfWeek() - timeslot2.getEndMinuteOfWeek()));
+        }
+    }
+
+    public static class RewardPrimeTime extends SingleConstraint {
+        public RewardPrimeTime() {
+            super(DanceScheduleConstraintProvider::rewardPrimeTime);
+        }
+    }
+
+    public static class BalanceTeacherLoad extends SingleConstraint {
+        public BalanceTeacherLoad() {
+            super(DanceScheduleConstraintProvider::balanceTeacherLoad);
+        }
+    }
+
+    /**
+     * Load balancing before the daily-share version: the squared lesson count of every teacher.
+     */
+    public static class BalanceTeacherLoadSquared implements ConstraintProvider {
+
+        @Override
+        public Constraint[] defineConstraints(ConstraintFactory constraintFactory) {
+            return new Constraint[]{constraintFactory
+                .forEach(PlanningLesson.class)
+                .filter(lesson -> lesson.getTimeslot() != null)
+                .groupBy(PlanningLesson::getTeacher, ConstraintCollectors.count())
+                .penalize(HardSoftScore.ONE_SOFT, (teacher, count) -> count * count)
+                .asConstraint("Balance teacher workload")};
+        }
+    }
+}
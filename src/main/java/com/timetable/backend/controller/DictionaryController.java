@@ -9,7 +9,9 @@ import com.timetable.backend.domain.model.DanceStyle;
 import com.timetable.backend.domain.model.Room;
 import com.timetable.backend.domain.repository.DanceStyleRepository;
 import com.timetable.backend.domain.repository.RoomRepository;
+import com.timetable.backend.service.ScheduleChangeService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -25,6 +27,7 @@ public class DictionaryController {
     private final RoomRepository roomRepository;
     private final DanceStyleRepository danceStyleRepository;
     private final DictionaryMapper dictionaryMapper;
+    private final ScheduleChangeService scheduleChangeService;
 
     // Rooms (ROLE_ADMIN)
     @PreAuthorize("hasRole('ADMIN')")
@@ -32,6 +35,7 @@ public class DictionaryController {
     public ResponseEntity<RoomDTO> createRoom(@RequestBody RoomDTO roomDTO) {
         Room room = dictionaryMapper.toRoom(roomDTO);
         Room saved = roomRepository.save(room);
+        scheduleChangeService.roomAdded(saved);
         return ResponseEntity.ok(dictionaryMapper.toRoomDTO(saved));
     }
 
@@ -61,6 +65,7 @@ public class DictionaryController {
             r.setCapacity(updated.capacity());
             r.setAllowsParallelPrivate(updated.allowsParallelPrivate());
             roomRepository.save(r);
+            scheduleChangeService.roomUpdated();
             return ResponseEntity.ok(dictionaryMapper.toRoomDTO(r));
         }).orElseGet(() -> ResponseEntity.notFound().build());
     }
@@ -68,11 +73,14 @@ public class DictionaryController {
     @PreAuthorize("hasRole('ADMIN')")
     @DeleteMapping("/rooms/{id}")
     public ResponseEntity<?> deleteRoom(@PathVariable Long id) {
-        if (roomRepository.existsById(id)) {
-            roomRepository.deleteById(id);
-            return ResponseEntity.ok().build();
+        try {
+            if (scheduleChangeService.removeRoom(id)) {
+                return ResponseEntity.ok().build();
+            }
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
-        return ResponseEntity.notFound().build();
     }
 
     // Dance styles (ROLE_ADMIN)
@@ -0,0 +1,101 @@
+package com.timetable.backend.controller;
+
+import com.timetable.backend.domain.dto.CreateLessonRequest;
+import com.timetable.backend.domain.dto.CreateUnavailabilityRequest;
+import com.timetable.backend.domain.dto.ScheduleChangeResponse;
+import com.timetable.backend.service.ScheduleChangeService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.function.Supplier;
+
+/**
+ * REST Controller for editing the lessons and unavailabilities of a schedule.
+ * A schedule that is being solved takes each edit without restarting the solve.
+ */
+@RestController
+@RequestMapping("/api/schedules/{scheduleId}")
+@RequiredArgsConstructor
+@Slf4j
+public class ScheduleChangeController {
+
+    private final ScheduleChangeService scheduleChangeService;
+
+    /**
+     * Adds an unassigned lesson to the schedule.
+     *
+     * POST /api/schedules/{scheduleId}/lessons
+     *
+     * @param scheduleId the schedule identifier
+     * @param request teacher, group and length of the lesson
+     * @return 201 Created with the lesson id, 404 if the schedule, teacher or group does not exist
+     */
+    @PostMapping("/lessons")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ScheduleChangeResponse> addLesson(@PathVariable Long scheduleId,
+                                                            @RequestBody @Valid CreateLessonRequest request) {
+        return apply(HttpStatus.CREATED, () -> scheduleChangeService.addLesson(scheduleId, request));
+    }
+
+    /**
+     * Removes a lesson from the schedule.
+     *
+     * DELETE /api/schedules/{scheduleId}/lessons/{lessonId}
+     *
+     * @param scheduleId the schedule identifier
+     * @param lessonId the lesson identifier
+     * @return 200 OK, 404 if the lesson does not exist in the schedule
+     */
+    @DeleteMapping("/lessons/{lessonId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ScheduleChangeResponse> removeLesson(@PathVariable Long scheduleId,
+                                                               @PathVariable Long lessonId) {
+        return apply(HttpStatus.OK, () -> scheduleChangeService.removeLesson(scheduleId, lessonId));
+    }
+
+    /**
+     * Marks a timeslot of the schedule as unavailable for a teacher.
+     *
+     * POST /api/schedules/{scheduleId}/unavailabilities
+     *
+     * @param scheduleId the schedule identifier
+     * @param request teacher, timeslot and reason
+     * @return 201 Created with the unavailability id, 404 if the schedule, teacher or timeslot does not exist
+     */
+    @PostMapping("/unavailabilities")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ScheduleChangeResponse> addUnavailability(
+            @PathVariable Long scheduleId, @RequestBody @Valid CreateUnavailabilityRequest request) {
+        return apply(HttpStatus.CREATED, () -> scheduleChangeService.addUnavailability(scheduleId, request));
+    }
+
+    /**
+     * Removes an unavailability from the schedule.
+     *
+     * DELETE /api/schedules/{scheduleId}/unavailabilities/{unavailabilityId}
+     *
+     * @param scheduleId the schedule identifier
+     * @param unavailabilityId the unavailability identifier
+     * @return 200 OK, 404 if the unavailability does not exist in the schedule
+     */
+    @DeleteMapping("/unavailabilities/{unavailabilityId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ScheduleChangeResponse> removeUnavailability(@PathVariable Long scheduleId,
+                                                                       @PathVariable Long unavailabilityId) {
+        return apply(HttpStatus.OK, () -> scheduleChangeService.removeUnavailability(scheduleId, unavailabilityId));
+    }
+
+    private ResponseEntity<ScheduleChangeResponse> apply(HttpStatus status, Supplier<ScheduleChangeResponse> change) {
+        try {
+            return ResponseEntity.status(status).body(change.get());
+        } catch (IllegalArgumentException e) {
+            log.warn("Cannot change schedule: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+}
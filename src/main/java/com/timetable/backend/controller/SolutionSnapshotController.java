@@ -0,0 +1,93 @@
+package com.timetable.backend.controller;
+
+import com.timetable.backend.domain.dto.SnapshotDiffResponse;
+import com.timetable.backend.domain.dto.SnapshotRestoreResponse;
+import com.timetable.backend.domain.dto.SolutionSnapshotDTO;
+import com.timetable.backend.service.SolutionSnapshotService;
+import com.timetable.backend.service.SolverService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST Controller for the history of solutions the solver saved for a schedule.
+ */
+@RestController
+@RequestMapping("/api/schedules/{scheduleId}/snapshots")
+@RequiredArgsConstructor
+@Slf4j
+public class SolutionSnapshotController {
+
+    private final SolutionSnapshotService solutionSnapshotService;
+    private final SolverService solverService;
+
+    /**
+     * Lists the saved solutions of a schedule.
+     *
+     * GET /api/schedules/{scheduleId}/snapshots
+     *
+     * @param scheduleId the schedule identifier
+     * @return snapshots newest first, 404 if the schedule does not exist
+     */
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<SolutionSnapshotDTO>> list(@PathVariable Long scheduleId) {
+        try {
+            return ResponseEntity.ok(solutionSnapshotService.list(scheduleId));
+        } catch (IllegalArgumentException e) {
+            log.warn("Cannot list snapshots: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
+    /**
+     * Compares the lesson assignments of two snapshots.
+     *
+     * GET /api/schedules/{scheduleId}/snapshots/{fromVersion}/diff/{toVersion}
+     *
+     * @param scheduleId the schedule identifier
+     * @param fromVersion the earlier snapshot version
+     * @param toVersion the later snapshot version
+     * @return the moved, added and removed lessons, 404 if either snapshot does not exist
+     */
+    @GetMapping("/{fromVersion}/diff/{toVersion}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<SnapshotDiffResponse> diff(@PathVariable Long scheduleId, @PathVariable int fromVersion,
+                                                     @PathVariable int toVersion) {
+        try {
+            return ResponseEntity.ok(solutionSnapshotService.diff(scheduleId, fromVersion, toVersion));
+        } catch (IllegalArgumentException e) {
+            log.warn("Cannot compare snapshots: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
+    /**
+     * Writes the assignment of a snapshot back to the schedule's lessons.
+     *
+     * POST /api/schedules/{scheduleId}/snapshots/{version}/restore
+     *
+     * @param scheduleId the schedule identifier
+     * @param version the snapshot version
+     * @return 200 OK, 404 if the snapshot does not exist, 409 if the schedule is being solved
+     */
+    @PostMapping("/{version}/restore")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<SnapshotRestoreResponse> restore(@PathVariable Long scheduleId, @PathVariable int version) {
+        try {
+            int restored = solverService.restoreSnapshot(scheduleId, version);
+            return ResponseEntity.ok(new SnapshotRestoreResponse(scheduleId, version, restored));
+        } catch (IllegalArgumentException e) {
+            log.warn("Cannot restore snapshot: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (IllegalStateException e) {
+            log.warn("Cannot restore snapshot: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+}
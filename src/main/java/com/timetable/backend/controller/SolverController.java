@@ -2,15 +2,21 @@ package com.timetable.backend.controller;
 
 import ai.timefold.solver.core.api.solver.SolverStatus;
 import com.timetable.backend.domain.dto.*;
-import com.timetable.backend.domain.model.Lesson;
+import com.timetable.backend.service.IdempotencyKeyReuseException;
+import com.timetable.backend.service.ScheduleAnalysisService;
+import com.timetable.backend.service.SolverJobQueue;
+import com.timetable.backend.service.SolverQueueFullException;
 import com.timetable.backend.service.SolverService;
 import com.timetable.backend.solver.DanceSchedule;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -26,30 +32,72 @@ import java.util.stream.Collectors;
 public class SolverController {
 
     private final SolverService solverService;
+    private final ScheduleAnalysisService scheduleAnalysisService;
 
     /**
-     * Starts the solver to optimize the schedule.
+     * Starts the solver to optimize the given schedule.
      * The solving process runs asynchronously.
      *
-     * POST /api/solver/solve
+     * POST /api/solver/solve/{scheduleId}
      *
-     * @return 202 Accepted with schedule ID for tracking
+     * A solve of a schedule that is already queued, or being solved at the same data version,
+     * attaches to that solve. Sending an {@code Idempotency-Key} header makes retries safe:
+     * a repeated request with the same key returns the first outcome.
+     *
+     * @param scheduleId the schedule to optimize
+     * @param request optional solver settings (e.g. move thread count)
+     * @param idempotencyKey optional client-chosen key of this request
+     * @return 202 Accepted with schedule ID for tracking (also when queued or attached), 404 if the schedule
+     *         does not exist, 400 if the requested settings are not supported, 409 if the schedule is being
+     *         solved with older data, 422 if the idempotency key was used for a different request,
+     *         429 if all solvers are busy and the queue is full
      */
-    @PostMapping("/solve")
+    @PostMapping("/solve/{scheduleId}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<SolveResponse> solve() {
-        log.info("Received request to start schedule optimization");
-
-        // Use current timestamp as schedule ID
-        Long scheduleId = System.currentTimeMillis();
+    public ResponseEntity<SolveResponse> solve(@PathVariable Long scheduleId,
+                                               @RequestBody(required = false) @Valid SolveRequest request,
+                                               @RequestHeader(value = "Idempotency-Key", required = false)
+                                               String idempotencyKey) {
+        log.info("Received request to start optimization of schedule ID: {}", scheduleId);
 
         try {
-            solverService.solve(scheduleId);
+            SolverJobQueue.Admission admission = solverService.solve(scheduleId,
+                request != null ? request : SolveRequest.defaults(), idempotencyKey);
 
+            SolveResponse response = switch (admission) {
+                case STARTED -> SolveResponse.started(scheduleId);
+                case QUEUED -> SolveResponse.queued(scheduleId);
+                case ATTACHED -> SolveResponse.attached(scheduleId);
+            };
             return ResponseEntity
                 .status(HttpStatus.ACCEPTED)
-                .body(SolveResponse.started(scheduleId));
+                .body(response);
 
+        } catch (IllegalArgumentException e) {
+            log.warn("Cannot start solver: {}", e.getMessage());
+            return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .build();
+        } catch (UnsupportedOperationException e) {
+            log.warn("Cannot start solver: {}", e.getMessage());
+            return ResponseEntity
+                .badRequest()
+                .build();
+        } catch (IdempotencyKeyReuseException e) {
+            log.warn("Cannot start solver: {}", e.getMessage());
+            return ResponseEntity
+                .unprocessableEntity()
+                .build();
+        } catch (SolverQueueFullException e) {
+            log.warn("Cannot start solver: {}", e.getMessage());
+            return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .build();
+        } catch (IllegalStateException e) {
+            log.warn("Cannot start solver: {}", e.getMessage());
+            return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .build();
         } catch (Exception e) {
             log.error("Error starting solver", e);
             return ResponseEntity
@@ -72,6 +120,11 @@ public class SolverController {
         log.info("Checking solver status for schedule ID: {}", scheduleId);
 
         try {
+            int queuePosition = solverService.getQueuePosition(scheduleId);
+            if (queuePosition > 0) {
+                return ResponseEntity.ok(SolverStatusResponse.queued(scheduleId, queuePosition));
+            }
+
             SolverStatus status = solverService.getSolverStatus(scheduleId);
 
             return ResponseEntity.ok(
@@ -86,6 +139,36 @@ public class SolverController {
         }
     }
 
+    /**
+     * Streams the progress of the schedule's solves as Server-Sent Events: a snapshot of the
+     * running solve, then each new best score with the lessons it moved, and the end of the solve.
+     *
+     * GET /api/solver/stream/{scheduleId}
+     *
+     * @param scheduleId the schedule identifier
+     * @return the event stream, 404 if the schedule does not exist
+     */
+    @GetMapping(value = "/stream/{scheduleId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<SseEmitter> streamProgress(@PathVariable Long scheduleId) {
+        log.info("Subscribing to solver progress of schedule ID: {}", scheduleId);
+
+        try {
+            return ResponseEntity.ok(solverService.subscribeToProgress(scheduleId));
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Cannot stream solver progress: {}", e.getMessage());
+            return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .build();
+        } catch (Exception e) {
+            log.error("Error subscribing to solver progress", e);
+            return ResponseEntity
+                .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .build();
+        }
+    }
+
     /**
      * Terminates the solver early for a given schedule.
      * The best solution found so far will be saved.
@@ -122,21 +205,25 @@ public class SolverController {
     }
 
     /**
-     * Retrieves the current solution from database.
-     * Shows the current state of lessons (solved or unsolved).
+     * Retrieves the current solution.
+     * Shows the current state of lessons (solved or unsolved): the best solution of a running or
+     * recently finished solve from memory, otherwise the stored schedule from the database.
      *
      * GET /api/solver/solution/{scheduleId}
      *
      * @param scheduleId the schedule identifier
-     * @return the current solution from database
+     * @return the current solution
      */
     @GetMapping("/solution/{scheduleId}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ScheduleSolutionResponse> getSolution(@PathVariable Long scheduleId) {
-        log.info("Retrieving current solution from database for schedule ID: {}", scheduleId);
+        log.info("Retrieving current solution for schedule ID: {}", scheduleId);
 
         try {
-            DanceSchedule solution = solverService.getCurrentSolutionFromDatabase(scheduleId);
+            DanceSchedule solution = solverService.getBestSolution(scheduleId);
+            if (solution == null) {
+                solution = solverService.getCurrentSolutionFromDatabase(scheduleId);
+            }
 
             if (solution == null) {
                 return ResponseEntity
@@ -146,7 +233,7 @@ public class SolverController {
 
             // Map lessons to DTOs
             List<ScheduledLessonDTO> lessonDTOs = solution.getLessonList().stream()
-                .map(this::mapToScheduledLessonDTO)
+                .map(ScheduledLessonDTO::from)
                 .collect(Collectors.toList());
 
             boolean fullyAssigned = solverService.isFullyAssigned(solution);
@@ -169,21 +256,32 @@ public class SolverController {
     }
 
     /**
-     * Helper method to map Lesson entity to ScheduledLessonDTO.
+     * Explains the score of the stored schedule per constraint and per lesson.
+     * Served from a cache until the schedule's lessons or facts change.
+     *
+     * GET /api/solver/analysis/{scheduleId}
+     *
+     * @param scheduleId the schedule identifier
+     * @return the score analysis, 404 if the schedule does not exist
      */
-    private ScheduledLessonDTO mapToScheduledLessonDTO(Lesson lesson) {
-        return new ScheduledLessonDTO(
-            lesson.getId(),
-            lesson.getTeacher() != null ? lesson.getTeacher().getFullName() : "N/A",
-            lesson.getDanceGroup() != null ? lesson.getDanceGroup().getName() : "N/A",
-            lesson.getTimeslot() != null ? lesson.getTimeslot().getDayOfWeek() : null,
-            lesson.getTimeslot() != null ? lesson.getTimeslot().getStartTime() : null,
-            lesson.getTimeslot() != null ? lesson.getTimeslot().getEndTime() : null,
-            lesson.getRoom() != null ? lesson.getRoom().getName() : "Unassigned",
-            lesson.getDurationMinutes(),
-            lesson.isPrivate(),
-            lesson.isPinned()
-        );
+    @GetMapping("/analysis/{scheduleId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ScheduleAnalysisResponse> getAnalysis(@PathVariable Long scheduleId) {
+        log.info("Retrieving score analysis for schedule ID: {}", scheduleId);
+
+        try {
+            return ResponseEntity.ok(scheduleAnalysisService.analyze(scheduleId));
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Cannot analyze schedule: {}", e.getMessage());
+            return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .build();
+        } catch (Exception e) {
+            log.error("Error analyzing schedule", e);
+            return ResponseEntity
+                .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .build();
+        }
     }
 }
-
@@ -0,0 +1,14 @@
+package com.timetable.backend.domain.dto;
+
+/**
+ * Score impact of one constraint on a schedule.
+ *
+ * @param constraintName the constraint, e.g. "Room conflict"
+ * @param score summed penalty of all its matches
+ * @param matchCount number of matches (violations)
+ */
+public record ConstraintAnalysisDTO(
+    String constraintName,
+    String score,
+    int matchCount
+) {}
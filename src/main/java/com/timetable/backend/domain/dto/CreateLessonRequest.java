@@ -0,0 +1,25 @@
+package com.timetable.backend.domain.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Request to add an (unassigned) lesson to a schedule.
+ *
+ * @param teacherId the teacher giving the lesson
+ * @param danceGroupId the group taking the lesson
+ * @param durationMinutes lesson length, 60 if omitted
+ * @param isPrivate true for a private lesson, false if omitted
+ */
+public record CreateLessonRequest(
+    @NotNull(message = "Teacher is required")
+    Long teacherId,
+
+    @NotNull(message = "Dance group is required")
+    Long danceGroupId,
+
+    @Min(value = 15, message = "Duration must be at least 15 minutes")
+    Integer durationMinutes,
+
+    Boolean isPrivate
+) {}
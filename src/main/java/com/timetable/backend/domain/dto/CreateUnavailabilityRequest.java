@@ -0,0 +1,20 @@
+package com.timetable.backend.domain.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Request to mark a timeslot of a schedule as unavailable for a teacher.
+ *
+ * @param teacherId the teacher
+ * @param timeslotId the timeslot, which must belong to the schedule
+ * @param reason optional free-text reason
+ */
+public record CreateUnavailabilityRequest(
+    @NotNull(message = "Teacher is required")
+    Long teacherId,
+
+    @NotNull(message = "Timeslot is required")
+    Long timeslotId,
+
+    String reason
+) {}
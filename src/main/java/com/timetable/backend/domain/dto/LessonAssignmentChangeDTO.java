@@ -0,0 +1,23 @@
+package com.timetable.backend.domain.dto;
+
+/**
+ * Assignment of one lesson in two snapshots. Ids are null where unassigned.
+ *
+ * @param lessonId lesson identifier
+ * @param fromTimeslotId timeslot in the earlier snapshot
+ * @param fromRoomId room in the earlier snapshot
+ * @param toTimeslotId timeslot in the later snapshot
+ * @param toRoomId room in the later snapshot
+ * @param added the lesson is not part of the earlier snapshot
+ * @param removed the lesson is not part of the later snapshot
+ */
+public record LessonAssignmentChangeDTO(
+    Long lessonId,
+    Long fromTimeslotId,
+    Long fromRoomId,
+    Long toTimeslotId,
+    Long toRoomId,
+    boolean added,
+    boolean removed
+) {
+}
@@ -0,0 +1,20 @@
+package com.timetable.backend.domain.dto;
+
+import java.util.List;
+
+/**
+ * Score impact of the constraint matches a lesson is involved in.
+ *
+ * @param lessonId the lesson identifier
+ * @param score summed penalty of those matches
+ * @param hardScore hard part of the penalty
+ * @param softScore soft part of the penalty
+ * @param constraintNames the constraints the lesson breaks
+ */
+public record LessonIndictmentDTO(
+    Long lessonId,
+    String score,
+    int hardScore,
+    int softScore,
+    List<String> constraintNames
+) {}
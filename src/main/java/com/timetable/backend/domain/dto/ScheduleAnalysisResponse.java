@@ -0,0 +1,24 @@
+package com.timetable.backend.domain.dto;
+
+import java.util.List;
+
+/**
+ * Score of the stored schedule, broken down per constraint and per lesson.
+ *
+ * @param scheduleId the schedule identifier
+ * @param dataVersion data version of the schedule the analysis covers
+ * @param score the score (hardScore, softScore)
+ * @param hardScore number of hard constraint violations (0 for a valid schedule)
+ * @param softScore quality score (higher is better)
+ * @param constraints every constraint with at least one match, worst first
+ * @param lessons every lesson involved in a match, worst first
+ */
+public record ScheduleAnalysisResponse(
+    Long scheduleId,
+    long dataVersion,
+    String score,
+    int hardScore,
+    int softScore,
+    List<ConstraintAnalysisDTO> constraints,
+    List<LessonIndictmentDTO> lessons
+) {}
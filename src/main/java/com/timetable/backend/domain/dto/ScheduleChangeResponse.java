@@ -0,0 +1,12 @@
+package com.timetable.backend.domain.dto;
+
+/**
+ * Response to a change of a schedule's lessons or unavailabilities.
+ *
+ * @param id the id of the created or removed record
+ * @param appliedToSolver true if a running solve took the change; otherwise the next solve picks it up
+ */
+public record ScheduleChangeResponse(
+    Long id,
+    boolean appliedToSolver
+) {}
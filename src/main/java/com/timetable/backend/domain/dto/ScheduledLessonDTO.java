@@ -1,5 +1,7 @@
 package com.timetable.backend.domain.dto;
 
+import com.timetable.backend.solver.PlanningLesson;
+
 import java.time.DayOfWeek;
 import java.time.LocalTime;
 
@@ -29,5 +31,19 @@ public record ScheduledLessonDTO(
     boolean isPrivate,
     boolean isPinned
 ) {
+    public static ScheduledLessonDTO from(PlanningLesson lesson) {
+        return new ScheduledLessonDTO(
+            lesson.getId(),
+            lesson.getTeacher() != null ? lesson.getTeacher().getFullName() : "N/A",
+            lesson.getDanceGroupName() != null ? lesson.getDanceGroupName() : "N/A",
+            lesson.getTimeslot() != null ? lesson.getTimeslot().getDayOfWeek() : null,
+            lesson.getTimeslot() != null ? lesson.getTimeslot().getStartTime() : null,
+            lesson.getTimeslot() != null ? lesson.getTimeslot().getEndTime() : null,
+            lesson.getRoom() != null ? lesson.getRoom().getName() : "Unassigned",
+            lesson.getDurationMinutes(),
+            lesson.isPrivate(),
+            lesson.isPinned()
+        );
+    }
 }
 
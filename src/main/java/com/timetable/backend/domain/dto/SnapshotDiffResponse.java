@@ -0,0 +1,19 @@
+package com.timetable.backend.domain.dto;
+
+import java.util.List;
+
+/**
+ * Lessons whose assignment differs between two snapshots of a schedule.
+ *
+ * @param scheduleId the schedule identifier
+ * @param fromVersion the earlier snapshot version
+ * @param toVersion the later snapshot version
+ * @param changedLessons moved, added and removed lessons, ordered by lesson id
+ */
+public record SnapshotDiffResponse(
+    Long scheduleId,
+    int fromVersion,
+    int toVersion,
+    List<LessonAssignmentChangeDTO> changedLessons
+) {
+}
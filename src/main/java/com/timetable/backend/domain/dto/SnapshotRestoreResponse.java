@@ -0,0 +1,15 @@
+package com.timetable.backend.domain.dto;
+
+/**
+ * Result of restoring a snapshot.
+ *
+ * @param scheduleId the schedule identifier
+ * @param version the restored snapshot version
+ * @param restoredLessons lesson rows written; lessons deleted since the snapshot are skipped
+ */
+public record SnapshotRestoreResponse(
+    Long scheduleId,
+    int version,
+    int restoredLessons
+) {
+}
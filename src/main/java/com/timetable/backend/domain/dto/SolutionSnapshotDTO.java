@@ -0,0 +1,25 @@
+package com.timetable.backend.domain.dto;
+
+import java.time.Instant;
+
+/**
+ * One saved solution of a schedule, without its lessons.
+ *
+ * @param version snapshot version, counting up per schedule
+ * @param score the score (hardScore, softScore)
+ * @param hardScore number of hard constraint violations
+ * @param softScore quality score (higher is better)
+ * @param lessonCount number of lessons in the solution
+ * @param assignedLessons lessons with both a timeslot and a room
+ * @param createdAt when the solution was saved
+ */
+public record SolutionSnapshotDTO(
+    int version,
+    String score,
+    int hardScore,
+    int softScore,
+    int lessonCount,
+    int assignedLessons,
+    Instant createdAt
+) {
+}
@@ -0,0 +1,11 @@
+package com.timetable.backend.domain.dto;
+
+/**
+ * Order in which queued solves start. Within a priority, solves start in the order they were requested.
+ */
+public enum SolvePriority {
+    /** Someone is waiting for the result, e.g. a preview after an edit. */
+    INTERACTIVE,
+    /** Scheduled or bulk work, e.g. a nightly full solve. */
+    BATCH
+}
@@ -0,0 +1,39 @@
+package com.timetable.backend.domain.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+
+/**
+ * Optional settings for one solve request. Every field may be omitted to use the server default.
+ *
+ * @param moveThreadCount move evaluation threads: NONE, AUTO or a positive number
+ * @param warmStart true to continue from the current schedule instead of solving from scratch
+ * @param priority queue priority if no solver is free, INTERACTIVE if omitted
+ * @param timeLimitSeconds maximum solving time, replacing the size-based (or warm-start) limit
+ * @param unimprovedTimeLimitSeconds stop once the best score has not improved for this long
+ * @param feasibleUnimprovedTimeLimitSeconds stop once the best solution is feasible (0hard) and
+ *                                           has not improved for this long
+ */
+public record SolveRequest(
+    @Pattern(regexp = "NONE|AUTO|[1-9][0-9]*", message = "Move thread count must be NONE, AUTO or a positive number")
+    String moveThreadCount,
+    Boolean warmStart,
+    SolvePriority priority,
+
+    @Positive(message = "Time limit must be positive")
+    @Max(value = 3600, message = "Time limit must be at most 3600 seconds")
+    Integer timeLimitSeconds,
+
+    @Positive(message = "Unimproved time limit must be positive")
+    @Max(value = 3600, message = "Unimproved time limit must be at most 3600 seconds")
+    Integer unimprovedTimeLimitSeconds,
+
+    @Positive(message = "Feasible unimproved time limit must be positive")
+    @Max(value = 3600, message = "Feasible unimproved time limit must be at most 3600 seconds")
+    Integer feasibleUnimprovedTimeLimitSeconds
+) {
+    public static SolveRequest defaults() {
+        return new SolveRequest(null, null, null, null, null, null);
+    }
+}
@@ -19,5 +19,21 @@ public record SolveResponse(
             "/api/solver/status/" + scheduleId
         );
     }
+
+    public static SolveResponse queued(Long scheduleId) {
+        return new SolveResponse(
+            scheduleId,
+            "All solvers are busy, schedule optimization is queued. Check status using the provided URL.",
+            "/api/solver/status/" + scheduleId
+        );
+    }
+
+    public static SolveResponse attached(Long scheduleId) {
+        return new SolveResponse(
+            scheduleId,
+            "Schedule optimization of the same data is already in progress. Check status using the provided URL.",
+            "/api/solver/status/" + scheduleId
+        );
+    }
 }
 
@@ -0,0 +1,53 @@
+package com.timetable.backend.domain.dto;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+
+import java.util.List;
+
+/**
+ * Payload of one event of the solver progress stream.
+ * Lessons are sent as a delta against the previous event of the same stream.
+ *
+ * @param scheduleId the schedule identifier
+ * @param score the score of the solution, null if the solve failed
+ * @param hardScore number of hard constraint violations, null if the solve failed
+ * @param softScore quality score, null if the solve failed
+ * @param assignedLessons lessons with both a timeslot and a room
+ * @param totalLessons all lessons of the solution
+ * @param changedLessons lessons that are new or moved since the previous event
+ * @param removedLessonIds lessons no longer part of the solution since the previous event
+ */
+public record SolverProgressEvent(
+    Long scheduleId,
+    String score,
+    Integer hardScore,
+    Integer softScore,
+    int assignedLessons,
+    int totalLessons,
+    List<ScheduledLessonDTO> changedLessons,
+    List<Long> removedLessonIds
+) {
+    public static SolverProgressEvent of(
+        Long scheduleId,
+        HardSoftScore score,
+        int assignedLessons,
+        int totalLessons,
+        List<ScheduledLessonDTO> changedLessons,
+        List<Long> removedLessonIds
+    ) {
+        return new SolverProgressEvent(
+            scheduleId,
+            score != null ? score.toString() : null,
+            score != null ? score.hardScore() : null,
+            score != null ? score.softScore() : null,
+            assignedLessons,
+            totalLessons,
+            changedLessons,
+            removedLessonIds
+        );
+    }
+
+    public static SolverProgressEvent failed(Long scheduleId) {
+        return new SolverProgressEvent(scheduleId, null, null, null, 0, 0, List.of(), List.of());
+    }
+}
@@ -8,11 +8,13 @@ import ai.timefold.solver.core.api.solver.SolverStatus;
  * @param scheduleId the schedule identifier
  * @param status current solver status (NOT_SOLVING, SOLVING_SCHEDULED, SOLVING_ACTIVE)
  * @param message human-readable status message
+ * @param queuePosition position in the solver queue (1 starts next), null if not queued
  */
 public record SolverStatusResponse(
     Long scheduleId,
     SolverStatus status,
-    String message
+    String message,
+    Integer queuePosition
 ) {
     public static SolverStatusResponse of(Long scheduleId, SolverStatus status) {
         String message = switch (status) {
@@ -21,7 +23,15 @@ public record SolverStatusResponse(
             case SOLVING_ACTIVE -> "Solver is actively optimizing the schedule";
         };
 
-        return new SolverStatusResponse(scheduleId, status, message);
+        return new SolverStatusResponse(scheduleId, status, message, null);
     }
-}
 
+    public static SolverStatusResponse queued(Long scheduleId, int queuePosition) {
+        return new SolverStatusResponse(
+            scheduleId,
+            SolverStatus.SOLVING_SCHEDULED,
+            "Waiting for a free solver at position " + queuePosition + " of the queue",
+            queuePosition
+        );
+    }
+}
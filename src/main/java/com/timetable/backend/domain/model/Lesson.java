@@ -1,20 +1,16 @@
 package com.timetable.backend.domain.model;
 
-import ai.timefold.solver.core.api.domain.entity.PlanningEntity;
-import ai.timefold.solver.core.api.domain.entity.PlanningPin;
-import ai.timefold.solver.core.api.domain.lookup.PlanningId;
-import ai.timefold.solver.core.api.domain.variable.PlanningVariable;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import lombok.*;
 
 /**
- * Represents a lesson that needs to be scheduled.
- * This is the main planning entity - Timefold Solver will assign timeslot and room.
+ * Represents a lesson that needs to be scheduled within a {@link Schedule}.
+ * The solver works on a {@link com.timetable.backend.solver.PlanningLesson} copy;
+ * its timeslot and room assignment is written back here.
  */
 @Entity
 @Table(name = "lessons")
-@PlanningEntity
 @Getter
 @Setter
 @NoArgsConstructor
@@ -25,10 +21,14 @@ public class Lesson {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
-    @PlanningId
     @EqualsAndHashCode.Include
     private Long id;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "schedule_id", nullable = false)
+    @ToString.Exclude
+    private Schedule schedule;
+
     @ManyToOne
     @JoinColumn(name = "teacher_id", nullable = false)
     private Teacher teacher;
@@ -37,12 +37,10 @@ public class Lesson {
     @JoinColumn(name = "dance_group_id", nullable = false)
     private DanceGroup danceGroup;
 
-    @PlanningVariable(valueRangeProviderRefs = "timeslotRange")
     @ManyToOne
     @JoinColumn(name = "timeslot_id")
     private Timeslot timeslot;
 
-    @PlanningVariable(valueRangeProviderRefs = "roomRange")
     @ManyToOne
     @JoinColumn(name = "room_id")
     private Room room;
@@ -51,14 +49,14 @@ public class Lesson {
     @Column(name = "duration_minutes", nullable = false)
     private int durationMinutes = 60;
 
-    @PlanningPin
     @Column(name = "is_pinned", nullable = false)
     private boolean pinned = false;
 
     @Column(name = "is_private", nullable = false)
     private boolean isPrivate = false;
 
-    public Lesson(Teacher teacher, DanceGroup danceGroup, int durationMinutes, boolean isPrivate) {
+    public Lesson(Schedule schedule, Teacher teacher, DanceGroup danceGroup, int durationMinutes, boolean isPrivate) {
+        this.schedule = schedule;
         this.teacher = teacher;
         this.danceGroup = danceGroup;
         this.durationMinutes = durationMinutes;
@@ -22,6 +22,11 @@ public class ResourceUnavailability {
     @EqualsAndHashCode.Include
     private Long id;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "schedule_id", nullable = false)
+    @ToString.Exclude
+    private Schedule schedule;
+
     @ManyToOne
     @JoinColumn(name = "teacher_id", nullable = false)
     private Teacher teacher;
@@ -33,7 +38,8 @@ public class ResourceUnavailability {
     @Column(name = "reason")
     private String reason;
 
-    public ResourceUnavailability(Teacher teacher, Timeslot timeslot, String reason) {
+    public ResourceUnavailability(Schedule schedule, Teacher teacher, Timeslot timeslot, String reason) {
+        this.schedule = schedule;
         this.teacher = teacher;
         this.timeslot = timeslot;
         this.reason = reason;
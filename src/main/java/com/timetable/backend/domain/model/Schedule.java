@@ -0,0 +1,41 @@
+package com.timetable.backend.domain.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import lombok.*;
+
+/**
+ * A timetable that is solved on its own, e.g. one term or one branch of the school.
+ * Lessons, timeslots and teacher unavailabilities belong to exactly one schedule;
+ * rooms and teachers are shared by all schedules.
+ */
+@Entity
+@Table(name = "schedules")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class Schedule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    @NotBlank
+    private String name;
+
+    /**
+     * Incremented by every edit of the problem data (lessons, unavailabilities, rooms),
+     * not by the solver's assignments. Two solves of the same version solve the same problem.
+     */
+    @Column(name = "data_version", nullable = false)
+    private long dataVersion;
+
+    public Schedule(String name) {
+        this.name = name;
+    }
+}
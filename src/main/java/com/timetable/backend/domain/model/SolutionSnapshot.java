@@ -0,0 +1,70 @@
+package com.timetable.backend.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.Instant;
+
+/**
+ * One solution saved by the solver: score and the binary assignment of every lesson
+ * (see {@link com.timetable.backend.solver.AssignmentSnapshot}). Versions count up per schedule.
+ */
+@Entity
+@Table(name = "solution_snapshots",
+    uniqueConstraints = @UniqueConstraint(name = "uk_snapshot_version", columnNames = {"schedule_id", "version"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class SolutionSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "schedule_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    private Schedule schedule;
+
+    @Column(name = "version", nullable = false)
+    private int version;
+
+    @Column(name = "hard_score", nullable = false)
+    private int hardScore;
+
+    @Column(name = "soft_score", nullable = false)
+    private int softScore;
+
+    @Column(name = "lesson_count", nullable = false)
+    private int lessonCount;
+
+    @Column(name = "assigned_count", nullable = false)
+    private int assignedCount;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Lob
+    @Column(name = "assignments", nullable = false, length = 16_777_215)
+    @ToString.Exclude
+    private byte[] assignments;
+
+    public SolutionSnapshot(Schedule schedule, int version, int hardScore, int softScore, int lessonCount,
+                            int assignedCount, Instant createdAt, byte[] assignments) {
+        this.schedule = schedule;
+        this.version = version;
+        this.hardScore = hardScore;
+        this.softScore = softScore;
+        this.lessonCount = lessonCount;
+        this.assignedCount = assignedCount;
+        this.createdAt = createdAt;
+        this.assignments = assignments;
+    }
+}
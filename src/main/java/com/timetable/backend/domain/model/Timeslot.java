@@ -7,12 +7,12 @@ import java.time.DayOfWeek;
 import java.time.LocalTime;
 
 /**
- * Represents a time slot in the weekly schedule.
- * Used as a Problem Fact in Timefold Solver - immutable reference data.
+ * Represents a time slot in the weekly grid of a {@link Schedule}.
+ * Immutable reference data; the solver works on a {@link com.timetable.backend.solver.PlanningTimeslot} copy.
  */
 @Entity
 @Table(name = "timeslots", uniqueConstraints = {
-    @UniqueConstraint(columnNames = {"day_of_week", "start_time", "end_time"})
+    @UniqueConstraint(columnNames = {"schedule_id", "day_of_week", "start_time", "end_time"})
 })
 @Getter
 @Setter
@@ -27,6 +27,11 @@ public class Timeslot {
     @EqualsAndHashCode.Include
     private Long id;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "schedule_id", nullable = false)
+    @ToString.Exclude
+    private Schedule schedule;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "day_of_week", nullable = false)
     private DayOfWeek dayOfWeek;
@@ -37,7 +42,8 @@ public class Timeslot {
     @Column(name = "end_time", nullable = false)
     private LocalTime endTime;
 
-    public Timeslot(DayOfWeek dayOfWeek, LocalTime startTime, LocalTime endTime) {
+    public Timeslot(Schedule schedule, DayOfWeek dayOfWeek, LocalTime startTime, LocalTime endTime) {
+        this.schedule = schedule;
         this.dayOfWeek = dayOfWeek;
         this.startTime = startTime;
         this.endTime = endTime;
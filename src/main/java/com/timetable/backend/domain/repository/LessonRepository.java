@@ -2,9 +2,28 @@ package com.timetable.backend.domain.repository;
 
 import com.timetable.backend.domain.model.Lesson;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface LessonRepository extends JpaRepository<Lesson, Long> {
-}
 
+    /**
+     * Loads the lessons of one schedule together with every association the solver reads,
+     * in a single query (no N+1 selects for the eager associations).
+     */
+    @Query("""
+        select l from Lesson l
+        join fetch l.teacher t
+        join fetch t.role
+        join fetch l.danceGroup g
+        left join fetch g.danceStyle
+        left join fetch l.timeslot
+        left join fetch l.room
+        where l.schedule.id = :scheduleId
+        """)
+    List<Lesson> findAllForSolver(@Param("scheduleId") Long scheduleId);
+}
@@ -4,6 +4,8 @@ import com.timetable.backend.domain.model.ResourceUnavailability;
 import com.timetable.backend.domain.model.Teacher;
 import com.timetable.backend.domain.model.Timeslot;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,5 +16,21 @@ public interface ResourceUnavailabilityRepository extends JpaRepository<Resource
     List<ResourceUnavailability> findByTeacher(Teacher teacher);
 
     List<ResourceUnavailability> findByTimeslot(Timeslot timeslot);
+
+    List<ResourceUnavailability> findByScheduleIdAndTeacherId(Long scheduleId, Long teacherId);
+
+    boolean existsByScheduleIdAndTeacherIdAndTimeslotId(Long scheduleId, Long teacherId, Long timeslotId);
+
+    /**
+     * Loads the unavailability records of one schedule with their teacher and timeslot in a single query.
+     */
+    @Query("""
+        select u from ResourceUnavailability u
+        join fetch u.teacher t
+        join fetch t.role
+        join fetch u.timeslot
+        where u.schedule.id = :scheduleId
+        """)
+    List<ResourceUnavailability> findAllForSolver(@Param("scheduleId") Long scheduleId);
 }
 
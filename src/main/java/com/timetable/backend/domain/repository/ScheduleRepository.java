@@ -0,0 +1,32 @@
+package com.timetable.backend.domain.repository;
+
+import com.timetable.backend.domain.model.Schedule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ScheduleRepository extends JpaRepository<Schedule, Long> {
+    Optional<Schedule> findByName(String name);
+
+    @Query("select s.id from Schedule s")
+    List<Long> findAllIds();
+
+    @Query("select s.dataVersion from Schedule s where s.id = :id")
+    Optional<Long> findDataVersionById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("update Schedule s set s.dataVersion = s.dataVersion + 1 where s.id = :id")
+    int incrementDataVersion(@Param("id") Long id);
+
+    // Rooms are shared, so a room edit changes the data of every schedule
+    @Transactional
+    @Modifying
+    @Query("update Schedule s set s.dataVersion = s.dataVersion + 1")
+    int incrementAllDataVersions();
+}
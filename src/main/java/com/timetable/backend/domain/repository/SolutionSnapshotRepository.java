@@ -0,0 +1,43 @@
+package com.timetable.backend.domain.repository;
+
+import com.timetable.backend.domain.model.SolutionSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface SolutionSnapshotRepository extends JpaRepository<SolutionSnapshot, Long> {
+
+    /**
+     * Columns of a snapshot without its assignment blob.
+     */
+    interface Summary {
+        int getVersion();
+
+        int getHardScore();
+
+        int getSoftScore();
+
+        int getLessonCount();
+
+        int getAssignedCount();
+
+        Instant getCreatedAt();
+    }
+
+    List<Summary> findByScheduleIdOrderByVersionDesc(Long scheduleId);
+
+    @Query("select s.assignments from SolutionSnapshot s where s.schedule.id = :scheduleId and s.version = :version")
+    Optional<byte[]> findAssignments(@Param("scheduleId") Long scheduleId, @Param("version") int version);
+
+    @Query("select coalesce(max(s.version), 0) from SolutionSnapshot s where s.schedule.id = :scheduleId")
+    int findLatestVersion(@Param("scheduleId") Long scheduleId);
+
+    @Modifying
+    @Query("delete from SolutionSnapshot s where s.schedule.id = :scheduleId and s.version <= :version")
+    int deleteUpToVersion(@Param("scheduleId") Long scheduleId, @Param("version") int version);
+}
@@ -2,7 +2,20 @@ package com.timetable.backend.domain.repository;
 
 import com.timetable.backend.domain.model.Teacher;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface TeacherRepository extends JpaRepository<Teacher, Long> {
-}
 
+    /**
+     * Loads, with their role, only the teachers that teach at least one lesson of the schedule.
+     */
+    @Query("""
+        select t from Teacher t
+        join fetch t.role
+        where t.id in (select l.teacher.id from Lesson l where l.schedule.id = :scheduleId)
+        """)
+    List<Teacher> findAllTeachingInSchedule(@Param("scheduleId") Long scheduleId);
+}
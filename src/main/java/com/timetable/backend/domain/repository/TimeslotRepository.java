@@ -6,12 +6,16 @@ import org.springframework.stereotype.Repository;
 
 import java.time.DayOfWeek;
 import java.time.LocalTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TimeslotRepository extends JpaRepository<Timeslot, Long> {
 
-    Optional<Timeslot> findByDayOfWeekAndStartTimeAndEndTime(
+    List<Timeslot> findByScheduleId(Long scheduleId);
+
+    Optional<Timeslot> findByScheduleIdAndDayOfWeekAndStartTimeAndEndTime(
+        Long scheduleId,
         DayOfWeek dayOfWeek,
         LocalTime startTime,
         LocalTime endTime
@@ -0,0 +1,141 @@
+package com.timetable.backend.service;
+
+import com.timetable.backend.solver.DanceSchedule;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Latest best solution of each schedule that is being solved or finished solving recently,
+ * so reads of the solution need not reload the schedule from the database.
+ * <p>
+ * Fed by the best-solution consumers. Entries of running solves stay until the solve ends;
+ * the final solution is then kept for the configured retention. If more than
+ * {@code max-schedules} schedules are held, the least recently used finished ones are dropped.
+ * A failed solve drops the schedule's entry, and so does an edit that no running solve took:
+ * solutions of the schedule are then ignored until its next solve starts with the new data.
+ */
+@Service
+@Slf4j
+public class BestSolutionStore {
+
+    private final int maxSchedules;
+    private final Duration retention;
+    private final Clock clock;
+
+    // Guarded by this. scheduleId -> latest best solution, least recently used first
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // Guarded by this. Schedules edited since their solve loaded its problem
+    private final Set<Long> invalidated = new HashSet<>();
+
+    @Autowired
+    public BestSolutionStore(
+            @Value("${timetable.solver.best-solution-store.max-schedules:50}") int maxSchedules,
+            @Value("${timetable.solver.best-solution-store.retention:10m}") Duration retention) {
+        this(maxSchedules, retention, Clock.systemUTC());
+    }
+
+    BestSolutionStore(int maxSchedules, Duration retention, Clock clock) {
+        this.maxSchedules = maxSchedules;
+        this.retention = retention;
+        this.clock = clock;
+    }
+
+    /**
+     * Accepts the solutions of a solve that is about to load its problem.
+     *
+     * @param scheduleId the schedule identifier
+     */
+    public synchronized void started(Long scheduleId) {
+        invalidated.remove(scheduleId);
+    }
+
+    /**
+     * Stores a new best solution of a running solve.
+     *
+     * @param best the new best solution
+     */
+    public synchronized void put(DanceSchedule best) {
+        if (invalidated.contains(best.getId())) {
+            return;
+        }
+        entries.put(best.getId(), new Entry(best, null));
+        evict();
+    }
+
+    /**
+     * Stores the final best solution of a solve, kept for the retention from now on.
+     *
+     * @param scheduleId the schedule identifier
+     * @param finalBest the final best solution, or null if the solve failed
+     */
+    public synchronized void finished(Long scheduleId, DanceSchedule finalBest) {
+        if (finalBest == null || invalidated.contains(scheduleId)) {
+            entries.remove(scheduleId);
+            return;
+        }
+        entries.put(scheduleId, new Entry(finalBest, clock.instant()));
+        evict();
+    }
+
+    /**
+     * @param scheduleId the schedule identifier
+     * @return the latest best solution of a running or recently finished solve
+     */
+    public synchronized Optional<DanceSchedule> get(Long scheduleId) {
+        evict();
+        Entry entry = entries.get(scheduleId);
+        return entry != null ? Optional.of(entry.solution()) : Optional.empty();
+    }
+
+    /**
+     * Drops the solution of a schedule whose stored data changed without the running solve
+     * taking the change, and ignores the solutions of that solve.
+     *
+     * @param scheduleId the schedule identifier
+     */
+    public synchronized void invalidate(Long scheduleId) {
+        entries.remove(scheduleId);
+        invalidated.add(scheduleId);
+    }
+
+    /**
+     * Drops the solutions of all finished solves, e.g. after an edit of data shared by all schedules.
+     */
+    public synchronized void removeFinished() {
+        entries.values().removeIf(Entry::isFinished);
+    }
+
+    private void evict() {
+        Instant expiredBefore = clock.instant().minus(retention);
+        entries.values().removeIf(entry -> entry.isFinished() && entry.finishedAt().isBefore(expiredBefore));
+
+        // Running solves are kept: their number is bounded by the solver queue
+        Iterator<Map.Entry<Long, Entry>> leastRecentlyUsed = entries.entrySet().iterator();
+        while (entries.size() > maxSchedules && leastRecentlyUsed.hasNext()) {
+            Map.Entry<Long, Entry> entry = leastRecentlyUsed.next();
+            if (entry.getValue().isFinished()) {
+                log.debug("Dropping stored solution of schedule {}", entry.getKey());
+                leastRecentlyUsed.remove();
+            }
+        }
+    }
+
+    private record Entry(DanceSchedule solution, Instant finishedAt) {
+
+        boolean isFinished() {
+            return finishedAt != null;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.timetable.backend.service;
+
+/**
+ * Thrown when an idempotency key is sent again with a different request than the first time.
+ */
+public class IdempotencyKeyReuseException extends RuntimeException {
+
+    public IdempotencyKeyReuseException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,130 @@
+package com.timetable.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the outcome of requests sent with an {@code Idempotency-Key} header, so a retry
+ * of the same request returns the first outcome instead of repeating the action.
+ * <p>
+ * Keys are kept in memory for {@code ttl}, at most {@code max-keys} of them; only successful
+ * outcomes are stored, so a request that failed can be retried with the same key.
+ */
+@Service
+@Slf4j
+public class IdempotencyKeyStore {
+
+    private final Duration ttl;
+    private final int maxKeys;
+    private final Clock clock;
+
+    // Guarded by this; insertion order is age order
+    private final Map<String, Outcome> outcomes = new LinkedHashMap<>();
+
+    @Autowired
+    public IdempotencyKeyStore(
+            @Value("${timetable.idempotency-key.ttl:24h}") Duration ttl,
+            @Value("${timetable.idempotency-key.max-keys:10000}") int maxKeys) {
+        this(ttl, maxKeys, Clock.systemUTC());
+    }
+
+    IdempotencyKeyStore(Duration ttl, int maxKeys, Clock clock) {
+        this.ttl = ttl;
+        this.maxKeys = maxKeys;
+        this.clock = clock;
+    }
+
+    /**
+     * Runs the action once per key. The store's lock is only held to look up and record the key,
+     * never while the action runs, so requests with different keys run in parallel. A retry that
+     * arrives before the first attempt has finished waits for its outcome.
+     *
+     * @param key the client's idempotency key
+     * @param request what the key was sent with; a retry must send an equal request
+     * @param action performs the request
+     * @return the outcome of the first request with this key
+     * @throws IdempotencyKeyReuseException if the key was used for a different request
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Object request, Supplier<T> action) {
+        Outcome outcome;
+        Outcome existing;
+        synchronized (this) {
+            Instant now = clock.instant();
+            evictExpired(now);
+
+            existing = outcomes.get(key);
+            if (existing != null && !Objects.equals(existing.request(), request)) {
+                throw new IdempotencyKeyReuseException("Idempotency key " + key + " was used for a different request");
+            }
+            outcome = existing != null ? existing : new Outcome(request, new CompletableFuture<>(), now.plus(ttl));
+            if (existing == null) {
+                if (outcomes.size() >= maxKeys) {
+                    Iterator<String> oldest = outcomes.keySet().iterator();
+                    oldest.next();
+                    oldest.remove();
+                }
+                outcomes.put(key, outcome);
+            }
+        }
+
+        if (existing != null) {
+            log.info("Repeated request with idempotency key {}, returning the first outcome", key);
+            return (T) await(existing.result());
+        }
+
+        try {
+            T result = action.get();
+            outcome.result().complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            // Not remembered: the key can be retried; requests already waiting see the failure
+            synchronized (this) {
+                outcomes.remove(key, outcome);
+            }
+            outcome.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // Guarded by this
+    private void evictExpired(Instant now) {
+        Iterator<Outcome> iterator = outcomes.values().iterator();
+        while (iterator.hasNext() && iterator.next().expiresAt().isBefore(now)) {
+            iterator.remove();
+        }
+    }
+
+    /**
+     * @param result completed with the action's result; pending while the first request runs
+     */
+    private record Outcome(Object request, CompletableFuture<Object> result, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,141 @@
+package com.timetable.backend.service;
+
+import ai.timefold.solver.core.api.score.ScoreExplanation;
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import ai.timefold.solver.core.api.score.constraint.ConstraintMatch;
+import ai.timefold.solver.core.api.score.constraint.ConstraintMatchTotal;
+import ai.timefold.solver.core.api.solver.SolutionManager;
+import com.timetable.backend.domain.dto.ConstraintAnalysisDTO;
+import com.timetable.backend.domain.dto.LessonIndictmentDTO;
+import com.timetable.backend.domain.dto.ScheduleAnalysisResponse;
+import com.timetable.backend.domain.repository.ScheduleRepository;
+import com.timetable.backend.solver.DanceSchedule;
+import com.timetable.backend.solver.IndictedLessons;
+import com.timetable.backend.solver.PlanningLesson;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Explains the score of the stored schedule: per constraint and per lesson.
+ * <p>
+ * The analysis is cached per schedule against the version of the stored lessons, i.e. the
+ * schedule's data version (edits) plus the solver's assignment version (saved solutions).
+ * Repeated requests for an unchanged schedule are answered from memory; any edit or save
+ * makes the next request load and score the schedule again.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ScheduleAnalysisService {
+
+    private static final Comparator<HardSoftScore> WORST_FIRST = Comparator.naturalOrder();
+
+    private final SolutionManager<DanceSchedule, HardSoftScore> solutionManager;
+    private final ScheduleProblemLoader scheduleProblemLoader;
+    private final ScheduleRepository scheduleRepository;
+    private final SolutionPersistenceService solutionPersistenceService;
+
+    // scheduleId -> latest analysis
+    private final Map<Long, CachedAnalysis> cache = new ConcurrentHashMap<>();
+
+    /**
+     * @param scheduleId the schedule identifier
+     * @return score of the stored schedule with its constraint matches
+     * @throws IllegalArgumentException if the schedule does not exist
+     */
+    public ScheduleAnalysisResponse analyze(Long scheduleId) {
+        // Read before loading: a write in between only makes the analysis newer than its version
+        long dataVersion = scheduleRepository.findDataVersionById(scheduleId)
+            .orElseThrow(() -> new IllegalArgumentException("Schedule not found: " + scheduleId));
+        StoredVersion version = new StoredVersion(dataVersion, solutionPersistenceService.assignmentVersion(scheduleId));
+
+        CachedAnalysis cached = cache.get(scheduleId);
+        if (cached != null && cached.version().equals(version)) {
+            return cached.analysis();
+        }
+
+        long start = System.currentTimeMillis();
+        ScheduleAnalysisResponse analysis = explain(dataVersion, scheduleProblemLoader.load(scheduleId));
+        cache.put(scheduleId, new CachedAnalysis(version, analysis));
+        log.debug("Analyzed schedule {} at version {} in {} ms", scheduleId, version,
+            System.currentTimeMillis() - start);
+        return analysis;
+    }
+
+    private ScheduleAnalysisResponse explain(long dataVersion, DanceSchedule schedule) {
+        ScoreExplanation<DanceSchedule, HardSoftScore> explanation = solutionManager.explain(schedule);
+        IndictedLessons indictedLessons = new IndictedLessons(schedule);
+
+        List<ConstraintMatchTotal<HardSoftScore>> matchTotals =
+            new ArrayList<>(explanation.getConstraintMatchTotalMap().values());
+        matchTotals.sort(Comparator.comparing(ConstraintMatchTotal::getScore, WORST_FIRST));
+
+        List<ConstraintAnalysisDTO> constraints = new ArrayList<>();
+        Map<PlanningLesson, LessonImpact> lessonImpacts = new LinkedHashMap<>();
+        for (ConstraintMatchTotal<HardSoftScore> matchTotal : matchTotals) {
+            if (matchTotal.getConstraintMatchCount() == 0) {
+                continue;
+            }
+            String constraintName = matchTotal.getConstraintRef().constraintName();
+            constraints.add(new ConstraintAnalysisDTO(constraintName, matchTotal.getScore().toString(),
+                matchTotal.getConstraintMatchCount()));
+
+            for (ConstraintMatch<HardSoftScore> match : matchTotal.getConstraintMatchSet()) {
+                for (PlanningLesson lesson : indictedLessons.of(match.getIndictedObjectList())) {
+                    lessonImpacts.computeIfAbsent(lesson, l -> new LessonImpact()).add(constraintName, match.getScore());
+                }
+            }
+        }
+
+        List<LessonIndictmentDTO> lessons = lessonImpacts.entrySet().stream()
+            .sorted(Map.Entry.comparingByValue(Comparator.comparing(LessonImpact::score, WORST_FIRST)))
+            .map(entry -> {
+                HardSoftScore score = entry.getValue().score();
+                return new LessonIndictmentDTO(entry.getKey().getId(), score.toString(), score.hardScore(),
+                    score.softScore(), List.copyOf(entry.getValue().constraintNames()));
+            })
+            .toList();
+
+        HardSoftScore score = explanation.getScore();
+        return new ScheduleAnalysisResponse(schedule.getId(), dataVersion, score.toString(),
+            score.hardScore(), score.softScore(), constraints, lessons);
+    }
+
+    private record StoredVersion(long dataVersion, long assignmentVersion) {
+    }
+
+    private record CachedAnalysis(StoredVersion version, ScheduleAnalysisResponse analysis) {
+    }
+
+    /**
+     * Summed score and names of the constraint matches of one lesson.
+     */
+    private static final class LessonImpact {
+
+        private HardSoftScore score = HardSoftScore.ZERO;
+        private final Set<String> constraintNames = new LinkedHashSet<>();
+
+        void add(String constraintName, HardSoftScore matchScore) {
+            score = score.add(matchScore);
+            constraintNames.add(constraintName);
+        }
+
+        HardSoftScore score() {
+            return score;
+        }
+
+        Set<String> constraintNames() {
+            return constraintNames;
+        }
+    }
+}
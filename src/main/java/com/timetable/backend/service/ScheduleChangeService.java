@@ -0,0 +1,260 @@
+package com.timetable.backend.service;
+
+import com.timetable.backend.domain.dto.CreateLessonRequest;
+import com.timetable.backend.domain.dto.CreateUnavailabilityRequest;
+import com.timetable.backend.domain.dto.ScheduleChangeResponse;
+import com.timetable.backend.domain.model.DanceGroup;
+import com.timetable.backend.domain.model.Lesson;
+import com.timetable.backend.domain.model.ResourceUnavailability;
+import com.timetable.backend.domain.model.Room;
+import com.timetable.backend.domain.model.Schedule;
+import com.timetable.backend.domain.model.Teacher;
+import com.timetable.backend.domain.model.Timeslot;
+import com.timetable.backend.domain.repository.DanceGroupRepository;
+import com.timetable.backend.domain.repository.LessonRepository;
+import com.timetable.backend.domain.repository.ResourceUnavailabilityRepository;
+import com.timetable.backend.domain.repository.RoomRepository;
+import com.timetable.backend.domain.repository.ScheduleRepository;
+import com.timetable.backend.domain.repository.TeacherRepository;
+import com.timetable.backend.domain.repository.TimeslotRepository;
+import com.timetable.backend.solver.DanceScheduleProblemChanges;
+import com.timetable.backend.solver.PlanningLesson;
+import com.timetable.backend.solver.PlanningTeacher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Edits the lessons, unavailabilities and rooms of schedules, and hands each edit to the running
+ * solve of the schedule as a problem change, so optimisation continues without a restart.
+ * <p>
+ * Every edit is committed before the solver sees it: the solver's saves of a new lesson must
+ * find its row. Removed rooms are the exception - they leave the solver first, so no later
+ * best solution still points at the deleted row. Each edit increments the data version of the
+ * schedules it touches, which tells whether a running solve still covers the current data.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ScheduleChangeService {
+
+    private final ScheduleRepository scheduleRepository;
+    private final LessonRepository lessonRepository;
+    private final TeacherRepository teacherRepository;
+    private final DanceGroupRepository danceGroupRepository;
+    private final TimeslotRepository timeslotRepository;
+    private final ResourceUnavailabilityRepository resourceUnavailabilityRepository;
+    private final RoomRepository roomRepository;
+    private final SolverService solverService;
+    private final BestSolutionStore bestSolutionStore;
+
+    @Value("${timetable.solver.room-removal-timeout:10s}")
+    private Duration roomRemovalTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Adds an unassigned lesson to a schedule.
+     *
+     * @param scheduleId the schedule identifier
+     * @param request teacher, group and length of the lesson
+     * @return id of the new lesson and whether a running solve took it
+     * @throws IllegalArgumentException if the schedule, teacher or dance group does not exist
+     */
+    public ScheduleChangeResponse addLesson(Long scheduleId, CreateLessonRequest request) {
+        Schedule schedule = findSchedule(scheduleId);
+        Teacher teacher = teacherRepository.findById(request.teacherId())
+            .orElseThrow(() -> new IllegalArgumentException("Teacher not found: " + request.teacherId()));
+        DanceGroup danceGroup = danceGroupRepository.findById(request.danceGroupId())
+            .orElseThrow(() -> new IllegalArgumentException("Dance group not found: " + request.danceGroupId()));
+
+        int durationMinutes = request.durationMinutes() != null ? request.durationMinutes() : 60;
+        boolean isPrivate = Boolean.TRUE.equals(request.isPrivate());
+        Lesson lesson = lessonRepository.save(new Lesson(schedule, teacher, danceGroup, durationMinutes, isPrivate));
+        scheduleRepository.incrementDataVersion(scheduleId);
+
+        // Only needed if the teacher has no other lesson in the running solve
+        Set<Long> unavailableTimeslotIds = resourceUnavailabilityRepository
+            .findByScheduleIdAndTeacherId(scheduleId, teacher.getId()).stream()
+            .map(unavailability -> unavailability.getTimeslot().getId())
+            .collect(Collectors.toSet());
+        PlanningLesson planningLesson = new PlanningLesson(lesson.getId(),
+            new PlanningTeacher(-1, teacher.getId(), teacher.getFullName(), teacher.getMaxDailyHours()),
+            danceGroup.getName(), durationMinutes, isPrivate, false, null, null);
+
+        boolean applied = solverService.addProblemChange(scheduleId,
+            DanceScheduleProblemChanges.addLesson(planningLesson, unavailableTimeslotIds)).isPresent();
+        log.info("Added lesson {} to schedule {} (applied to running solve: {})", lesson.getId(), scheduleId, applied);
+        return new ScheduleChangeResponse(lesson.getId(), applied);
+    }
+
+    /**
+     * Removes a lesson from a schedule.
+     *
+     * @param scheduleId the schedule identifier
+     * @param lessonId the lesson to remove
+     * @return id of the removed lesson and whether a running solve took the removal
+     * @throws IllegalArgumentException if the lesson does not exist in the schedule
+     */
+    public ScheduleChangeResponse removeLesson(Long scheduleId, Long lessonId) {
+        Lesson lesson = lessonRepository.findById(lessonId)
+            .filter(found -> found.getSchedule().getId().equals(scheduleId))
+            .orElseThrow(() -> new IllegalArgumentException("Lesson not found: " + lessonId));
+        lessonRepository.delete(lesson);
+        scheduleRepository.incrementDataVersion(scheduleId);
+
+        boolean applied = solverService.addProblemChange(scheduleId,
+            DanceScheduleProblemChanges.removeLesson(lessonId)).isPresent();
+        log.info("Removed lesson {} from schedule {} (applied to running solve: {})", lessonId, scheduleId, applied);
+        return new ScheduleChangeResponse(lessonId, applied);
+    }
+
+    /**
+     * Marks a timeslot of a schedule as unavailable for a teacher.
+     *
+     * @param scheduleId the schedule identifier
+     * @param request teacher, timeslot and reason
+     * @return id of the new unavailability and whether a running solve took it
+     * @throws IllegalArgumentException if the schedule or teacher does not exist,
+     *                                  or the timeslot does not belong to the schedule
+     */
+    public ScheduleChangeResponse addUnavailability(Long scheduleId, CreateUnavailabilityRequest request) {
+        Schedule schedule = findSchedule(scheduleId);
+        Teacher teacher = teacherRepository.findById(request.teacherId())
+            .orElseThrow(() -> new IllegalArgumentException("Teacher not found: " + request.teacherId()));
+        Timeslot timeslot = timeslotRepository.findById(request.timeslotId())
+            .filter(found -> found.getSchedule().getId().equals(scheduleId))
+            .orElseThrow(() -> new IllegalArgumentException("Timeslot not found: " + request.timeslotId()));
+
+        ResourceUnavailability unavailability = resourceUnavailabilityRepository.save(
+            new ResourceUnavailability(schedule, teacher, timeslot, request.reason()));
+        scheduleRepository.incrementDataVersion(scheduleId);
+
+        boolean applied = solverService.addProblemChange(scheduleId,
+            DanceScheduleProblemChanges.setTeacherUnavailable(teacher.getId(), timeslot.getId(), true)).isPresent();
+        log.info("Added unavailability {} to schedule {} (applied to running solve: {})",
+            unavailability.getId(), scheduleId, applied);
+        return new ScheduleChangeResponse(unavailability.getId(), applied);
+    }
+
+    /**
+     * Removes an unavailability of a schedule.
+     *
+     * @param scheduleId the schedule identifier
+     * @param unavailabilityId the unavailability to remove
+     * @return id of the removed unavailability and whether a running solve took the removal
+     * @throws IllegalArgumentException if the unavailability does not exist in the schedule
+     */
+    public ScheduleChangeResponse removeUnavailability(Long scheduleId, Long unavailabilityId) {
+        ResourceUnavailability unavailability = resourceUnavailabilityRepository.findById(unavailabilityId)
+            .filter(found -> found.getSchedule().getId().equals(scheduleId))
+            .orElseThrow(() -> new IllegalArgumentException("Unavailability not found: " + unavailabilityId));
+        Long teacherId = unavailability.getTeacher().getId();
+        Long timeslotId = unavailability.getTimeslot().getId();
+        resourceUnavailabilityRepository.delete(unavailability);
+        scheduleRepository.incrementDataVersion(scheduleId);
+
+        // Another record may still block the same timeslot
+        boolean applied = !resourceUnavailabilityRepository.existsByScheduleIdAndTeacherIdAndTimeslotId(
+                scheduleId, teacherId, timeslotId)
+            && solverService.addProblemChange(scheduleId,
+                DanceScheduleProblemChanges.setTeacherUnavailable(teacherId, timeslotId, false)).isPresent();
+        log.info("Removed unavailability {} from schedule {} (applied to running solve: {})",
+            unavailabilityId, scheduleId, applied);
+        return new ScheduleChangeResponse(unavailabilityId, applied);
+    }
+
+    /**
+     * Adds a newly saved room to every running solve (rooms are shared by all schedules).
+     *
+     * @param room the saved room
+     */
+    public void roomAdded(Room room) {
+        scheduleRepository.incrementAllDataVersions();
+        int applied = solverService.addProblemChangeToAll(DanceScheduleProblemChanges.addRoom(
+            room.getId(), room.getName(), room.getCapacity(), room.isAllowsParallelPrivate())).size();
+        log.info("Added room {} to {} running solves", room.getId(), applied);
+    }
+
+    /**
+     * Marks the data of every schedule as changed after a room was edited. Running solves keep
+     * the previous room settings until they are solved again; stored results of finished solves
+     * are dropped.
+     */
+    public void roomUpdated() {
+        scheduleRepository.incrementAllDataVersions();
+        bestSolutionStore.removeFinished();
+    }
+
+    /**
+     * Removes a room from every running solve, then from the database.
+     * <p>
+     * The data versions are incremented first, in their own transaction, so no new solve request
+     * attaches to a job that may still hold the room. The room is only deleted once every running
+     * solve has applied the change; a solve that still held it would fail each later save of its
+     * best solution. If a solve does not apply the change in time, the room is kept and the solves
+     * are brought back in line with it: those that dropped the room get it back, the others are
+     * terminated, since their queued change may still run.
+     *
+     * @param roomId the room to delete
+     * @return false if the room does not exist
+     * @throws IllegalStateException if a running solve did not apply the removal
+     */
+    public boolean removeRoom(Long roomId) {
+        Room room = roomRepository.findById(roomId).orElse(null);
+        if (room == null) {
+            return false;
+        }
+
+        scheduleRepository.incrementAllDataVersions();
+        Map<Long, CompletableFuture<Void>> applied =
+            solverService.addProblemChangeToAll(DanceScheduleProblemChanges.removeRoom(roomId));
+        try {
+            CompletableFuture.allOf(applied.values().toArray(CompletableFuture[]::new))
+                .get(roomRemovalTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            keepRoom(room, applied);
+            throw new IllegalStateException("Interrupted while removing room " + roomId + " from running solves", e);
+        } catch (ExecutionException | TimeoutException e) {
+            keepRoom(room, applied);
+            throw new IllegalStateException("Room " + roomId + " did not leave every running solve, "
+                + "try again or terminate the solves first", e);
+        }
+
+        roomRepository.deleteById(roomId);
+        log.info("Removed room {} from {} running solves", roomId, applied.size());
+        return true;
+    }
+
+    /**
+     * Undoes a removal that not every solve applied: the room goes back to the solves that
+     * dropped it, and the solves that may still drop it are terminated.
+     */
+    private void keepRoom(Room room, Map<Long, CompletableFuture<Void>> applied) {
+        applied.forEach((scheduleId, future) -> {
+            if (future.isDone() && !future.isCompletedExceptionally()) {
+                solverService.addProblemChange(scheduleId, DanceScheduleProblemChanges.addRoom(
+                    room.getId(), room.getName(), room.getCapacity(), room.isAllowsParallelPrivate()));
+            } else {
+                log.warn("Terminating solve of schedule {}, it did not remove room {} in time",
+                    scheduleId, room.getId());
+                solverService.terminateEarly(scheduleId);
+            }
+        });
+    }
+
+    private Schedule findSchedule(Long scheduleId) {
+        return scheduleRepository.findById(scheduleId)
+            .orElseThrow(() -> new IllegalArgumentException("Schedule not found: " + scheduleId));
+    }
+}
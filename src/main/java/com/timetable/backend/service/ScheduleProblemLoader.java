@@ -0,0 +1,139 @@
+package com.timetable.backend.service;
+
+import com.timetable.backend.domain.model.Lesson;
+import com.timetable.backend.domain.model.ResourceUnavailability;
+import com.timetable.backend.domain.model.Room;
+import com.timetable.backend.domain.model.Teacher;
+import com.timetable.backend.domain.model.Timeslot;
+import com.timetable.backend.domain.repository.LessonRepository;
+import com.timetable.backend.domain.repository.ResourceUnavailabilityRepository;
+import com.timetable.backend.domain.repository.RoomRepository;
+import com.timetable.backend.domain.repository.TeacherRepository;
+import com.timetable.backend.domain.repository.TimeslotRepository;
+import com.timetable.backend.solver.DanceSchedule;
+import com.timetable.backend.solver.LessonValueRanges;
+import com.timetable.backend.solver.PlanningLesson;
+import com.timetable.backend.solver.PlanningRoom;
+import com.timetable.backend.solver.PlanningTeacher;
+import com.timetable.backend.solver.PlanningTimeslot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads a {@link DanceSchedule} from the database in a constant number of queries.
+ * <p>
+ * Every query fetch-joins the associations the solver reads, so the number of
+ * round-trips does not grow with the number of lessons, teachers or unavailabilities.
+ * The entities are then mapped to the solver's planning model, so nothing the solver
+ * touches is managed by Hibernate, and each lesson gets its timeslot range ({@link LessonValueRanges}).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ScheduleProblemLoader {
+
+    private final TimeslotRepository timeslotRepository;
+    private final RoomRepository roomRepository;
+    private final TeacherRepository teacherRepository;
+    private final LessonRepository lessonRepository;
+    private final ResourceUnavailabilityRepository resourceUnavailabilityRepository;
+
+    /**
+     * Loads the problem facts and planning entities of one schedule with their current assignments.
+     * Timeslots, unavailabilities and lessons are those of the schedule; rooms are shared by all
+     * schedules, and only the teachers that teach in the schedule are loaded.
+     *
+     * @param scheduleId the schedule identifier
+     * @return DanceSchedule with all data loaded from database
+     */
+    @Transactional(readOnly = true)
+    public DanceSchedule load(Long scheduleId) {
+        log.info("Loading problem data from database for schedule ID: {}", scheduleId);
+
+        // Problem facts (immutable data)
+        List<Timeslot> timeslots = timeslotRepository.findByScheduleId(scheduleId);
+        List<Room> rooms = roomRepository.findAll();
+        List<Teacher> teachers = teacherRepository.findAllTeachingInSchedule(scheduleId);
+        List<ResourceUnavailability> resourceUnavailabilities =
+            resourceUnavailabilityRepository.findAllForSolver(scheduleId);
+
+        // Planning entities (lessons to be scheduled)
+        List<Lesson> lessons = lessonRepository.findAllForSolver(scheduleId);
+
+        log.info("Loaded {} timeslots, {} rooms, {} teachers, {} lessons",
+            timeslots.size(), rooms.size(), teachers.size(), lessons.size());
+
+        // Map to the planning model; list positions become the dense indexes
+        Map<Long, PlanningTimeslot> planningTimeslots = new HashMap<>();
+        List<PlanningTimeslot> timeslotList = new ArrayList<>(timeslots.size());
+        for (Timeslot timeslot : timeslots) {
+            PlanningTimeslot planningTimeslot = new PlanningTimeslot(timeslotList.size(), timeslot.getId(),
+                timeslot.getDayOfWeek(), timeslot.getStartTime(), timeslot.getEndTime());
+            timeslotList.add(planningTimeslot);
+            planningTimeslots.put(timeslot.getId(), planningTimeslot);
+        }
+
+        Map<Long, PlanningRoom> planningRooms = new HashMap<>();
+        List<PlanningRoom> roomList = new ArrayList<>(rooms.size());
+        for (Room room : rooms) {
+            PlanningRoom planningRoom = new PlanningRoom(roomList.size(), room.getId(),
+                room.getName(), room.getCapacity(), room.isAllowsParallelPrivate());
+            roomList.add(planningRoom);
+            planningRooms.put(room.getId(), planningRoom);
+        }
+
+        // Compress unavailability rows into one bitset per teacher, indexed by timeslot index
+        Map<Long, BitSet> unavailableTimeslots = new HashMap<>();
+        for (ResourceUnavailability unavailability : resourceUnavailabilities) {
+            // Unavailability of a teacher without lessons in this schedule is simply never read
+            unavailableTimeslots
+                .computeIfAbsent(unavailability.getTeacher().getId(), id -> new BitSet(timeslotList.size()))
+                .set(planningTimeslots.get(unavailability.getTimeslot().getId()).getIndex());
+        }
+
+        Map<Long, PlanningTeacher> planningTeachers = new HashMap<>();
+        List<PlanningTeacher> teacherList = new ArrayList<>(teachers.size());
+        for (Teacher teacher : teachers) {
+            PlanningTeacher planningTeacher = new PlanningTeacher(teacherList.size(), teacher.getId(),
+                teacher.getFullName(), teacher.getMaxDailyHours(),
+                unavailableTimeslots.getOrDefault(teacher.getId(), new BitSet()));
+            teacherList.add(planningTeacher);
+            planningTeachers.put(teacher.getId(), planningTeacher);
+        }
+
+        List<PlanningLesson> lessonList = new ArrayList<>(lessons.size());
+        for (Lesson lesson : lessons) {
+            lessonList.add(new PlanningLesson(
+                lesson.getId(),
+                planningTeachers.get(lesson.getTeacher().getId()),
+                lesson.getDanceGroup().getName(),
+                lesson.getDurationMinutes(),
+                lesson.isPrivate(),
+                lesson.isPinned(),
+                lesson.getTimeslot() != null ? planningTimeslots.get(lesson.getTimeslot().getId()) : null,
+                lesson.getRoom() != null ? planningRooms.get(lesson.getRoom().getId()) : null
+            ));
+        }
+
+        DanceSchedule schedule = new DanceSchedule(
+            scheduleId,
+            timeslotList,
+            roomList,
+            teacherList,
+            lessonList
+        );
+        LessonValueRanges.Pruning pruning = LessonValueRanges.restrict(schedule);
+        log.info("Lesson timeslot ranges: {} -> {} values, problem scale 10^{} -> 10^{}",
+            pruning.timeslotValuesBefore(), pruning.timeslotValuesAfter(),
+            String.format("%.1f", pruning.log10ScaleBefore()), String.format("%.1f", pruning.log10ScaleAfter()));
+        return schedule;
+    }
+}
@@ -0,0 +1,212 @@
+package com.timetable.backend.service;
+
+import com.timetable.backend.solver.AssignmentSnapshot;
+import com.timetable.backend.solver.DanceSchedule;
+import com.timetable.backend.solver.PlanningLesson;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes solver results back to the {@code lessons} table.
+ * <p>
+ * Keeps the last persisted assignment of every lesson per schedule and only writes
+ * the lessons whose timeslot or room changed since then. The changed rows are sent
+ * as a single JDBC batch instead of one select and one update per lesson.
+ * Updates are restricted to the solution's schedule, so a solve never writes another schedule's rows.
+ * Every write is also recorded as a snapshot by the {@link SolutionSnapshotService}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SolutionPersistenceService {
+
+    private static final String UPDATE_LESSON_ASSIGNMENT_SQL =
+        "UPDATE lessons SET timeslot_id = ?, room_id = ? WHERE id = ? AND schedule_id = ?";
+
+    // Timeslots and rooms deleted since a snapshot was taken leave the lesson unassigned
+    private static final String RESTORE_LESSON_ASSIGNMENT_SQL =
+        "UPDATE lessons SET timeslot_id = (SELECT t.id FROM timeslots t WHERE t.id = ? AND t.schedule_id = ?),"
+            + " room_id = (SELECT r.id FROM rooms r WHERE r.id = ?) WHERE id = ? AND schedule_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SolutionSnapshotService solutionSnapshotService;
+
+    // scheduleId -> (lessonId -> assignment currently stored in the database)
+    private final Map<Long, Map<Long, LessonAssignment>> persistedAssignments = new ConcurrentHashMap<>();
+
+    // scheduleId -> number of persists that changed rows; never reset, so it only grows
+    private final Map<Long, AtomicLong> assignmentVersions = new ConcurrentHashMap<>();
+
+    /**
+     * Records the assignment that is currently stored in the database for the given lessons.
+     * Must be called with the lessons as loaded, before any planning variables are cleared.
+     *
+     * @param scheduleId the schedule identifier
+     * @param lessons lessons as they are stored in the database
+     */
+    public void rememberPersistedAssignment(Long scheduleId, List<PlanningLesson> lessons) {
+        Map<Long, LessonAssignment> assignments = new HashMap<>(lessons.size() * 2);
+        lessons.forEach(lesson -> assignments.put(lesson.getId(), LessonAssignment.of(lesson)));
+        persistedAssignments.put(scheduleId, assignments);
+    }
+
+    /**
+     * Persists the lessons of the solution whose assignment differs from the last persisted one.
+     *
+     * @param solution the solved DanceSchedule
+     * @return number of lesson rows written
+     */
+    @Transactional
+    public int persist(DanceSchedule solution) {
+        Map<Long, LessonAssignment> persisted = persistedAssignments
+            .computeIfAbsent(solution.getId(), id -> new HashMap<>());
+
+        List<PlanningLesson> changedLessons = new ArrayList<>();
+        for (PlanningLesson lesson : solution.getLessonList()) {
+            if (!LessonAssignment.of(lesson).equals(persisted.get(lesson.getId()))) {
+                changedLessons.add(lesson);
+            }
+        }
+
+        if (changedLessons.isEmpty()) {
+            log.debug("No lesson assignments changed for schedule {}", solution.getId());
+            return 0;
+        }
+
+        jdbcTemplate.batchUpdate(UPDATE_LESSON_ASSIGNMENT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                PlanningLesson lesson = changedLessons.get(i);
+                LessonAssignment assignment = LessonAssignment.of(lesson);
+                ps.setObject(1, assignment.timeslotId(), Types.BIGINT);
+                ps.setObject(2, assignment.roomId(), Types.BIGINT);
+                ps.setLong(3, lesson.getId());
+                ps.setLong(4, solution.getId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return changedLessons.size();
+            }
+        });
+
+        solutionSnapshotService.record(solution);
+        // Remembered only once the rows are committed: after a rollback the next persist writes them again
+        Map<Long, LessonAssignment> written = new HashMap<>(changedLessons.size() * 2);
+        changedLessons.forEach(lesson -> written.put(lesson.getId(), LessonAssignment.of(lesson)));
+        afterCommit(() -> {
+            persisted.putAll(written);
+            incrementAssignmentVersion(solution.getId());
+        });
+
+        log.debug("Persisted {} changed lesson assignments for schedule {}",
+            changedLessons.size(), solution.getId());
+        return changedLessons.size();
+    }
+
+    /**
+     * Writes the assignment of a snapshot back to the lessons of a schedule, as one batched statement.
+     * Lessons deleted since the snapshot are skipped, lessons added since keep their assignment.
+     * Must not run while the schedule is being solved.
+     *
+     * @param scheduleId the schedule identifier
+     * @param snapshot the assignment to restore
+     * @return number of lesson rows written
+     */
+    @Transactional
+    public int restore(Long scheduleId, AssignmentSnapshot snapshot) {
+        List<AssignmentSnapshot.LessonAssignment> assignments = snapshot.assignments();
+        int[] updated = jdbcTemplate.batchUpdate(RESTORE_LESSON_ASSIGNMENT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                AssignmentSnapshot.LessonAssignment assignment = assignments.get(i);
+                ps.setObject(1, assignment.timeslotId(), Types.BIGINT);
+                ps.setLong(2, scheduleId);
+                ps.setObject(3, assignment.roomId(), Types.BIGINT);
+                ps.setLong(4, assignment.lessonId());
+                ps.setLong(5, scheduleId);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return assignments.size();
+            }
+        });
+
+        // The next solve loads the restored rows as its baseline
+        forget(scheduleId);
+        afterCommit(() -> incrementAssignmentVersion(scheduleId));
+        return (int) Arrays.stream(updated).filter(count -> count > 0 || count == Statement.SUCCESS_NO_INFO).count();
+    }
+
+    /**
+     * Version of the solver's assignment of a schedule in this application instance, incremented
+     * by every persist that wrote rows. Together with the schedule's data version it identifies
+     * the stored state of the lessons.
+     *
+     * @param scheduleId the schedule identifier
+     * @return 0 until the first write
+     */
+    public long assignmentVersion(Long scheduleId) {
+        AtomicLong version = assignmentVersions.get(scheduleId);
+        return version != null ? version.get() : 0;
+    }
+
+    private void incrementAssignmentVersion(Long scheduleId) {
+        assignmentVersions.computeIfAbsent(scheduleId, id -> new AtomicLong()).incrementAndGet();
+    }
+
+    // Readers that see the new version or remembered assignment must also see the new rows
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Drops the remembered assignment of a schedule once its solving has ended.
+     *
+     * @param scheduleId the schedule identifier
+     */
+    public void forget(Long scheduleId) {
+        persistedAssignments.remove(scheduleId);
+    }
+
+    /**
+     * Timeslot and room ids assigned to a lesson (either may be null).
+     */
+    private record LessonAssignment(Long timeslotId, Long roomId) {
+
+        static LessonAssignment of(PlanningLesson lesson) {
+            return new LessonAssignment(
+                lesson.getTimeslot() != null ? lesson.getTimeslot().getId() : null,
+                lesson.getRoom() != null ? lesson.getRoom().getId() : null
+            );
+        }
+    }
+}
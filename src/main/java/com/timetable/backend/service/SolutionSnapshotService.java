@@ -0,0 +1,121 @@
+package com.timetable.backend.service;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import com.timetable.backend.domain.dto.LessonAssignmentChangeDTO;
+import com.timetable.backend.domain.dto.SnapshotDiffResponse;
+import com.timetable.backend.domain.dto.SolutionSnapshotDTO;
+import com.timetable.backend.domain.model.SolutionSnapshot;
+import com.timetable.backend.domain.repository.ScheduleRepository;
+import com.timetable.backend.domain.repository.SolutionSnapshotRepository;
+import com.timetable.backend.solver.AssignmentSnapshot;
+import com.timetable.backend.solver.DanceSchedule;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * History of the solutions the solver saved, one {@link AssignmentSnapshot} row per save.
+ * <p>
+ * Snapshots are listed, loaded and compared from their binary assignment alone, without
+ * loading lesson entities. Only the latest {@code max-per-schedule} snapshots of a schedule are kept.
+ */
+@Service
+@Slf4j
+public class SolutionSnapshotService {
+
+    private final SolutionSnapshotRepository solutionSnapshotRepository;
+    private final ScheduleRepository scheduleRepository;
+    private final int maxPerSchedule;
+
+    public SolutionSnapshotService(
+            SolutionSnapshotRepository solutionSnapshotRepository,
+            ScheduleRepository scheduleRepository,
+            @Value("${timetable.solver.snapshots.max-per-schedule:200}") int maxPerSchedule) {
+        this.solutionSnapshotRepository = solutionSnapshotRepository;
+        this.scheduleRepository = scheduleRepository;
+        this.maxPerSchedule = maxPerSchedule;
+    }
+
+    /**
+     * Stores a saved solution as the schedule's next snapshot version.
+     * Runs in the transaction that wrote the lessons, so the history matches the table.
+     *
+     * @param solution the saved solution, with its score
+     * @return the new snapshot version
+     */
+    @Transactional
+    public int record(DanceSchedule solution) {
+        Long scheduleId = solution.getId();
+        AssignmentSnapshot assignment = AssignmentSnapshot.of(solution.getLessonList());
+        HardSoftScore score = solution.getScore() != null ? solution.getScore() : HardSoftScore.ZERO;
+        // Saves of one schedule are serialized by the write-behind, so the next version is free
+        int version = solutionSnapshotRepository.findLatestVersion(scheduleId) + 1;
+
+        solutionSnapshotRepository.save(new SolutionSnapshot(scheduleRepository.getReferenceById(scheduleId),
+            version, score.hardScore(), score.softScore(), assignment.size(), assignment.assignedCount(),
+            Instant.now(), assignment.encode()));
+        if (version > maxPerSchedule) {
+            solutionSnapshotRepository.deleteUpToVersion(scheduleId, version - maxPerSchedule);
+        }
+        log.debug("Recorded snapshot {} of schedule {}", version, scheduleId);
+        return version;
+    }
+
+    /**
+     * @param scheduleId the schedule identifier
+     * @return the schedule's snapshots, newest first
+     * @throws IllegalArgumentException if the schedule does not exist
+     */
+    @Transactional(readOnly = true)
+    public List<SolutionSnapshotDTO> list(Long scheduleId) {
+        if (!scheduleRepository.existsById(scheduleId)) {
+            throw new IllegalArgumentException("Schedule not found: " + scheduleId);
+        }
+        return solutionSnapshotRepository.findByScheduleIdOrderByVersionDesc(scheduleId).stream()
+            .map(summary -> new SolutionSnapshotDTO(summary.getVersion(),
+                HardSoftScore.of(summary.getHardScore(), summary.getSoftScore()).toString(),
+                summary.getHardScore(), summary.getSoftScore(), summary.getLessonCount(),
+                summary.getAssignedCount(), summary.getCreatedAt()))
+            .toList();
+    }
+
+    /**
+     * @param scheduleId the schedule identifier
+     * @param version the snapshot version
+     * @return the assignment stored in the snapshot
+     * @throws IllegalArgumentException if the snapshot does not exist
+     */
+    @Transactional(readOnly = true)
+    public AssignmentSnapshot load(Long scheduleId, int version) {
+        return solutionSnapshotRepository.findAssignments(scheduleId, version)
+            .map(AssignmentSnapshot::decode)
+            .orElseThrow(() -> new IllegalArgumentException(
+                "Snapshot " + version + " of schedule " + scheduleId + " not found"));
+    }
+
+    /**
+     * @param scheduleId the schedule identifier
+     * @param fromVersion the earlier snapshot version
+     * @param toVersion the later snapshot version
+     * @return the lessons whose assignment differs between the two snapshots
+     * @throws IllegalArgumentException if either snapshot does not exist
+     */
+    @Transactional(readOnly = true)
+    public SnapshotDiffResponse diff(Long scheduleId, int fromVersion, int toVersion) {
+        List<LessonAssignmentChangeDTO> changes = load(scheduleId, fromVersion)
+            .diff(load(scheduleId, toVersion)).stream()
+            .map(change -> new LessonAssignmentChangeDTO(change.lessonId(),
+                change.from() != null ? change.from().timeslotId() : null,
+                change.from() != null ? change.from().roomId() : null,
+                change.to() != null ? change.to().timeslotId() : null,
+                change.to() != null ? change.to().roomId() : null,
+                change.from() == null,
+                change.to() == null))
+            .toList();
+        return new SnapshotDiffResponse(scheduleId, fromVersion, toVersion, changes);
+    }
+}
@@ -0,0 +1,203 @@
+package com.timetable.backend.service;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import com.timetable.backend.solver.DanceSchedule;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind stage between the solver's best-solution events and the database.
+ * <p>
+ * Only the latest best solution per schedule is kept. It is written on a fixed cadence,
+ * or right away when the score improved by more than the configured threshold since the
+ * last write. Immediate writes of a schedule are at least the minimum gap apart; an improvement
+ * inside the gap is written when the gap has passed, together with any that follow it. The final best solution is always written synchronously when solving ends,
+ * so DB load stays flat no matter how fast the solver improves and no final result is lost.
+ */
+@Service
+@Slf4j
+public class SolutionWriteBehindService {
+
+    private final SolutionPersistenceService solutionPersistenceService;
+    private final Duration flushInterval;
+    private final int softScoreDeltaThreshold;
+    private final Duration minFlushGap;
+
+    // scheduleId -> latest best solution not yet written
+    private final Map<Long, DanceSchedule> pendingSolutions = new ConcurrentHashMap<>();
+    // scheduleId -> score of the last written solution
+    private final Map<Long, HardSoftScore> flushedScores = new ConcurrentHashMap<>();
+    // scheduleId -> System.nanoTime() of the last write
+    private final Map<Long, Long> flushedAt = new ConcurrentHashMap<>();
+    // schedules with an immediate flush scheduled but not yet started
+    private final Set<Long> scheduledFlushes = ConcurrentHashMap.newKeySet();
+    // scheduleId -> lock serializing writes of one schedule
+    private final Map<Long, Object> scheduleLocks = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService flusher;
+
+    public SolutionWriteBehindService(
+            SolutionPersistenceService solutionPersistenceService,
+            @Value("${timetable.solver.persistence.flush-interval:2s}") Duration flushInterval,
+            @Value("${timetable.solver.persistence.soft-score-delta:100}") int softScoreDeltaThreshold,
+            @Value("${timetable.solver.persistence.min-flush-gap:500ms}") Duration minFlushGap) {
+        this.solutionPersistenceService = solutionPersistenceService;
+        this.flushInterval = flushInterval;
+        this.softScoreDeltaThreshold = softScoreDeltaThreshold;
+        this.minFlushGap = minFlushGap;
+    }
+
+    @PostConstruct
+    void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "solution-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flushAll, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        flusher.shutdownNow();
+        flushAll();
+    }
+
+    /**
+     * Accepts a new best solution. Replaces any solution of the same schedule
+     * that has not been written yet.
+     *
+     * @param solution the new best solution
+     */
+    public void offer(DanceSchedule solution) {
+        if (solution.getScore() == null) {
+            log.warn("Solution score is null, skipping save");
+            return;
+        }
+
+        Long scheduleId = solution.getId();
+        pendingSolutions.put(scheduleId, solution);
+
+        // One scheduled flush per schedule: it writes whatever is pending when it runs
+        if (exceedsScoreDelta(flushedScores.get(scheduleId), solution.getScore())
+                && scheduledFlushes.add(scheduleId)) {
+            flusher.schedule(() -> {
+                scheduledFlushes.remove(scheduleId);
+                flush(scheduleId);
+            }, remainingGapNanos(scheduleId), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Writes the final best solution of a finished solve and releases the schedule's state.
+     * Runs on the calling thread, so the result is stored when this method returns.
+     *
+     * @param solution the final best solution
+     */
+    public void flushFinal(DanceSchedule solution) {
+        Long scheduleId = solution.getId();
+        try {
+            synchronized (lockFor(scheduleId)) {
+                pendingSolutions.remove(scheduleId);
+                write(solution);
+            }
+        } finally {
+            release(scheduleId);
+        }
+    }
+
+    /**
+     * Writes whatever is pending for a schedule whose solving failed and releases its state.
+     *
+     * @param scheduleId the schedule identifier
+     */
+    public void flushAndRelease(Long scheduleId) {
+        try {
+            flush(scheduleId);
+        } finally {
+            release(scheduleId);
+        }
+    }
+
+    private void flushAll() {
+        pendingSolutions.keySet().forEach(this::flush);
+    }
+
+    private void flush(Long scheduleId) {
+        try {
+            synchronized (lockFor(scheduleId)) {
+                DanceSchedule solution = pendingSolutions.remove(scheduleId);
+                if (solution != null) {
+                    write(solution);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to write best solution for schedule {}", scheduleId, e);
+        }
+    }
+
+    private void write(DanceSchedule solution) {
+        if (solution.getScore() == null) {
+            log.warn("Solution score is null, skipping save");
+            return;
+        }
+
+        // Recorded first, so an offer made while the write runs compares against this score
+        HardSoftScore previous = flushedScores.put(solution.getId(), solution.getScore());
+        flushedAt.put(solution.getId(), System.nanoTime());
+        int changed;
+        try {
+            changed = solutionPersistenceService.persist(solution);
+        } catch (RuntimeException e) {
+            if (previous != null) {
+                flushedScores.put(solution.getId(), previous);
+            } else {
+                flushedScores.remove(solution.getId());
+            }
+            throw e;
+        }
+
+        log.info("Saved solution for schedule ID: {}, score: {}, {} of {} lessons changed",
+            solution.getId(), solution.getScore(), changed, solution.getLessonList().size());
+    }
+
+    private boolean exceedsScoreDelta(HardSoftScore flushedScore, HardSoftScore newScore) {
+        if (flushedScore == null || newScore.hardScore() != flushedScore.hardScore()) {
+            return true;
+        }
+        return Math.abs(newScore.softScore() - flushedScore.softScore()) >= softScoreDeltaThreshold;
+    }
+
+    private long remainingGapNanos(Long scheduleId) {
+        Long lastFlush = flushedAt.get(scheduleId);
+        if (lastFlush == null) {
+            return 0;
+        }
+        return Math.max(0, minFlushGap.toNanos() - (System.nanoTime() - lastFlush));
+    }
+
+    private Object lockFor(Long scheduleId) {
+        return scheduleLocks.computeIfAbsent(scheduleId, id -> new Object());
+    }
+
+    private void release(Long scheduleId) {
+        pendingSolutions.remove(scheduleId);
+        flushedScores.remove(scheduleId);
+        flushedAt.remove(scheduleId);
+        scheduledFlushes.remove(scheduleId);
+        scheduleLocks.remove(scheduleId);
+        solutionPersistenceService.forget(scheduleId);
+    }
+}
@@ -0,0 +1,214 @@
+package com.timetable.backend.service;
+
+import ai.timefold.solver.core.config.solver.SolverManagerConfig;
+import com.timetable.backend.domain.dto.SolvePriority;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Admission control for solves: at most {@code max-running} schedules are solved at once,
+ * up to {@code capacity} more wait in priority order, and anything beyond that is rejected.
+ * <p>
+ * Without it every solve request starts a job, and jobs beyond the solver threads pile up
+ * inside the {@link ai.timefold.solver.core.api.solver.SolverManager} with their problems
+ * already loaded. Queued solves load their problem only when they start, so they also see
+ * every edit made while they waited. The caller reports the end of each started solve with
+ * {@link #finished(Long)}, which starts the next queued one.
+ */
+@Service
+@Slf4j
+public class SolverJobQueue {
+
+    /**
+     * Outcome of {@link #submit}.
+     */
+    public enum Admission {
+        STARTED,
+        QUEUED,
+        /** The same schedule and data is already being solved or queued; the caller follows that solve. */
+        ATTACHED
+    }
+
+    private static final Comparator<QueuedSolve> START_ORDER = Comparator
+        .comparing(QueuedSolve::priority)
+        .thenComparingLong(QueuedSolve::sequence);
+
+    private final int maxRunning;
+    private final int capacity;
+
+    // Starts dequeued solves, so loading a problem does not hold up the solver thread that finished
+    private final ExecutorService starter = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "solver-queue");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Guarded by this. scheduleId -> data version being solved, null while a dequeued solve loads its problem
+    private final Map<Long, Long> running = new HashMap<>();
+    private final PriorityQueue<QueuedSolve> queued = new PriorityQueue<>(START_ORDER);
+    private long sequence;
+
+    public SolverJobQueue(
+            @Value("${timetable.solver.queue.max-running:AUTO}") String maxRunning,
+            @Value("${timetable.solver.queue.capacity:20}") int capacity) {
+        // Same meaning as the solver manager's parallel solver count, so a started solve gets a solver thread
+        this.maxRunning = new SolverManagerConfig().withParallelSolverCount(maxRunning).resolveParallelSolverCount();
+        this.capacity = capacity;
+        log.info("Solving at most {} schedules at once, queueing up to {} more", this.maxRunning, capacity);
+    }
+
+    @PreDestroy
+    void stop() {
+        starter.shutdownNow();
+    }
+
+    /**
+     * Starts a solve now if a solver is free, otherwise queues it.
+     * <p>
+     * A schedule is solved by one job at a time. A second solve of it attaches to that job if the
+     * job covers the same data: a queued solve always does, since it loads its problem when it starts.
+     *
+     * @param scheduleId the schedule to solve
+     * @param dataVersion the schedule's current {@link com.timetable.backend.domain.model.Schedule#getDataVersion()}
+     * @param priority queue priority, INTERACTIVE if null
+     * @param start loads the problem and starts the solver job; runs on the caller's thread if started now
+     * @return whether the solve started, was queued or attached to the existing solve
+     * @throws IllegalStateException if the schedule is being solved with older data
+     * @throws SolverQueueFullException if no solver is free and the queue is full
+     */
+    public Admission submit(Long scheduleId, long dataVersion, SolvePriority priority, Runnable start) {
+        synchronized (this) {
+            if (isQueued(scheduleId)) {
+                log.info("Schedule {} is already queued, attaching to that solve", scheduleId);
+                return Admission.ATTACHED;
+            }
+            if (running.containsKey(scheduleId)) {
+                Long solvedVersion = running.get(scheduleId);
+                if (solvedVersion == null || solvedVersion == dataVersion) {
+                    log.info("Schedule {} is already being solved at data version {}, attaching to that solve",
+                        scheduleId, dataVersion);
+                    return Admission.ATTACHED;
+                }
+                throw new IllegalStateException("Schedule " + scheduleId + " is being solved with data version "
+                    + solvedVersion + ", not the current " + dataVersion + "; terminate it and solve again");
+            }
+            if (running.size() >= maxRunning) {
+                if (queued.size() >= capacity) {
+                    throw new SolverQueueFullException(
+                        "All " + maxRunning + " solvers are busy and " + capacity + " solves are waiting");
+                }
+                queued.add(new QueuedSolve(scheduleId, priority != null ? priority : SolvePriority.INTERACTIVE,
+                    sequence++, start));
+                log.info("Queued solve of schedule {} ({} waiting)", scheduleId, queued.size());
+                return Admission.QUEUED;
+            }
+            running.put(scheduleId, dataVersion);
+        }
+
+        try {
+            start.run();
+        } catch (RuntimeException e) {
+            finished(scheduleId);
+            throw e;
+        }
+        return Admission.STARTED;
+    }
+
+    /**
+     * Frees the solver of a started solve and starts the next queued one, if any.
+     *
+     * @param scheduleId the schedule whose solve ended
+     */
+    public void finished(Long scheduleId) {
+        QueuedSolve next;
+        synchronized (this) {
+            if (!running.containsKey(scheduleId)) {
+                return;
+            }
+            running.remove(scheduleId);
+            next = queued.poll();
+            if (next == null) {
+                return;
+            }
+            running.put(next.scheduleId(), null);
+        }
+
+        log.info("Starting queued solve of schedule {}", next.scheduleId());
+        starter.execute(() -> {
+            try {
+                next.start().run();
+            } catch (RuntimeException e) {
+                log.error("Could not start queued solve of schedule {}", next.scheduleId(), e);
+                finished(next.scheduleId());
+            }
+        });
+    }
+
+    /**
+     * Records the data version a started solve covers: the version its problem was loaded at,
+     * or a newer one once an edit has been applied to the running job.
+     *
+     * @param scheduleId the schedule identifier
+     * @param dataVersion data version the solve now covers
+     */
+    public synchronized void solvingDataVersion(Long scheduleId, long dataVersion) {
+        if (running.containsKey(scheduleId)) {
+            Long solvedVersion = running.get(scheduleId);
+            running.put(scheduleId, solvedVersion != null ? Math.max(solvedVersion, dataVersion) : dataVersion);
+        }
+    }
+
+    /**
+     * Removes a solve from the queue before it starts.
+     *
+     * @param scheduleId the schedule identifier
+     * @return true if the schedule was queued
+     */
+    public synchronized boolean cancel(Long scheduleId) {
+        return queued.removeIf(solve -> solve.scheduleId().equals(scheduleId));
+    }
+
+    /**
+     * @param scheduleId the schedule identifier
+     * @return true if the schedule waits for a free solver
+     */
+    public synchronized boolean isQueued(Long scheduleId) {
+        return queued.stream().anyMatch(solve -> solve.scheduleId().equals(scheduleId));
+    }
+
+    /**
+     * @param scheduleId the schedule identifier
+     * @return 1 for the next solve to start, 0 if the schedule is not queued
+     */
+    public synchronized int queuePosition(Long scheduleId) {
+        List<QueuedSolve> inOrder = new ArrayList<>(queued);
+        inOrder.sort(START_ORDER);
+        for (int i = 0; i < inOrder.size(); i++) {
+            if (inOrder.get(i).scheduleId().equals(scheduleId)) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return how many schedules are solved at once
+     */
+    public int maxRunning() {
+        return maxRunning;
+    }
+
+    private record QueuedSolve(Long scheduleId, SolvePriority priority, long sequence, Runnable start) {
+    }
+}
@@ -0,0 +1,156 @@
+package com.timetable.backend.service;
+
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.api.solver.SolverManager;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import ai.timefold.solver.core.config.solver.SolverManagerConfig;
+import ai.timefold.solver.core.enterprise.TimefoldSolverEnterpriseService;
+import com.timetable.backend.solver.DanceSchedule;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Provides a {@link SolverManager} per move thread count, so each solve request can choose
+ * how many threads evaluate moves.
+ * <p>
+ * The application's autoconfigured manager serves the configured {@code timefold.solver.*}
+ * setting; managers for other thread counts are built from a copy of the same
+ * {@link SolverConfig} on first use. Multi-threaded move evaluation needs Timefold Solver
+ * Enterprise Edition on the classpath; without it the default falls back to NONE and explicit
+ * thread counts are rejected.
+ * <p>
+ * The {@link SolverJobQueue} runs up to {@code max-running} solves at once, so each solve gets
+ * an equal share of the processors: its solver thread plus at most share - 1 move threads.
+ * AUTO resolves to that number, larger counts are rejected, and with fewer than two move threads
+ * to spare solves stay single-threaded. Otherwise every admitted solve could take all processors.
+ */
+@Service
+@Slf4j
+public class SolverManagerRegistry {
+
+    static final String NONE = SolverConfig.MOVE_THREAD_COUNT_NONE;
+
+    private final SolverConfig solverConfig;
+    private final SolverManager<DanceSchedule, Long> configuredSolverManager;
+    private final String configuredMoveThreadCount;
+    private final boolean multithreadedSolvingAvailable;
+    private final String defaultMoveThreadCount;
+    private final int maxMoveThreadCount;
+
+    // move thread count -> manager, for counts other than the configured one
+    private final Map<String, SolverManager<DanceSchedule, Long>> solverManagers = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SolverManagerRegistry(
+            SolverConfig solverConfig,
+            SolverManager<DanceSchedule, Long> solverManager,
+            SolverJobQueue solverJobQueue,
+            @Value("${timetable.solver.move-thread-count:AUTO}") String defaultMoveThreadCount) {
+        this(solverConfig, solverManager, defaultMoveThreadCount,
+            Runtime.getRuntime().availableProcessors() / solverJobQueue.maxRunning() - 1,
+            TimefoldSolverEnterpriseService.load() != null);
+    }
+
+    SolverManagerRegistry(SolverConfig solverConfig, SolverManager<DanceSchedule, Long> solverManager,
+                          String defaultMoveThreadCount, int maxMoveThreadCount,
+                          boolean multithreadedSolvingAvailable) {
+        this.solverConfig = solverConfig;
+        this.configuredSolverManager = solverManager;
+        this.configuredMoveThreadCount = solverConfig.getMoveThreadCount() != null
+            ? solverConfig.getMoveThreadCount() : NONE;
+        // One move thread only hands the moves of the solver thread to another thread
+        this.maxMoveThreadCount = maxMoveThreadCount >= 2 ? maxMoveThreadCount : 0;
+        this.multithreadedSolvingAvailable = multithreadedSolvingAvailable;
+
+        if (!multithreadedSolvingAvailable && !NONE.equals(defaultMoveThreadCount)) {
+            log.info("Multi-threaded solving is not available, using move thread count {} instead of {}",
+                NONE, defaultMoveThreadCount);
+            this.defaultMoveThreadCount = NONE;
+        } else if (this.maxMoveThreadCount == 0 && !NONE.equals(defaultMoveThreadCount)) {
+            log.info("No processors to spare for move threads, using move thread count {} instead of {}",
+                NONE, defaultMoveThreadCount);
+            this.defaultMoveThreadCount = NONE;
+        } else {
+            this.defaultMoveThreadCount = defaultMoveThreadCount;
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        solverManagers.values().forEach(SolverManager::close);
+    }
+
+    /**
+     * Returns the manager for the requested move thread count.
+     *
+     * @param moveThreadCount NONE, AUTO, a positive number, or null for the default
+     * @return manager whose solvers use that move thread count, AUTO resolved to the per-solve maximum
+     * @throws UnsupportedOperationException if multi-threaded solving is requested but not available,
+     *                                       or with more move threads than a solve's share of the processors
+     */
+    public SolverManager<DanceSchedule, Long> forMoveThreadCount(String moveThreadCount) {
+        String requested = moveThreadCount != null ? moveThreadCount : defaultMoveThreadCount;
+        if (!NONE.equals(requested) && !multithreadedSolvingAvailable) {
+            throw new UnsupportedOperationException(
+                "Move thread count " + requested + " requires Timefold Solver Enterprise Edition");
+        }
+        String effective = resolve(requested);
+        if (effective.equals(configuredMoveThreadCount)) {
+            return configuredSolverManager;
+        }
+        return solverManagers.computeIfAbsent(effective, count -> {
+            log.info("Creating solver manager with move thread count {}", count);
+            SolverConfig config = solverConfig.copyConfig().withMoveThreadCount(count);
+            return SolverManager.create(SolverFactory.create(config), new SolverManagerConfig());
+        });
+    }
+
+    /**
+     * @return the move thread count to solve with, AUTO replaced by the per-solve maximum
+     * @throws UnsupportedOperationException if the count is invalid or above the per-solve maximum
+     */
+    String resolve(String moveThreadCount) {
+        if (NONE.equals(moveThreadCount)) {
+            return NONE;
+        }
+        if (maxMoveThreadCount == 0) {
+            throw new UnsupportedOperationException(
+                "Move thread count " + moveThreadCount + " leaves no processors for the other solves");
+        }
+        if (SolverConfig.MOVE_THREAD_COUNT_AUTO.equals(moveThreadCount)) {
+            return Integer.toString(maxMoveThreadCount);
+        }
+        int count;
+        try {
+            count = Integer.parseInt(moveThreadCount);
+        } catch (NumberFormatException e) {
+            count = 0;
+        }
+        if (count < 1) {
+            throw new UnsupportedOperationException("Unknown move thread count " + moveThreadCount);
+        }
+        if (count > maxMoveThreadCount) {
+            throw new UnsupportedOperationException("Move thread count " + count
+                + " exceeds the " + maxMoveThreadCount + " move threads available per solve");
+        }
+        return moveThreadCount;
+    }
+
+    /**
+     * @return every manager created so far, the configured one first
+     */
+    public List<SolverManager<DanceSchedule, Long>> all() {
+        List<SolverManager<DanceSchedule, Long>> all = new ArrayList<>(solverManagers.size() + 1);
+        all.add(configuredSolverManager);
+        all.addAll(solverManagers.values());
+        return all;
+    }
+}
@@ -0,0 +1,316 @@
+package com.timetable.backend.service;
+
+import com.timetable.backend.domain.dto.ScheduledLessonDTO;
+import com.timetable.backend.domain.dto.SolverProgressEvent;
+import com.timetable.backend.solver.DanceSchedule;
+import com.timetable.backend.solver.PlanningLesson;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Pushes solver progress to subscribed clients as Server-Sent Events, straight from the
+ * solver's best-solution events, so dashboards need not poll the status and reload the solution.
+ * <p>
+ * A subscriber first gets a {@value #SNAPSHOT} of the latest best solution of a running or
+ * recently finished solve, if the {@link BestSolutionStore} has one. Every {@value #BEST_SOLUTION} and the {@value #FINISHED} event after that
+ * carry the score, the assignment progress and only the lessons that changed since the previous
+ * event of the stream. A failed solve sends {@value #FAILED}. A subscription spans solves
+ * and ends when the client disconnects or the emitter times out.
+ * <p>
+ * Solutions are only diffed for schedules that have subscribers. Events are written to each
+ * subscriber by its own sender task, so the solver's best-solution consumer never blocks on a
+ * client; a subscriber with {@code max-pending-events} unsent events has fallen behind and is closed.
+ * It can reconnect and starts again from a snapshot.
+ */
+@Service
+@Slf4j
+public class SolverProgressService {
+
+    static final String SNAPSHOT = "snapshot";
+    static final String BEST_SOLUTION = "best-solution";
+    static final String FINISHED = "finished";
+    static final String FAILED = "failed";
+
+    private final BestSolutionStore bestSolutionStore;
+    private final Duration emitterTimeout;
+    private final int maxPendingEvents;
+    // Runs the blocking writes to the clients, one task per subscriber at a time
+    private final Executor sender;
+
+    // scheduleId -> subscribers of the schedule
+    private final Map<Long, ProgressStream> streams = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SolverProgressService(
+            BestSolutionStore bestSolutionStore,
+            @Value("${timetable.solver.progress.emitter-timeout:30m}") Duration emitterTimeout,
+            @Value("${timetable.solver.progress.max-pending-events:16}") int maxPendingEvents) {
+        this(bestSolutionStore, emitterTimeout, maxPendingEvents,
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("progress-sender-", 0).factory()));
+    }
+
+    SolverProgressService(BestSolutionStore bestSolutionStore, Duration emitterTimeout, int maxPendingEvents,
+                          Executor sender) {
+        this.bestSolutionStore = bestSolutionStore;
+        this.emitterTimeout = emitterTimeout;
+        this.maxPendingEvents = maxPendingEvents;
+        this.sender = sender;
+    }
+
+    @PreDestroy
+    void stop() {
+        if (sender instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Subscribes to the progress of every solve of a schedule.
+     *
+     * @param scheduleId the schedule identifier
+     * @return the emitter of the new subscription
+     */
+    public SseEmitter subscribe(Long scheduleId) {
+        return subscribe(scheduleId, new SseEmitter(emitterTimeout.toMillis()));
+    }
+
+    SseEmitter subscribe(Long scheduleId, SseEmitter emitter) {
+        emitter.onCompletion(() -> unsubscribe(scheduleId, emitter));
+        emitter.onError(error -> unsubscribe(scheduleId, emitter));
+
+        // A stream closes once its last subscriber leaves; take a new one if that just happened
+        ProgressStream stream;
+        do {
+            stream = streams.computeIfAbsent(scheduleId, ProgressStream::new);
+        } while (!stream.add(emitter, bestSolutionStore.get(scheduleId).orElse(null)));
+        log.debug("New progress subscriber for schedule {}", scheduleId);
+        return emitter;
+    }
+
+    private void unsubscribe(Long scheduleId, SseEmitter emitter) {
+        ProgressStream stream = streams.get(scheduleId);
+        if (stream != null) {
+            stream.remove(emitter);
+        }
+    }
+
+    /**
+     * Publishes a new best solution of a running solve.
+     *
+     * @param best the new best solution
+     */
+    public void bestSolution(DanceSchedule best) {
+        ProgressStream stream = streams.get(best.getId());
+        if (stream != null) {
+            stream.publish(BEST_SOLUTION, best);
+        }
+    }
+
+    /**
+     * Publishes the end of a solve.
+     *
+     * @param scheduleId the schedule identifier
+     * @param finalBest the final best solution, or null if the solve failed
+     */
+    public void finished(Long scheduleId, DanceSchedule finalBest) {
+        ProgressStream stream = streams.get(scheduleId);
+        if (stream == null) {
+            return;
+        }
+        if (finalBest != null) {
+            stream.publish(FINISHED, finalBest);
+        } else {
+            stream.failed();
+        }
+    }
+
+    private record Assignment(Long timeslotId, Long roomId) {
+
+        static Assignment of(PlanningLesson lesson) {
+            return new Assignment(
+                lesson.getTimeslot() != null ? lesson.getTimeslot().getId() : null,
+                lesson.getRoom() != null ? lesson.getRoom().getId() : null);
+        }
+    }
+
+    /**
+     * Subscribers of one schedule and the assignment they were last sent.
+     */
+    private final class ProgressStream {
+
+        private final Long scheduleId;
+        private final List<Subscriber> subscribers = new ArrayList<>();
+        // lessonId -> assignment sent last, the base of the next delta
+        private final Map<Long, Assignment> sentAssignments = new HashMap<>();
+        private DanceSchedule sentSolution;
+        private boolean closed;
+
+        ProgressStream(Long scheduleId) {
+            this.scheduleId = scheduleId;
+        }
+
+        synchronized boolean add(SseEmitter emitter, DanceSchedule latest) {
+            if (closed) {
+                return false;
+            }
+            if (latest != null && latest != sentSolution) {
+                // Bring the other subscribers up to the snapshot, so all share one delta base
+                publish(BEST_SOLUTION, latest);
+            }
+            Subscriber subscriber = new Subscriber(this, emitter);
+            subscribers.add(subscriber);
+            if (latest != null) {
+                List<ScheduledLessonDTO> lessons = latest.getLessonList().stream()
+                    .map(ScheduledLessonDTO::from)
+                    .toList();
+                subscriber.offer(SNAPSHOT, event(latest, lessons, List.of()));
+            }
+            return true;
+        }
+
+        synchronized void remove(SseEmitter emitter) {
+            subscribers.removeIf(subscriber -> subscriber.emitter == emitter);
+            closeIfUnused();
+        }
+
+        synchronized void publish(String eventName, DanceSchedule solution) {
+            List<ScheduledLessonDTO> changedLessons = new ArrayList<>();
+            Map<Long, Assignment> previous = new HashMap<>(sentAssignments);
+            sentAssignments.clear();
+            for (PlanningLesson lesson : solution.getLessonList()) {
+                Assignment assignment = Assignment.of(lesson);
+                sentAssignments.put(lesson.getId(), assignment);
+                if (!Objects.equals(previous.remove(lesson.getId()), assignment)) {
+                    changedLessons.add(ScheduledLessonDTO.from(lesson));
+                }
+            }
+            sentSolution = solution;
+
+            sendToAll(eventName, event(solution, changedLessons, List.copyOf(previous.keySet())));
+        }
+
+        synchronized void failed() {
+            sendToAll(FAILED, SolverProgressEvent.failed(scheduleId));
+        }
+
+        private SolverProgressEvent event(DanceSchedule solution, List<ScheduledLessonDTO> changedLessons,
+                                          List<Long> removedLessonIds) {
+            int assigned = (int) solution.getLessonList().stream()
+                .filter(lesson -> lesson.getTimeslot() != null && lesson.getRoom() != null)
+                .count();
+            return SolverProgressEvent.of(scheduleId, solution.getScore(), assigned,
+                solution.getLessonList().size(), changedLessons, removedLessonIds);
+        }
+
+        // Only queues the event; a subscriber whose queue is full is closed
+        private void sendToAll(String eventName, SolverProgressEvent event) {
+            for (Subscriber subscriber : List.copyOf(subscribers)) {
+                subscriber.offer(eventName, event);
+            }
+        }
+
+        synchronized void drop(Subscriber subscriber) {
+            subscribers.remove(subscriber);
+            closeIfUnused();
+        }
+
+        private void closeIfUnused() {
+            if (subscribers.isEmpty() && !closed) {
+                closed = true;
+                streams.remove(scheduleId, this);
+            }
+        }
+    }
+
+    /**
+     * One client: the events not sent to it yet, written in order by at most one sender task.
+     */
+    private final class Subscriber implements Runnable {
+
+        private final ProgressStream stream;
+        private final SseEmitter emitter;
+        // Guarded by this
+        private final Deque<SseEmitter.SseEventBuilder> pending = new ArrayDeque<>();
+        private boolean sending;
+        private boolean dropped;
+
+        Subscriber(ProgressStream stream, SseEmitter emitter) {
+            this.stream = stream;
+            this.emitter = emitter;
+        }
+
+        void offer(String eventName, SolverProgressEvent event) {
+            boolean fellBehind;
+            synchronized (this) {
+                if (dropped) {
+                    return;
+                }
+                fellBehind = pending.size() >= maxPendingEvents;
+                if (fellBehind) {
+                    dropped = true;
+                    pending.clear();
+                } else {
+                    pending.add(SseEmitter.event().name(eventName).data(event, MediaType.APPLICATION_JSON));
+                    if (sending) {
+                        return;
+                    }
+                    sending = true;
+                }
+            }
+            if (fellBehind) {
+                // The client reconnects and starts again from a snapshot
+                log.info("Closing progress subscriber of schedule {}: {} events behind",
+                    stream.scheduleId, maxPendingEvents);
+                stream.drop(this);
+                emitter.complete();
+                return;
+            }
+            sender.execute(this);
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                SseEmitter.SseEventBuilder event;
+                synchronized (this) {
+                    event = pending.poll();
+                    if (event == null || dropped) {
+                        sending = false;
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    // Disconnected or completed; the container reports the error to the emitter itself
+                    log.debug("Dropping progress subscriber of schedule {}: {}", stream.scheduleId, e.getMessage());
+                    synchronized (this) {
+                        dropped = true;
+                        pending.clear();
+                    }
+                    stream.drop(this);
+                    return;
+                }
+            }
+        }
+    }
+}
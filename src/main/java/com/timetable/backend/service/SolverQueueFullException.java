@@ -0,0 +1,11 @@
+package com.timetable.backend.service;
+
+/**
+ * Thrown when a solve can neither start nor wait, because every solver is busy and the queue is full.
+ */
+public class SolverQueueFullException extends RuntimeException {
+
+    public SolverQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -1,16 +1,27 @@
 package com.timetable.backend.service;
 
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import ai.timefold.solver.core.api.solver.SolutionManager;
+import ai.timefold.solver.core.api.solver.SolverConfigOverride;
 import ai.timefold.solver.core.api.solver.SolverManager;
 import ai.timefold.solver.core.api.solver.SolverStatus;
-import com.timetable.backend.domain.model.*;
-import com.timetable.backend.domain.repository.*;
+import ai.timefold.solver.core.api.solver.change.ProblemChange;
+import ai.timefold.solver.core.config.solver.termination.TerminationConfig;
+import com.timetable.backend.domain.dto.SolveRequest;
+import com.timetable.backend.domain.repository.ScheduleRepository;
 import com.timetable.backend.solver.DanceSchedule;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service for managing Timefold Solver operations.
@@ -21,29 +32,119 @@ import java.util.List;
 @Slf4j
 public class SolverService {
 
-    private final SolverManager<DanceSchedule, Long> solverManager;
-
-    // Repositories
-    private final LessonRepository lessonRepository;
-    private final TimeslotRepository timeslotRepository;
-    private final RoomRepository roomRepository;
-    private final TeacherRepository teacherRepository;
-    private final ResourceUnavailabilityRepository resourceUnavailabilityRepository;
+    private final SolverManagerRegistry solverManagerRegistry;
+    private final SolutionPersistenceService solutionPersistenceService;
+    private final SolutionSnapshotService solutionSnapshotService;
+    private final SolutionWriteBehindService solutionWriteBehindService;
+    private final SolverProgressService solverProgressService;
+    private final BestSolutionStore bestSolutionStore;
+    private final ScheduleProblemLoader scheduleProblemLoader;
+    private final ScheduleRepository scheduleRepository;
+    private final WarmStartBudget warmStartBudget;
+    private final TerminationPolicy terminationPolicy;
+    private final SolverJobQueue solverJobQueue;
+    private final IdempotencyKeyStore idempotencyKeyStore;
+    private final SolutionManager<DanceSchedule, HardSoftScore> solutionManager;
 
     /**
      * Loads the problem from database and starts solving asynchronously.
+     * Only the given schedule's lessons, timeslots and unavailabilities are loaded and written,
+     * so different schedules can be solved side by side.
+     *
+     * @param scheduleId the schedule to solve
+     * @return whether the solve started or was queued
+     * @throws IllegalArgumentException if the schedule does not exist
+     */
+    public SolverJobQueue.Admission solve(Long scheduleId) {
+        return solve(scheduleId, SolveRequest.defaults());
+    }
+
+    /**
+     * Same as {@link #solve(Long)}, with per-request solver settings.
+     * <p>
+     * A warm start keeps the persisted assignment as the starting solution: only lessons
+     * without a timeslot or room go through the construction heuristic, then local search
+     * continues, with a time limit sized by {@link WarmStartBudget}. Other solves get a time limit
+     * sized by the {@link TerminationPolicy}, and every solve stops early once its score converges.
+     * Explicit limits in the request replace the derived ones.
+     * <p>
+     * If every solver is busy, the solve waits in the {@link SolverJobQueue} and loads its
+     * problem once it starts. If the schedule is already queued, or being solved at its current
+     * data version, the request attaches to that solve (whose settings apply) instead of
+     * starting a second job over the same data.
+     *
+     * @param scheduleId the schedule to solve
+     * @param request solver settings for this solve
+     * @return whether the solve started, was queued or attached to the existing solve
+     * @throws IllegalArgumentException if the schedule does not exist
+     * @throws UnsupportedOperationException if the requested move thread count is not available
+     * @throws IllegalStateException if the schedule is being solved with older data
+     * @throws SolverQueueFullException if no solver is free and the queue is full
+     */
+    public SolverJobQueue.Admission solve(Long scheduleId, SolveRequest request) {
+        long dataVersion = scheduleRepository.findDataVersionById(scheduleId)
+            .orElseThrow(() -> new IllegalArgumentException("Schedule not found: " + scheduleId));
+        SolverManager<DanceSchedule, Long> solverManager =
+            solverManagerRegistry.forMoveThreadCount(request.moveThreadCount());
+
+        return solverJobQueue.submit(scheduleId, dataVersion, request.priority(),
+            () -> startSolving(scheduleId, request, solverManager));
+    }
+
+    /**
+     * Same as {@link #solve(Long, SolveRequest)}; a retry with the same idempotency key
+     * returns the first outcome without submitting again.
      *
-     * @param scheduleId unique identifier for this solving session (can be any Long, e.g., timestamp)
+     * @param scheduleId the schedule to solve
+     * @param request solver settings for this solve
+     * @param idempotencyKey client-chosen key of this request, or null
+     * @return whether the solve started, was queued or attached to the existing solve
+     * @throws IdempotencyKeyReuseException if the key was sent with a different schedule or settings
      */
-    public void solve(Long scheduleId) {
+    public SolverJobQueue.Admission solve(Long scheduleId, SolveRequest request, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return solve(scheduleId, request);
+        }
+        return idempotencyKeyStore.execute("solve:" + idempotencyKey, List.of(scheduleId, request),
+            () -> solve(scheduleId, request));
+    }
+
+    private void startSolving(Long scheduleId, SolveRequest request,
+                              SolverManager<DanceSchedule, Long> solverManager) {
         log.info("Starting solver for schedule ID: {}", scheduleId);
 
+        // Read before loading: an edit in between only makes the problem newer than recorded
+        scheduleRepository.findDataVersionById(scheduleId)
+            .ifPresent(dataVersion -> solverJobQueue.solvingDataVersion(scheduleId, dataVersion));
+        bestSolutionStore.started(scheduleId);
+        boolean warmStart = Boolean.TRUE.equals(request.warmStart());
+        DanceSchedule problem = loadProblem(scheduleId, warmStart);
+        SolverConfigOverride<DanceSchedule> configOverride = configOverride(problem, request);
+
         // Start solving asynchronously using the new solveBuilder() pattern (Timefold 1.6.0+)
         // This replaces the deprecated solve() method
         solverManager.solveBuilder()
             .withProblemId(scheduleId)
-            .withProblemFinder(this::loadProblemInternal)
-            .withBestSolutionConsumer(this::saveSolution)
+            .withProblem(problem)
+            .withBestSolutionConsumer(best -> {
+                solutionWriteBehindService.offer(best);
+                bestSolutionStore.put(best);
+                solverProgressService.bestSolution(best);
+            })
+            .withFinalBestSolutionConsumer(best -> {
+                solutionWriteBehindService.flushFinal(best);
+                bestSolutionStore.finished(scheduleId, best);
+                solverProgressService.finished(scheduleId, best);
+                solverJobQueue.finished(scheduleId);
+            })
+            .withExceptionHandler((id, throwable) -> {
+                log.error("Solver failed for schedule {}", id, throwable);
+                solutionWriteBehindService.flushAndRelease(id);
+                bestSolutionStore.finished(id, null);
+                solverProgressService.finished(id, null);
+                solverJobQueue.finished(id);
+            })
+            .withConfigOverride(configOverride)
             .run();
 
         log.info("Solver started for schedule {}", scheduleId);
@@ -51,11 +152,25 @@ public class SolverService {
     }
 
     /**
-     * Internal method to load problem (to avoid @Transactional self-invocation issue).
+     * Termination of one solve: the time limit of the request, else the warm-start limit if warm,
+     * else the size-based limit, plus the convergence limits of the {@link TerminationPolicy}.
      */
-    @Transactional(readOnly = true)
-    public DanceSchedule loadProblemInternal(Long scheduleId) {
-        return loadProblem(scheduleId);
+    private SolverConfigOverride<DanceSchedule> configOverride(DanceSchedule problem, SolveRequest request) {
+        Duration timeLimit;
+        if (request.timeLimitSeconds() != null) {
+            timeLimit = Duration.ofSeconds(request.timeLimitSeconds());
+        } else if (Boolean.TRUE.equals(request.warmStart())) {
+            timeLimit = warmStartBudget.timeLimit(problem);
+        } else {
+            timeLimit = terminationPolicy.timeLimit(problem);
+        }
+        TerminationConfig termination = terminationPolicy.terminationConfig(timeLimit,
+            seconds(request.unimprovedTimeLimitSeconds()), seconds(request.feasibleUnimprovedTimeLimitSeconds()));
+        return new SolverConfigOverride<DanceSchedule>().withTerminationConfig(termination);
+    }
+
+    private static Duration seconds(Integer seconds) {
+        return seconds != null ? Duration.ofSeconds(seconds) : null;
     }
 
     /**
@@ -67,107 +182,81 @@ public class SolverService {
      */
     @Transactional(readOnly = true)
     public DanceSchedule loadProblem(Long scheduleId) {
-        DanceSchedule schedule = loadScheduleFromDatabase(scheduleId);
-
-        // Clear planning variables for non-pinned lessons
-        // (Solver will assign timeslot and room)
-        schedule.getLessonList().forEach(lesson -> {
-            if (!lesson.isPinned()) {
-                lesson.setTimeslot(null);
-                lesson.setRoom(null);
-            }
-        });
-
-        return schedule;
+        return loadProblem(scheduleId, false);
     }
 
     /**
-     * Private helper method to load schedule data from database.
-     * Extracts common data loading logic to avoid code duplication.
+     * Loads the planning problem from the database.
      *
      * @param scheduleId the schedule identifier
-     * @return DanceSchedule with all data loaded from database
+     * @param keepAssignment true to start from the persisted timeslots and rooms (warm start)
+     * @return DanceSchedule ready for optimization
      */
-    private DanceSchedule loadScheduleFromDatabase(Long scheduleId) {
-        log.info("Loading problem data from database for schedule ID: {}", scheduleId);
-
-        // Load all problem facts (immutable data)
-        List<Timeslot> timeslots = timeslotRepository.findAll();
-        List<Room> rooms = roomRepository.findAll();
-        List<Teacher> teachers = teacherRepository.findAll();
-        List<ResourceUnavailability> resourceUnavailabilities = resourceUnavailabilityRepository.findAll();
-
-        // Load all planning entities (lessons to be scheduled)
-        List<Lesson> lessons = lessonRepository.findAll();
-
-
-        log.info("Loaded {} timeslots, {} rooms, {} teachers, {} lessons",
-            timeslots.size(), rooms.size(), teachers.size(), lessons.size());
+    @Transactional(readOnly = true)
+    public DanceSchedule loadProblem(Long scheduleId, boolean keepAssignment) {
+        DanceSchedule schedule = scheduleProblemLoader.load(scheduleId);
+
+        // Remember what is stored now, so saves only write lessons the solver moved
+        solutionPersistenceService.rememberPersistedAssignment(scheduleId, schedule.getLessonList());
+
+        if (!keepAssignment) {
+            // Clear planning variables for non-pinned lessons
+            // (Solver will assign timeslot and room)
+            schedule.getLessonList().forEach(lesson -> {
+                if (!lesson.isPinned()) {
+                    lesson.setTimeslot(null);
+                    lesson.setRoom(null);
+                }
+            });
+        }
 
-        // Create and return the planning problem
-        return new DanceSchedule(
-            scheduleId,
-            timeslots,
-            rooms,
-            teachers,
-            resourceUnavailabilities,
-            lessons
-        );
+        return schedule;
     }
 
     /**
-     * Saves the optimized solution back to the database.
-     * Updates timeslot and room assignments for all lessons.
+     * Gets the current status of the solver for a given schedule.
      *
-     * @param solution the solved DanceSchedule
+     * @param scheduleId the schedule identifier
+     * @return SolverStatus (NOT_SOLVING, SOLVING_SCHEDULED, SOLVING_ACTIVE); SOLVING_SCHEDULED while queued
      */
-    @Transactional
-    public void saveSolution(DanceSchedule solution) {
-        log.info("Saving solution for schedule ID: {}, score: {}",
-            solution.getId(), solution.getScore());
-
-        if (solution.getScore() == null) {
-            log.warn("Solution score is null, skipping save");
-            return;
+    public SolverStatus getSolverStatus(Long scheduleId) {
+        if (solverJobQueue.isQueued(scheduleId)) {
+            return SolverStatus.SOLVING_SCHEDULED;
         }
+        for (SolverManager<DanceSchedule, Long> solverManager : solverManagerRegistry.all()) {
+            SolverStatus status = solverManager.getSolverStatus(scheduleId);
+            if (status != SolverStatus.NOT_SOLVING) {
+                return status;
+            }
+        }
+        return SolverStatus.NOT_SOLVING;
+    }
 
-        // Update lessons with assigned timeslots and rooms
-        solution.getLessonList().forEach(lesson -> {
-            log.info("Saving lesson {}: timeslot={}, room={}",
-                lesson.getId(),
-                lesson.getTimeslot() != null ? lesson.getTimeslot().getId() : "null",
-                lesson.getRoom() != null ? lesson.getRoom().getId() : "null");
-
-            Lesson persistedLesson = lessonRepository.findById(lesson.getId())
-                .orElseThrow(() -> new IllegalArgumentException(
-                    "Lesson not found: " + lesson.getId()));
-
-            // Update planning variables
-            persistedLesson.setTimeslot(lesson.getTimeslot());
-            persistedLesson.setRoom(lesson.getRoom());
-
-            lessonRepository.save(persistedLesson);
-        });
-
-        lessonRepository.flush();
-
-        log.info("Successfully saved solution with {} lessons",
-            solution.getLessonList().size());
+    /**
+     * @param scheduleId the schedule identifier
+     * @return 1 for the next solve to start, 0 if the schedule is not queued
+     */
+    public int getQueuePosition(Long scheduleId) {
+        return solverJobQueue.queuePosition(scheduleId);
     }
 
     /**
-     * Gets the current status of the solver for a given schedule.
+     * Subscribes to the progress of the schedule's solves, see {@link SolverProgressService}.
      *
      * @param scheduleId the schedule identifier
-     * @return SolverStatus (NOT_SOLVING, SOLVING_SCHEDULED, SOLVING_ACTIVE)
+     * @return the emitter of the subscription
+     * @throws IllegalArgumentException if the schedule does not exist
      */
-    public SolverStatus getSolverStatus(Long scheduleId) {
-        return solverManager.getSolverStatus(scheduleId);
+    public SseEmitter subscribeToProgress(Long scheduleId) {
+        if (!scheduleRepository.existsById(scheduleId)) {
+            throw new IllegalArgumentException("Schedule not found: " + scheduleId);
+        }
+        return solverProgressService.subscribe(scheduleId);
     }
 
     /**
      * Terminates solving early for a given schedule.
-     * The best solution found so far will be saved.
+     * The best solution found so far will be saved; a queued solve is removed from the queue.
      *
      * @param scheduleId the schedule identifier
      * @return true if termination was successful
@@ -175,52 +264,126 @@ public class SolverService {
     public boolean terminateEarly(Long scheduleId) {
         log.info("Terminating solver early for schedule ID: {}", scheduleId);
 
-        SolverStatus status = solverManager.getSolverStatus(scheduleId);
+        if (solverJobQueue.cancel(scheduleId)) {
+            log.info("Removed schedule {} from the solver queue", scheduleId);
+            return true;
+        }
+
+        SolverStatus status = getSolverStatus(scheduleId);
 
         if (status == SolverStatus.NOT_SOLVING) {
             log.warn("Cannot terminate - solver is not running for schedule {}", scheduleId);
             return false;
         }
 
-        solverManager.terminateEarly(scheduleId);
+        solverManagerRegistry.all().forEach(solverManager -> solverManager.terminateEarly(scheduleId));
         log.info("Early termination requested for schedule {}", scheduleId);
         return true;
     }
 
     /**
-     * Retrieves the best solution found so far (blocking call).
-     * Only use this for testing or when you need the solution immediately.
+     * Hands a change of the problem to the running solve of a schedule, which continues from its
+     * current assignment instead of starting over.
+     * <p>
+     * A schedule that is not being solved picks the change up from the database next time.
+     * A queued solve has not loaded its problem yet, so it counts as having taken the change.
+     * Unless a running job took the change, the schedule's stored best solution is outdated
+     * and dropped from the {@link BestSolutionStore}.
      *
      * @param scheduleId the schedule identifier
-     * @return the best solution found, or null if not available
+     * @param problemChange the change, already persisted with the schedule's data version incremented
+     * @return future completing once the solver has applied the change, or empty if no job took it
      */
-    @SuppressWarnings("unused")
-    public DanceSchedule getBestSolution(Long scheduleId) {
-        SolverStatus status = solverManager.getSolverStatus(scheduleId);
+    public Optional<CompletableFuture<Void>> addProblemChange(Long scheduleId,
+                                                              ProblemChange<DanceSchedule> problemChange) {
+        if (solverJobQueue.isQueued(scheduleId)) {
+            // The queued solve loads the changed data when it starts
+            bestSolutionStore.invalidate(scheduleId);
+            return Optional.of(CompletableFuture.completedFuture(null));
+        }
+        for (SolverManager<DanceSchedule, Long> solverManager : solverManagerRegistry.all()) {
+            if (solverManager.getSolverStatus(scheduleId) != SolverStatus.NOT_SOLVING) {
+                try {
+                    CompletableFuture<Void> applied = solverManager.addProblemChange(scheduleId, problemChange);
+                    // The job now covers the edit, so it solves the current data version again
+                    scheduleRepository.findDataVersionById(scheduleId)
+                        .ifPresent(dataVersion -> solverJobQueue.solvingDataVersion(scheduleId, dataVersion));
+                    return Optional.of(applied);
+                } catch (IllegalStateException e) {
+                    // The job ended in the meantime
+                    log.debug("Solve of schedule {} ended before the change: {}", scheduleId, e.getMessage());
+                    bestSolutionStore.invalidate(scheduleId);
+                    return Optional.empty();
+                }
+            }
+        }
+        bestSolutionStore.invalidate(scheduleId);
+        return Optional.empty();
+    }
 
-        if (status == SolverStatus.NOT_SOLVING) {
-            log.warn("Solver is not running for schedule {}", scheduleId);
-            return null;
+    /**
+     * Hands a change of data shared by all schedules (e.g. rooms) to every running solve.
+     *
+     * @param problemChange the change
+     * @return schedule id -> future of each solve that took the change, completing once it is applied
+     */
+    public Map<Long, CompletableFuture<Void>> addProblemChangeToAll(ProblemChange<DanceSchedule> problemChange) {
+        Map<Long, CompletableFuture<Void>> applied = new LinkedHashMap<>();
+        for (Long scheduleId : scheduleRepository.findAllIds()) {
+            addProblemChange(scheduleId, problemChange).ifPresent(future -> applied.put(scheduleId, future));
+        }
+        return applied;
+    }
+
+    /**
+     * Writes the assignment of an earlier snapshot back to the schedule's lessons.
+     *
+     * @param scheduleId the schedule identifier
+     * @param version the snapshot version
+     * @return number of lesson rows written
+     * @throws IllegalArgumentException if the snapshot does not exist
+     * @throws IllegalStateException if the schedule is being solved or queued
+     */
+    public int restoreSnapshot(Long scheduleId, int version) {
+        if (getSolverStatus(scheduleId) != SolverStatus.NOT_SOLVING) {
+            throw new IllegalStateException("Schedule " + scheduleId + " is being solved; terminate it first");
         }
+        int restored = solutionPersistenceService.restore(scheduleId, solutionSnapshotService.load(scheduleId, version));
+        bestSolutionStore.invalidate(scheduleId);
+        log.info("Restored {} lessons of schedule {} from snapshot {}", restored, scheduleId, version);
+        return restored;
+    }
 
-        // For active/scheduled solving, we can't easily get intermediate results in 1.6.0
-        // Best practice is to wait for completion and use saved solution from DB
-        log.info("Solver is still running for schedule {}. Status: {}", scheduleId, status);
-        return null;
+    /**
+     * Retrieves the best solution found so far by a running or recently finished solve,
+     * from memory (see {@link BestSolutionStore}).
+     *
+     * @param scheduleId the schedule identifier
+     * @return the best solution found, or null if not available
+     */
+    public DanceSchedule getBestSolution(Long scheduleId) {
+        return bestSolutionStore.get(scheduleId).orElse(null);
     }
 
     /**
      * Gets the current solution from database (solved or unsolved lessons).
      * This can be called at any time, even while solving is in progress.
      * Note: This method does NOT clear planning variables, so you can see assigned timeslots and rooms.
+     * The score is calculated for the loaded assignment.
      *
-     * @param scheduleId the schedule identifier (not used, just for consistency)
-     * @return current state of the schedule from database
+     * @param scheduleId the schedule identifier
+     * @return current state of the schedule from database, or null if the schedule does not exist
      */
     @Transactional(readOnly = true)
     public DanceSchedule getCurrentSolutionFromDatabase(Long scheduleId) {
+        if (!scheduleRepository.existsById(scheduleId)) {
+            return null;
+        }
+
         // Load schedule data without clearing planning variables
-        return loadScheduleFromDatabase(scheduleId);
+        DanceSchedule schedule = scheduleProblemLoader.load(scheduleId);
+        solutionManager.update(schedule);
+        return schedule;
     }
 
     /**
@@ -0,0 +1,107 @@
+package com.timetable.backend.service;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import ai.timefold.solver.core.config.solver.termination.TerminationCompositionStyle;
+import ai.timefold.solver.core.config.solver.termination.TerminationConfig;
+import com.timetable.backend.solver.DanceSchedule;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Works out when a solve stops, from the size of the problem and from how its score converges.
+ * <p>
+ * The time limit grows with the number of change moves of a lesson step,
+ * lessons × (timeslots + rooms), from the base limit up to the maximum. Within that limit the
+ * solve stops once the best score has not improved for a fraction of it, and sooner once the best
+ * solution is feasible (0hard) and the soft score has not improved for a smaller fraction.
+ * Most solves so end when they stop improving instead of running to the limit.
+ * <p>
+ * The unimproved limits only count once every lesson is assigned. The construction heuristic
+ * improves the best solution only when it ends, so on a large schedule it can run longer than an
+ * unimproved limit; stopping it there would leave lessons without a timeslot or room.
+ */
+@Service
+@Slf4j
+public class TerminationPolicy {
+
+    // Every fully assigned solution reaches this score and no partly assigned one does
+    static final String ASSIGNED_SCORE = HardSoftScore.of(Integer.MIN_VALUE, Integer.MIN_VALUE).toString();
+
+    private final Duration baseLimit;
+    private final Duration limitPerThousandMoves;
+    private final Duration maxLimit;
+    private final double unimprovedFraction;
+    private final double feasibleUnimprovedFraction;
+    private final Duration minUnimprovedLimit;
+
+    public TerminationPolicy(
+            @Value("${timetable.solver.termination.base-limit:10s}") Duration baseLimit,
+            @Value("${timetable.solver.termination.limit-per-thousand-moves:1s}") Duration limitPerThousandMoves,
+            @Value("${timetable.solver.termination.max-limit:5m}") Duration maxLimit,
+            @Value("${timetable.solver.termination.unimproved-fraction:0.25}") double unimprovedFraction,
+            @Value("${timetable.solver.termination.feasible-unimproved-fraction:0.1}") double feasibleUnimprovedFraction,
+            @Value("${timetable.solver.termination.min-unimproved-limit:2s}") Duration minUnimprovedLimit) {
+        this.baseLimit = baseLimit;
+        this.limitPerThousandMoves = limitPerThousandMoves;
+        this.maxLimit = maxLimit;
+        this.unimprovedFraction = unimprovedFraction;
+        this.feasibleUnimprovedFraction = feasibleUnimprovedFraction;
+        this.minUnimprovedLimit = minUnimprovedLimit;
+    }
+
+    /**
+     * @param problem the problem to solve
+     * @return base limit plus the per-move limit for each change move of a step, capped at the maximum
+     */
+    public Duration timeLimit(DanceSchedule problem) {
+        long moves = (long) problem.getLessonList().size()
+            * (problem.getTimeslotList().size() + problem.getRoomList().size());
+        Duration limit = baseLimit.plus(limitPerThousandMoves.multipliedBy(moves).dividedBy(1000));
+        limit = limit.compareTo(maxLimit) > 0 ? maxLimit : limit;
+        log.info("Schedule {}: {} lessons, {} timeslots, {} rooms, time limit {}", problem.getId(),
+            problem.getLessonList().size(), problem.getTimeslotList().size(), problem.getRoomList().size(), limit);
+        return limit;
+    }
+
+    /**
+     * Termination of one solve. The unimproved limits that are not given are derived from the time limit.
+     *
+     * @param timeLimit maximum solving time
+     * @param unimprovedLimit stop once the best score has not improved for this long, or null
+     * @param feasibleUnimprovedLimit stop once the best solution is feasible and has not improved
+     *                                for this long, or null
+     * @return the termination: whichever of the three limits is reached first,
+     *         the unimproved ones not before every lesson is assigned
+     */
+    public TerminationConfig terminationConfig(Duration timeLimit, Duration unimprovedLimit,
+                                               Duration feasibleUnimprovedLimit) {
+        TerminationConfig assignedAndUnimproved = new TerminationConfig()
+            .withTerminationCompositionStyle(TerminationCompositionStyle.AND)
+            .withBestScoreLimit(ASSIGNED_SCORE)
+            .withUnimprovedSpentLimit(unimprovedLimit != null
+                ? unimprovedLimit
+                : fractionOf(timeLimit, unimprovedFraction));
+        // A feasible score is always of a fully assigned solution
+        TerminationConfig feasibleAndUnimproved = new TerminationConfig()
+            .withTerminationCompositionStyle(TerminationCompositionStyle.AND)
+            .withBestScoreFeasible(true)
+            .withUnimprovedSpentLimit(feasibleUnimprovedLimit != null
+                ? feasibleUnimprovedLimit
+                : fractionOf(timeLimit, feasibleUnimprovedFraction));
+        return new TerminationConfig()
+            .withSpentLimit(timeLimit)
+            .withTerminationConfigList(List.of(assignedAndUnimproved, feasibleAndUnimproved));
+    }
+
+    /**
+     * @return the fraction of the time limit, at least the minimum unimproved limit
+     */
+    Duration fractionOf(Duration timeLimit, double fraction) {
+        Duration limit = Duration.ofMillis(Math.round(timeLimit.toMillis() * fraction));
+        return limit.compareTo(minUnimprovedLimit) < 0 ? minUnimprovedLimit : limit;
+    }
+}
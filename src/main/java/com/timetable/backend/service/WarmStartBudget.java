@@ -0,0 +1,98 @@
+package com.timetable.backend.service;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import ai.timefold.solver.core.api.score.constraint.ConstraintMatch;
+import ai.timefold.solver.core.api.score.constraint.ConstraintMatchTotal;
+import ai.timefold.solver.core.api.solver.SolutionManager;
+import com.timetable.backend.solver.DanceSchedule;
+import com.timetable.backend.solver.IndictedLessons;
+import com.timetable.backend.solver.PlanningLesson;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Sizes the time limit of a warm-start solve by how much of the schedule needs repair.
+ * <p>
+ * A warm start keeps the persisted assignment, so the construction heuristic only places
+ * lessons without a timeslot or room and local search continues from there. The work left is
+ * roughly proportional to the lessons that are unassigned or break a hard constraint,
+ * e.g. after a new unavailability; the limit grows with that count up to a maximum.
+ * The {@link TerminationPolicy} adds its convergence limits to it.
+ */
+@Service
+@Slf4j
+public class WarmStartBudget {
+
+    private final SolutionManager<DanceSchedule, HardSoftScore> solutionManager;
+    private final Duration baseLimit;
+    private final Duration limitPerChangedLesson;
+    private final Duration maxLimit;
+
+    public WarmStartBudget(
+            SolutionManager<DanceSchedule, HardSoftScore> solutionManager,
+            @Value("${timetable.solver.warm-start.base-limit:2s}") Duration baseLimit,
+            @Value("${timetable.solver.warm-start.limit-per-changed-lesson:1s}") Duration limitPerChangedLesson,
+            @Value("${timetable.solver.warm-start.max-limit:60s}") Duration maxLimit) {
+        this.solutionManager = solutionManager;
+        this.baseLimit = baseLimit;
+        this.limitPerChangedLesson = limitPerChangedLesson;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * @param schedule problem with the persisted assignment kept
+     * @return time limit of the warm-start solve of that problem
+     */
+    public Duration timeLimit(DanceSchedule schedule) {
+        int changedLessons = countChangedLessons(schedule);
+        Duration limit = timeLimit(changedLessons);
+        log.info("Warm start of schedule {}: {} lessons to repair, time limit {}",
+            schedule.getId(), changedLessons, limit);
+        return limit;
+    }
+
+    /**
+     * Counts the movable lessons that are unassigned or involved in a hard constraint violation.
+     *
+     * @param schedule problem with the persisted assignment kept
+     * @return number of lessons the solver has to place or move
+     */
+    int countChangedLessons(DanceSchedule schedule) {
+        Set<PlanningLesson> changed = new HashSet<>();
+        for (PlanningLesson lesson : schedule.getLessonList()) {
+            if (!lesson.isPinned() && (lesson.getTimeslot() == null || lesson.getRoom() == null)) {
+                changed.add(lesson);
+            }
+        }
+
+        IndictedLessons indictedLessons = new IndictedLessons(schedule);
+        for (ConstraintMatchTotal<HardSoftScore> matchTotal
+                : solutionManager.explain(schedule).getConstraintMatchTotalMap().values()) {
+            if (matchTotal.getScore().hardScore() >= 0) {
+                continue;
+            }
+            for (ConstraintMatch<HardSoftScore> match : matchTotal.getConstraintMatchSet()) {
+                for (PlanningLesson lesson : indictedLessons.of(match.getIndictedObjectList())) {
+                    if (!lesson.isPinned()) {
+                        changed.add(lesson);
+                    }
+                }
+            }
+        }
+        return changed.size();
+    }
+
+    /**
+     * @param changedLessons lessons to place or move
+     * @return base limit plus the per-lesson limit for each changed lesson, capped at the maximum
+     */
+    Duration timeLimit(int changedLessons) {
+        Duration limit = baseLimit.plus(limitPerChangedLesson.multipliedBy(changedLessons));
+        return limit.compareTo(maxLimit) > 0 ? maxLimit : limit;
+    }
+}
@@ -0,0 +1,224 @@
+package com.timetable.backend.solver;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Timeslot and room of every lesson of a solution, in a compact binary form for storing one
+ * row per saved solution.
+ * <p>
+ * Layout, every number an unsigned varint: the format version; the distinct timeslot ids and the
+ * distinct room ids, each as a count followed by the ascending ids delta-encoded; the lesson ids
+ * the same way; then per lesson the position of its timeslot and of its room in those id lists,
+ * plus one (0 = unassigned). A lesson so takes about four bytes.
+ */
+public final class AssignmentSnapshot {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final long UNASSIGNED = 0;
+
+    // Ascending lesson ids, and the timeslot and room id of each (UNASSIGNED if none)
+    private final long[] lessonIds;
+    private final long[] timeslotIds;
+    private final long[] roomIds;
+
+    private AssignmentSnapshot(long[] lessonIds, long[] timeslotIds, long[] roomIds) {
+        this.lessonIds = lessonIds;
+        this.timeslotIds = timeslotIds;
+        this.roomIds = roomIds;
+    }
+
+    /**
+     * @param lessons the lessons of a solution
+     * @return the assignment of the lessons
+     */
+    public static AssignmentSnapshot of(List<PlanningLesson> lessons) {
+        List<PlanningLesson> byId = new ArrayList<>(lessons);
+        byId.sort((a, b) -> Long.compare(a.getId(), b.getId()));
+        int size = byId.size();
+        long[] lessonIds = new long[size];
+        long[] timeslotIds = new long[size];
+        long[] roomIds = new long[size];
+        for (int i = 0; i < size; i++) {
+            PlanningLesson lesson = byId.get(i);
+            lessonIds[i] = lesson.getId();
+            timeslotIds[i] = lesson.getTimeslot() != null ? lesson.getTimeslot().getId() : UNASSIGNED;
+            roomIds[i] = lesson.getRoom() != null ? lesson.getRoom().getId() : UNASSIGNED;
+        }
+        return new AssignmentSnapshot(lessonIds, timeslotIds, roomIds);
+    }
+
+    /**
+     * @param bytes the result of {@link #encode()}
+     * @return the decoded assignment
+     * @throws IllegalArgumentException if the bytes are not a snapshot of a known format
+     */
+    public static AssignmentSnapshot decode(byte[] bytes) {
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        int formatVersion = (int) readVarint(in);
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unknown assignment snapshot format: " + formatVersion);
+        }
+        long[] timeslotDictionary = readAscending(in);
+        long[] roomDictionary = readAscending(in);
+        long[] lessonIds = readAscending(in);
+        long[] timeslotIds = new long[lessonIds.length];
+        long[] roomIds = new long[lessonIds.length];
+        for (int i = 0; i < lessonIds.length; i++) {
+            timeslotIds[i] = lookup(timeslotDictionary, (int) readVarint(in));
+            roomIds[i] = lookup(roomDictionary, (int) readVarint(in));
+        }
+        return new AssignmentSnapshot(lessonIds, timeslotIds, roomIds);
+    }
+
+    /**
+     * @return the assignment in the binary layout described on the class
+     */
+    public byte[] encode() {
+        long[] timeslotDictionary = dictionary(timeslotIds);
+        long[] roomDictionary = dictionary(roomIds);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + lessonIds.length * 4);
+        writeVarint(out, FORMAT_VERSION);
+        writeAscending(out, timeslotDictionary);
+        writeAscending(out, roomDictionary);
+        writeAscending(out, lessonIds);
+        for (int i = 0; i < lessonIds.length; i++) {
+            writeVarint(out, position(timeslotDictionary, timeslotIds[i]));
+            writeVarint(out, position(roomDictionary, roomIds[i]));
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @return number of lessons
+     */
+    public int size() {
+        return lessonIds.length;
+    }
+
+    /**
+     * @return number of lessons with both a timeslot and a room
+     */
+    public int assignedCount() {
+        int assigned = 0;
+        for (int i = 0; i < lessonIds.length; i++) {
+            if (timeslotIds[i] != UNASSIGNED && roomIds[i] != UNASSIGNED) {
+                assigned++;
+            }
+        }
+        return assigned;
+    }
+
+    /**
+     * @return every lesson with its timeslot and room, ordered by lesson id
+     */
+    public List<LessonAssignment> assignments() {
+        List<LessonAssignment> assignments = new ArrayList<>(lessonIds.length);
+        for (int i = 0; i < lessonIds.length; i++) {
+            assignments.add(assignment(i));
+        }
+        return assignments;
+    }
+
+    /**
+     * Compares two snapshots lesson by lesson, in one pass over both.
+     *
+     * @param to the later snapshot
+     * @return the lessons whose assignment differs, ordered by lesson id; a lesson missing
+     *         from one of the snapshots has a null assignment on that side
+     */
+    public List<AssignmentChange> diff(AssignmentSnapshot to) {
+        List<AssignmentChange> changes = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (i < lessonIds.length || j < to.lessonIds.length) {
+            long fromId = i < lessonIds.length ? lessonIds[i] : Long.MAX_VALUE;
+            long toId = j < to.lessonIds.length ? to.lessonIds[j] : Long.MAX_VALUE;
+            if (fromId < toId) {
+                changes.add(new AssignmentChange(fromId, assignment(i++), null));
+            } else if (toId < fromId) {
+                changes.add(new AssignmentChange(toId, null, to.assignment(j++)));
+            } else {
+                if (timeslotIds[i] != to.timeslotIds[j] || roomIds[i] != to.roomIds[j]) {
+                    changes.add(new AssignmentChange(fromId, assignment(i), to.assignment(j)));
+                }
+                i++;
+                j++;
+            }
+        }
+        return changes;
+    }
+
+    private LessonAssignment assignment(int i) {
+        return new LessonAssignment(lessonIds[i],
+            timeslotIds[i] != UNASSIGNED ? timeslotIds[i] : null,
+            roomIds[i] != UNASSIGNED ? roomIds[i] : null);
+    }
+
+    /**
+     * Timeslot and room ids of one lesson (either may be null).
+     */
+    public record LessonAssignment(long lessonId, Long timeslotId, Long roomId) {
+    }
+
+    /**
+     * Assignment of one lesson in two snapshots; null where the lesson does not exist.
+     */
+    public record AssignmentChange(long lessonId, LessonAssignment from, LessonAssignment to) {
+    }
+
+    private static long[] dictionary(long[] ids) {
+        return Arrays.stream(ids).filter(id -> id != UNASSIGNED).sorted().distinct().toArray();
+    }
+
+    private static int position(long[] dictionary, long id) {
+        return id == UNASSIGNED ? 0 : Arrays.binarySearch(dictionary, id) + 1;
+    }
+
+    private static long lookup(long[] dictionary, int position) {
+        return position == 0 ? UNASSIGNED : dictionary[position - 1];
+    }
+
+    private static void writeAscending(ByteArrayOutputStream out, long[] ids) {
+        writeVarint(out, ids.length);
+        long previous = 0;
+        for (long id : ids) {
+            writeVarint(out, id - previous);
+            previous = id;
+        }
+    }
+
+    private static long[] readAscending(ByteBuffer in) {
+        long[] ids = new long[(int) readVarint(in)];
+        long previous = 0;
+        for (int i = 0; i < ids.length; i++) {
+            previous += readVarint(in);
+            ids[i] = previous;
+        }
+        return ids;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(ByteBuffer in) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
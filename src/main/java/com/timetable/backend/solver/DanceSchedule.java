@@ -7,11 +7,6 @@ import ai.timefold.solver.core.api.domain.solution.ProblemFactCollectionProperty
 import ai.timefold.solver.core.api.domain.valuerange.ValueRangeProvider;
 import ai.timefold.solver.core.api.domain.lookup.PlanningId;
 import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
-import com.timetable.backend.domain.model.Lesson;
-import com.timetable.backend.domain.model.ResourceUnavailability;
-import com.timetable.backend.domain.model.Room;
-import com.timetable.backend.domain.model.Teacher;
-import com.timetable.backend.domain.model.Timeslot;
 import lombok.*;
 
 import java.util.List;
@@ -20,6 +15,9 @@ import java.util.List;
  * Planning Solution for the dance school timetable problem.
  * Contains all problem facts (timeslots, rooms, teachers) and planning entities (lessons).
  * Timefold Solver will optimize the assignment of timeslots and rooms to lessons.
+ * <p>
+ * Holds the solver-only planning model (see {@link PlanningLesson}), not the JPA entities.
+ * Facts carry dense indexes matching their position in the lists below.
  */
 @PlanningSolution
 @Getter
@@ -32,34 +30,29 @@ public class DanceSchedule {
     @PlanningId
     private Long id;
 
+    // Lessons take their timeslots from their own ranges, see LessonValueRanges
     @ProblemFactCollectionProperty
-    @ValueRangeProvider(id = "timeslotRange")
-    private List<Timeslot> timeslotList;
+    private List<PlanningTimeslot> timeslotList;
 
     @ProblemFactCollectionProperty
     @ValueRangeProvider(id = "roomRange")
-    private List<Room> roomList;
+    private List<PlanningRoom> roomList;
 
     @ProblemFactCollectionProperty
-    private List<Teacher> teacherList;
-
-    @ProblemFactCollectionProperty
-    private List<ResourceUnavailability> resourceUnavailabilityList;
+    private List<PlanningTeacher> teacherList;
 
     @PlanningEntityCollectionProperty
-    private List<Lesson> lessonList;
+    private List<PlanningLesson> lessonList;
 
     @PlanningScore
     private HardSoftScore score;
 
-    public DanceSchedule(Long id, List<Timeslot> timeslotList, List<Room> roomList,
-                         List<Teacher> teacherList, List<ResourceUnavailability> resourceUnavailabilityList,
-                         List<Lesson> lessonList) {
+    public DanceSchedule(Long id, List<PlanningTimeslot> timeslotList, List<PlanningRoom> roomList,
+                         List<PlanningTeacher> teacherList, List<PlanningLesson> lessonList) {
         this.id = id;
         this.timeslotList = timeslotList;
         this.roomList = roomList;
         this.teacherList = teacherList;
-        this.resourceUnavailabilityList = resourceUnavailabilityList;
         this.lessonList = lessonList;
     }
 }
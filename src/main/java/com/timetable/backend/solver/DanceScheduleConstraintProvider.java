@@ -6,11 +6,12 @@ import ai.timefold.solver.core.api.score.stream.ConstraintCollectors;
 import ai.timefold.solver.core.api.score.stream.ConstraintFactory;
 import ai.timefold.solver.core.api.score.stream.ConstraintProvider;
 import ai.timefold.solver.core.api.score.stream.Joiners;
-import com.timetable.backend.domain.model.Lesson;
-import com.timetable.backend.domain.model.ResourceUnavailability;
+import ai.timefold.solver.core.api.score.stream.common.Break;
+import ai.timefold.solver.core.api.score.stream.common.SequenceChain;
+import ai.timefold.solver.core.api.score.stream.uni.UniConstraintStream;
 
-import java.time.Duration;
-import java.time.LocalTime;
+import java.time.DayOfWeek;
+import java.util.List;
 
 /**
  * Constraint provider for dance schedule optimization.
@@ -18,13 +19,14 @@ import java.time.LocalTime;
  *
  * Hard Constraints (must be satisfied):
  * - Room conflict: Weighted Dual-Mode logic (Group=1.0, Private=0.25)
- * - Teacher conflict: A teacher cannot teach two lessons at the same time
+ * - Teacher conflict: A teacher cannot teach two overlapping lessons
  * - Teacher availability: Lessons cannot be scheduled when teacher is unavailable
+ * - Teacher max daily hours: A teacher's lessons of a day fit in their daily maximum
  *
  * Soft Constraints (should be optimized):
  * - Minimize gaps: Minimize time gaps between lessons for the same teacher on the same day
  * - Prime time reward: Encourage scheduling lessons during peak hours (16:00-21:00)
- * - Load balancing: Distribute lessons fairly among teachers
+ * - Load balancing: Spread each teacher's teaching time evenly over their days
  */
 public class DanceScheduleConstraintProvider implements ConstraintProvider {
 
@@ -35,6 +37,7 @@ public class DanceScheduleConstraintProvider implements ConstraintProvider {
             roomConflict(constraintFactory),
             teacherConflict(constraintFactory),
             teacherAvailability(constraintFactory),
+            teacherMaxDailyHours(constraintFactory),
 
             // Soft constraints
             minimizeTeacherGaps(constraintFactory),
@@ -50,7 +53,13 @@ public class DanceScheduleConstraintProvider implements ConstraintProvider {
      * - Group lesson occupies 100% of room capacity (weight = 1.0)
      * - Private lesson occupies 25% of room capacity (weight = 0.25)
      *
-     * The constraint penalizes when total weight exceeds 1.0 in a room/timeslot.
+     * The constraint penalizes when total weight exceeds 1.0 in a room at any time.
+     * A lesson runs from its timeslot's start for its own duration, so a 90-minute lesson
+     * also occupies the room during the first half hour of the next hourly timeslot.
+     * The load of a room only grows when a lesson starts, so it is summed at each lesson start:
+     * the lessons starting there plus the earlier lessons still running. The earlier lessons are
+     * found with the same overlap join as the teacher conflict, so timeslots that overlap each other
+     * (09:00-10:00 and 09:30-10:30) are handled as well.
      * Examples:
      * - 1 Group lesson = 1.0 (OK, fills room)
      * - 2 Group lessons = 2.0 (CONFLICT)
@@ -63,13 +72,30 @@ public class DanceScheduleConstraintProvider implements ConstraintProvider {
      */
     Constraint roomConflict(ConstraintFactory constraintFactory) {
         return constraintFactory
-                .forEach(Lesson.class)
+                .forEach(PlanningLesson.class)
                 .filter(lesson -> lesson.getRoom() != null && lesson.getTimeslot() != null)
-                .groupBy(Lesson::getRoom, Lesson::getTimeslot,
-                         ConstraintCollectors.sum(this::getRoomOccupancyWeight))
-                .filter((room, timeslot, totalWeight) -> totalWeight > 100) // 100 = 100%
+                // Every lesson counts at its own start
+                .expand(PlanningLesson::getStartMinuteOfWeek)
+                // ...and at the later starts in the room before its end
+                .concat(constraintFactory.forEach(PlanningLesson.class)
+                        .filter(lesson -> lesson.getRoom() != null && lesson.getTimeslot() != null)
+                        .join(constraintFactory.forEach(PlanningLesson.class)
+                                        .filter(lesson -> lesson.getRoom() != null && lesson.getTimeslot() != null),
+                                // Same room
+                                Joiners.equal(PlanningLesson::getRoom),
+                                // Overlapping in time, the running lesson starting first
+                                Joiners.overlapping(PlanningLesson::getStartMinuteOfWeek, PlanningLesson::getEndMinuteOfWeek),
+                                Joiners.lessThan(PlanningLesson::getStartMinuteOfWeek))
+                        .map((running, starting) -> running, (running, starting) -> starting.getStartMinuteOfWeek())
+                        .distinct())
+                // Load of each room at each start minute
+                .groupBy((lesson, start) -> lesson.getRoom(), (lesson, start) -> start,
+                         ConstraintCollectors.sum((lesson, start) -> getRoomOccupancyWeight(lesson)))
+                .filter((room, start, totalWeight) -> totalWeight > 100) // 100 = 100%
                 .penalize(HardSoftScore.ONE_HARD,
-                         (room, timeslot, totalWeight) -> totalWeight - 100) // Penalize excess
+                         (room, start, totalWeight) -> totalWeight - 100) // Penalize excess
+                // Room and minute stand for the lessons running there (see IndictedLessons)
+                .indictWith((room, start, totalWeight) -> List.of(room, start))
                 .asConstraint("Room conflict (Dual-Mode weighted)");
     }
 
@@ -84,7 +110,7 @@ public class DanceScheduleConstraintProvider implements ConstraintProvider {
      * @param lesson the lesson to evaluate
      * @return occupancy weight (100 for group, 25 for private)
      */
-    private int getRoomOccupancyWeight(Lesson lesson) {
+    private int getRoomOccupancyWeight(PlanningLesson lesson) {
         return lesson.isPrivate() ? 25 : 100;
     }
 
@@ -92,20 +118,24 @@ public class DanceScheduleConstraintProvider implements ConstraintProvider {
      * HARD CONSTRAINT 2: Teacher Conflict
      *
      * A teacher cannot teach two lessons at the same time.
+     * Lessons overlap if each starts before the other ends, by their own durations,
+     * so a 90-minute lesson conflicts with the teacher's lesson in the next hourly timeslot.
      *
      * @param constraintFactory the factory to create constraints
      * @return teacher conflict constraint
      */
     Constraint teacherConflict(ConstraintFactory constraintFactory) {
         return constraintFactory
-                .forEach(Lesson.class)
-                .join(Lesson.class,
-                        // Different lessons
-                        Joiners.lessThan(Lesson::getId),
+                .forEach(PlanningLesson.class)
+                .filter(lesson -> lesson.getTimeslot() != null)
+                .join(constraintFactory.forEach(PlanningLesson.class)
+                                .filter(lesson -> lesson.getTimeslot() != null),
                         // Same teacher
-                        Joiners.equal(Lesson::getTeacher),
-                        // Same timeslot
-                        Joiners.equal(Lesson::getTimeslot)
+                        Joiners.equal(PlanningLesson::getTeacher),
+                        // Overlapping in time: each starts before the other ends
+                        Joiners.overlapping(PlanningLesson::getStartMinuteOfWeek, PlanningLesson::getEndMinuteOfWeek),
+                        // Different lessons
+                        Joiners.lessThan(PlanningLesson::getId)
                 )
                 .penalize(HardSoftScore.ONE_HARD)
                 .asConstraint("Teacher conflict");
@@ -115,24 +145,49 @@ public class DanceScheduleConstraintProvider implements ConstraintProvider {
      * HARD CONSTRAINT 3: Teacher Availability
      *
      * A lesson cannot be scheduled when the teacher is unavailable.
-     * This checks against the ResourceUnavailability table.
+     * This checks against the teacher's unavailability records, compressed into a
+     * per-teacher bitset by timeslot index when the problem is loaded.
      *
      * @param constraintFactory the factory to create constraints
      * @return teacher availability constraint
      */
     Constraint teacherAvailability(ConstraintFactory constraintFactory) {
         return constraintFactory
-                .forEach(Lesson.class)
-                .join(ResourceUnavailability.class,
-                        // Same teacher
-                        Joiners.equal(Lesson::getTeacher, ResourceUnavailability::getTeacher),
-                        // Same timeslot
-                        Joiners.equal(Lesson::getTimeslot, ResourceUnavailability::getTimeslot)
-                )
+                .forEach(PlanningLesson.class)
+                // Teacher's unavailable timeslots are precomputed as a bitset
+                .filter(lesson -> lesson.getTimeslot() != null
+                        && lesson.getTeacher().isUnavailable(lesson.getTimeslot()))
                 .penalize(HardSoftScore.ONE_HARD)
                 .asConstraint("Teacher unavailability");
     }
 
+    /**
+     * HARD CONSTRAINT 4: Teacher Max Daily Hours
+     *
+     * A teacher's lessons of one day may last at most their maximum daily hours in total.
+     * The penalty is the excess in minutes, so an 8-hour teacher with 9.5 hours of lessons
+     * on a Monday costs 90. The group-by keeps a running sum per teacher and day;
+     * a move only adds and subtracts the moved lesson's duration.
+     *
+     * @param constraintFactory the factory to create constraints
+     * @return teacher max daily hours constraint
+     */
+    Constraint teacherMaxDailyHours(ConstraintFactory constraintFactory) {
+        return constraintFactory
+                .forEach(PlanningLesson.class)
+                .filter(lesson -> lesson.getTimeslot() != null)
+                // Teaching minutes per teacher and day
+                .groupBy(PlanningLesson::getTeacher,
+                         lesson -> lesson.getTimeslot().getDayIndex(),
+                         ConstraintCollectors.sum(PlanningLesson::getDurationMinutes))
+                .filter((teacher, day, minutes) -> minutes > teacher.getMaxDailyMinutes())
+                .penalize(HardSoftScore.ONE_HARD,
+                         (teacher, day, minutes) -> minutes - teacher.getMaxDailyMinutes())
+                // Teacher and day stand for the teacher's lessons that day (see IndictedLessons)
+                .indictWith((teacher, day, minutes) -> List.of(teacher, DayOfWeek.of(day + 1)))
+                .asConstraint("Teacher max daily hours");
+    }
+
     /**
      * SOFT CONSTRAINT: Minimize Teacher Gaps
      *
@@ -140,59 +195,43 @@ public class DanceScheduleConstraintProvider implements ConstraintProvider {
      * It's better if lessons are consecutive (e.g., 09:00-10:00, 10:00-11:00)
      * rather than having gaps (e.g., 09:00-10:00, 12:00-13:00).
      *
-     * The penalty is proportional to the gap duration in minutes.
+     * The penalty is the idle time in minutes between each lesson and the next one of the
+     * teacher that day, so a day 09:00-10:00, 12:00-13:00, 15:00-16:00 costs 2 × 120 minutes.
+     * The teacher's lessons of a day are kept ordered by start minute in a sequence chain
+     * ({@link ConstraintCollectors#toConsecutiveSequences}); every break of the chain is a pair
+     * of adjacent lessons. A move so re-evaluates only the breaks of the teacher's day it touches.
+     * Uses the integer minute-of-week encoding of {@link PlanningTimeslot}.
      *
      * @param constraintFactory the factory to create constraints
      * @return minimize gaps constraint
      */
     Constraint minimizeTeacherGaps(ConstraintFactory constraintFactory) {
         return constraintFactory
-                .forEach(Lesson.class)
-                .join(Lesson.class,
-                        // Different lessons
-                        Joiners.lessThan(Lesson::getId),
-                        // Same teacher
-                        Joiners.equal(Lesson::getTeacher),
-                        // Same day of week
-                        Joiners.equal(lesson -> lesson.getTimeslot() != null ?
-                                lesson.getTimeslot().getDayOfWeek() : null)
-                )
-                .filter((lesson1, lesson2) -> {
-                    // Only consider lessons that have timeslots assigned
-                    if (lesson1.getTimeslot() == null || lesson2.getTimeslot() == null) {
-                        return false;
-                    }
-
-                    // Check if there's a gap between the lessons
-                    LocalTime end1 = lesson1.getTimeslot().getEndTime();
-                    LocalTime start2 = lesson2.getTimeslot().getStartTime();
-                    LocalTime end2 = lesson2.getTimeslot().getEndTime();
-                    LocalTime start1 = lesson1.getTimeslot().getStartTime();
-
-                    // Gap exists if lesson1 ends before lesson2 starts (and vice versa)
-                    boolean gapExists = (end1.isBefore(start2) || end2.isBefore(start1));
-
-                    return gapExists;
-                })
-                .penalize(HardSoftScore.ONE_SOFT, (lesson1, lesson2) -> {
-                    // Calculate gap duration in minutes
-                    LocalTime end1 = lesson1.getTimeslot().getEndTime();
-                    LocalTime start2 = lesson2.getTimeslot().getStartTime();
-                    LocalTime end2 = lesson2.getTimeslot().getEndTime();
-                    LocalTime start1 = lesson1.getTimeslot().getStartTime();
-
-                    // Calculate the actual gap (the one that exists)
-                    if (end1.isBefore(start2)) {
-                        // lesson1 is before lesson2
-                        return (int) Duration.between(end1, start2).toMinutes();
-                    } else {
-                        // lesson2 is before lesson1
-                        return (int) Duration.between(end2, start1).toMinutes();
-                    }
-                })
+                .forEach(PlanningLesson.class)
+                .filter(lesson -> lesson.getTimeslot() != null)
+                // Per teacher and day: the lessons ordered by start minute
+                .groupBy(PlanningLesson::getTeacher,
+                         lesson -> lesson.getTimeslot().getDayIndex(),
+                         ConstraintCollectors.toConsecutiveSequences(PlanningLesson::getStartMinuteOfWeek))
+                .flattenLast(SequenceChain::getBreaks)
+                // Gap exists if the earlier lesson ends before the next one starts
+                .filter((teacher, day, lessonBreak) -> gapMinutes(lessonBreak) > 0)
+                .penalize(HardSoftScore.ONE_SOFT, (teacher, day, lessonBreak) -> gapMinutes(lessonBreak))
                 .asConstraint("Minimize teacher gaps");
     }
 
+    /**
+     * Helper method to calculate the idle time between two adjacent lessons on the same day.
+     * Works on the precomputed minute-of-week fields, so nothing is allocated.
+     *
+     * @return gap in minutes, or 0 if the lessons touch or overlap; an overlap is a teacher conflict,
+     *         never a reward here
+     */
+    private int gapMinutes(Break<PlanningLesson, Integer> lessonBreak) {
+        return Math.max(0, lessonBreak.getNextSequenceStart().getStartMinuteOfWeek()
+                - lessonBreak.getPreviousSequenceEnd().getEndMinuteOfWeek());
+    }
+
     /**
      * SOFT CONSTRAINT: Prime-Time Reward (EPIC 4 BE-16.2)
      *
@@ -206,16 +245,9 @@ public class DanceScheduleConstraintProvider implements ConstraintProvider {
      */
     Constraint rewardPrimeTime(ConstraintFactory constraintFactory) {
         return constraintFactory
-                .forEach(Lesson.class)
-                .filter(lesson -> {
-                    if (lesson.getTimeslot() == null) {
-                        return false;
-                    }
-                    LocalTime start = lesson.getTimeslot().getStartTime();
-                    // Prime time: 16:00 - 21:00
-                    return !start.isBefore(LocalTime.of(16, 0)) &&
-                           start.isBefore(LocalTime.of(21, 0));
-                })
+                .forEach(PlanningLesson.class)
+                // Prime time (16:00 - 21:00) is precomputed per timeslot
+                .filter(lesson -> lesson.getTimeslot() != null && lesson.getTimeslot().isPrimeTime())
                 .reward(HardSoftScore.ONE_SOFT)
                 .asConstraint("Reward prime time usage");
     }
@@ -223,22 +255,58 @@ public class DanceScheduleConstraintProvider implements ConstraintProvider {
     /**
      * SOFT CONSTRAINT: Load Balancing (EPIC 4 BE-16.3)
      *
-     * Distributes lessons fairly among teachers to ensure workload balance.
-     * Uses variance-based penalty: the more lessons a teacher has, the higher the penalty.
+     * Spreads each teacher's teaching time evenly over the days they can teach.
+     * A teacher's fair daily share is the minutes of all their lessons divided by the days of
+     * the week with a timeslot they are available in, rounded up. Each day the teacher teaches
+     * more than that share is penalized by the extra minutes, so the penalty is half the total
+     * deviation from an even spread, summed over the teachers.
      *
-     * This prevents scenarios where one teacher has 10 lessons while another has only 2.
-     * The squared penalty ensures that large imbalances are heavily discouraged.
+     * This prevents a teacher from teaching 6 hours on Monday and 1 hour on Thursday.
+     * A move changes the minutes of one or two days of one teacher; the shares only depend on
+     * the lessons' durations and the teachers' availability, not on where lessons are placed.
      *
      * @param constraintFactory the factory to create constraints
      * @return load balancing constraint
      */
     Constraint balanceTeacherLoad(ConstraintFactory constraintFactory) {
         return constraintFactory
-                .forEach(Lesson.class)
+                .forEach(PlanningLesson.class)
                 .filter(lesson -> lesson.getTimeslot() != null)
-                .groupBy(Lesson::getTeacher, ConstraintCollectors.count())
+                // Teaching minutes per teacher and day
+                .groupBy(PlanningLesson::getTeacher,
+                         lesson -> lesson.getTimeslot().getDayIndex(),
+                         ConstraintCollectors.sum(PlanningLesson::getDurationMinutes))
+                .join(dailyShares(constraintFactory),
+                      Joiners.equal((teacher, day, minutes) -> teacher, DailyShare::teacher))
+                .filter((teacher, day, minutes, share) -> minutes > share.minutes())
                 .penalize(HardSoftScore.ONE_SOFT,
-                         (teacher, count) -> count * count) // Square penalty for imbalance
+                         (teacher, day, minutes, share) -> minutes - share.minutes())
+                .indictWith((teacher, day, minutes, share) -> List.of(teacher, DayOfWeek.of(day + 1)))
                 .asConstraint("Balance teacher workload");
     }
+
+    /**
+     * Fair daily share of every teacher with a lesson and an available timeslot.
+     * Unassigned lessons count as well, so the share does not change while lessons are placed.
+     */
+    private UniConstraintStream<DailyShare> dailyShares(ConstraintFactory constraintFactory) {
+        return constraintFactory
+                .forEach(PlanningTimeslot.class)
+                .join(PlanningTeacher.class,
+                      Joiners.filtering((timeslot, teacher) -> !teacher.isUnavailable(timeslot)))
+                .groupBy((timeslot, teacher) -> teacher,
+                         ConstraintCollectors.countDistinct((timeslot, teacher) -> timeslot.getDayIndex()))
+                .join(constraintFactory.forEachIncludingNullVars(PlanningLesson.class),
+                      Joiners.equal((teacher, days) -> teacher, PlanningLesson::getTeacher))
+                .groupBy((teacher, days, lesson) -> teacher,
+                         (teacher, days, lesson) -> days,
+                         ConstraintCollectors.sum((teacher, days, lesson) -> lesson.getDurationMinutes()))
+                .map((teacher, days, minutes) -> new DailyShare(teacher, Math.ceilDiv(minutes, days)));
+    }
+
+    /**
+     * The most minutes a teacher teaches in one day when their lessons are spread evenly.
+     */
+    private record DailyShare(PlanningTeacher teacher, int minutes) {
+    }
 }
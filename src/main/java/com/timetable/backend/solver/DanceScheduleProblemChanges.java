@@ -0,0 +1,171 @@
+package com.timetable.backend.solver;
+
+import ai.timefold.solver.core.api.solver.change.ProblemChange;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * {@link ProblemChange}s that apply edits of the stored schedule to a running solve.
+ * <p>
+ * The solver absorbs a change without restarting from scratch: the current assignment of every
+ * other lesson is kept. Problem fact lists are shared between the working solution and the best
+ * solutions already handed out, so facts are added to or removed from a copy of the list.
+ * Changes for objects the working solution does not know (anymore) are ignored.
+ */
+public final class DanceScheduleProblemChanges {
+
+    private DanceScheduleProblemChanges() {
+    }
+
+    /**
+     * Adds an unassigned lesson. A teacher without lessons in the schedule so far is added as well.
+     *
+     * @param lesson the new lesson; its teacher only needs id, name and max daily hours
+     * @param unavailableTimeslotIds timeslots the teacher cannot teach in, used if the teacher is new
+     * @return change adding the lesson
+     */
+    public static ProblemChange<DanceSchedule> addLesson(PlanningLesson lesson, Set<Long> unavailableTimeslotIds) {
+        return (schedule, director) -> {
+            PlanningTeacher teacher = director.lookUpWorkingObject(lesson.getTeacher()).orElse(null);
+            if (teacher == null) {
+                BitSet unavailable = new BitSet(schedule.getTimeslotList().size());
+                for (PlanningTimeslot timeslot : schedule.getTimeslotList()) {
+                    if (unavailableTimeslotIds.contains(timeslot.getId())) {
+                        unavailable.set(timeslot.getIndex());
+                    }
+                }
+                teacher = new PlanningTeacher(schedule.getTeacherList().size(), lesson.getTeacher().getId(),
+                    lesson.getTeacher().getFullName(), lesson.getTeacher().getMaxDailyHours(), unavailable);
+                List<PlanningTeacher> teachers = new ArrayList<>(schedule.getTeacherList());
+                schedule.setTeacherList(teachers);
+                director.addProblemFact(teacher, teachers::add);
+            }
+
+            lesson.setTeacher(teacher);
+            lesson.setTimeslot(null);
+            lesson.setRoom(null);
+            director.addEntity(lesson, added -> {
+                schedule.getLessonList().add(added);
+                added.setTimeslotRange(LessonValueRanges.timeslotRange(schedule, added.getTeacher()));
+            });
+
+            // One more lesson can leave the teacher too few available timeslots for a restricted range
+            List<PlanningTimeslot> range = lesson.getTimeslotRange();
+            for (PlanningLesson other : schedule.getLessonList()) {
+                if (other != lesson && other.getTeacher() == teacher && !range.equals(other.getTimeslotRange())) {
+                    director.changeProblemProperty(other, changed -> changed.setTimeslotRange(range));
+                }
+            }
+        };
+    }
+
+    /**
+     * Removes a lesson. The timeslot ranges of the teacher's other lessons stay as they are.
+     *
+     * @param lessonId the lesson to remove
+     * @return change removing the lesson
+     */
+    public static ProblemChange<DanceSchedule> removeLesson(Long lessonId) {
+        return (schedule, director) -> schedule.getLessonList().stream()
+            .filter(lesson -> lesson.getId().equals(lessonId))
+            .findFirst()
+            .ifPresent(lesson -> director.removeEntity(lesson, schedule.getLessonList()::remove));
+    }
+
+    /**
+     * Marks a timeslot as (un)available for a teacher.
+     *
+     * @param teacherId the teacher
+     * @param timeslotId the timeslot
+     * @param unavailable true if the teacher can no longer teach in the timeslot
+     * @return change of the teacher's availability
+     */
+    public static ProblemChange<DanceSchedule> setTeacherUnavailable(Long teacherId, Long timeslotId,
+                                                                     boolean unavailable) {
+        return (schedule, director) -> {
+            PlanningTeacher teacher = findById(schedule.getTeacherList(), teacherId, PlanningTeacher::getId);
+            PlanningTimeslot timeslot = findById(schedule.getTimeslotList(), timeslotId, PlanningTimeslot::getId);
+            // A teacher without lessons in the schedule is not part of the problem
+            if (teacher == null || timeslot == null) {
+                return;
+            }
+
+            // The fact is shared with the best solutions already handed out, so replace it with a copy
+            PlanningTeacher changedTeacher = teacher.withUnavailable(timeslot, unavailable);
+            List<PlanningTeacher> teachers = new ArrayList<>(schedule.getTeacherList());
+            int position = teachers.indexOf(teacher);
+            schedule.setTeacherList(teachers);
+            director.removeProblemFact(teacher, teachers::remove);
+            director.addProblemFact(changedTeacher, added -> teachers.add(position, added));
+
+            // Move the teacher's lessons to the copy, with the timeslot range of the new availability
+            List<PlanningTimeslot> range = LessonValueRanges.timeslotRange(schedule, changedTeacher);
+            for (PlanningLesson lesson : schedule.getLessonList()) {
+                if (lesson.getTeacher() == teacher) {
+                    director.changeProblemProperty(lesson, changed -> {
+                        changed.setTeacher(changedTeacher);
+                        changed.setTimeslotRange(range);
+                    });
+                }
+            }
+        };
+    }
+
+    /**
+     * @param id the room id
+     * @param name the room name
+     * @param capacity the room capacity
+     * @param allowsParallelPrivate whether private lessons may share the room
+     * @return change adding the room to the value range
+     */
+    public static ProblemChange<DanceSchedule> addRoom(Long id, String name, int capacity,
+                                                       boolean allowsParallelPrivate) {
+        return (schedule, director) -> {
+            // After a removal the list size may already be taken as an index
+            int index = schedule.getRoomList().stream().mapToInt(PlanningRoom::getIndex).max().orElse(-1) + 1;
+            PlanningRoom room = new PlanningRoom(index, id, name, capacity, allowsParallelPrivate);
+            List<PlanningRoom> rooms = new ArrayList<>(schedule.getRoomList());
+            schedule.setRoomList(rooms);
+            director.addProblemFact(room, rooms::add);
+        };
+    }
+
+    /**
+     * Removes a room. Lessons in the room lose their room, as with the database's ON DELETE SET NULL.
+     * <p>
+     * Indexes of the remaining rooms no longer match their list positions; they stay unique.
+     *
+     * @param roomId the room to remove
+     * @return change removing the room from the value range
+     */
+    public static ProblemChange<DanceSchedule> removeRoom(Long roomId) {
+        return (schedule, director) -> {
+            PlanningRoom room = findById(schedule.getRoomList(), roomId, PlanningRoom::getId);
+            if (room == null) {
+                return;
+            }
+
+            for (PlanningLesson lesson : schedule.getLessonList()) {
+                if (lesson.getRoom() == room) {
+                    director.changeVariable(lesson, "room", changed -> changed.setRoom(null));
+                }
+            }
+            List<PlanningRoom> rooms = new ArrayList<>(schedule.getRoomList());
+            schedule.setRoomList(rooms);
+            director.removeProblemFact(room, rooms::remove);
+        };
+    }
+
+    private static <T> T findById(List<T> facts, Long id, Function<T, Long> idFunction) {
+        for (T fact : facts) {
+            if (idFunction.apply(fact).equals(id)) {
+                return fact;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,76 @@
+package com.timetable.backend.solver;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves the objects a constraint match indicts to the lessons involved.
+ * <p>
+ * Most constraints indict lessons directly. Grouped constraints (room conflict) indict the
+ * room and a minute of the week instead, which stand for every lesson running in that room at that minute;
+ * teacher max daily hours indicts the teacher and a day, which stand for the teacher's lessons that day.
+ */
+public final class IndictedLessons {
+
+    private final Map<PlanningRoom, List<PlanningLesson>> lessonsByRoom = new HashMap<>();
+    private final Map<PlanningTeacher, List<PlanningLesson>> lessonsByTeacher = new HashMap<>();
+
+    /**
+     * @param schedule the schedule whose constraint matches are resolved
+     */
+    public IndictedLessons(DanceSchedule schedule) {
+        for (PlanningLesson lesson : schedule.getLessonList()) {
+            if (lesson.getRoom() != null && lesson.getTimeslot() != null) {
+                lessonsByRoom.computeIfAbsent(lesson.getRoom(), room -> new ArrayList<>()).add(lesson);
+            }
+            if (lesson.getTimeslot() != null) {
+                lessonsByTeacher.computeIfAbsent(lesson.getTeacher(), teacher -> new ArrayList<>()).add(lesson);
+            }
+        }
+    }
+
+    /**
+     * @param indictedObjects {@link ai.timefold.solver.core.api.score.constraint.ConstraintMatch#getIndictedObjectList()}
+     * @return the lessons of one constraint match, each once
+     */
+    public Set<PlanningLesson> of(List<Object> indictedObjects) {
+        Set<PlanningLesson> lessons = new LinkedHashSet<>();
+        PlanningRoom room = null;
+        Integer minuteOfWeek = null;
+        PlanningTeacher teacher = null;
+        DayOfWeek day = null;
+        for (Object indicted : indictedObjects) {
+            if (indicted instanceof PlanningLesson lesson) {
+                lessons.add(lesson);
+            } else if (indicted instanceof PlanningRoom indictedRoom) {
+                room = indictedRoom;
+            } else if (indicted instanceof Integer indictedMinute) {
+                minuteOfWeek = indictedMinute;
+            } else if (indicted instanceof PlanningTeacher indictedTeacher) {
+                teacher = indictedTeacher;
+            } else if (indicted instanceof DayOfWeek indictedDay) {
+                day = indictedDay;
+            }
+        }
+        if (room != null && minuteOfWeek != null) {
+            for (PlanningLesson lesson : lessonsByRoom.getOrDefault(room, List.of())) {
+                if (lesson.getStartMinuteOfWeek() <= minuteOfWeek && minuteOfWeek < lesson.getEndMinuteOfWeek()) {
+                    lessons.add(lesson);
+                }
+            }
+        }
+        if (teacher != null && day != null) {
+            for (PlanningLesson lesson : lessonsByTeacher.getOrDefault(teacher, List.of())) {
+                if (lesson.getTimeslot().getDayIndex() == day.ordinal()) {
+                    lessons.add(lesson);
+                }
+            }
+        }
+        return lessons;
+    }
+}
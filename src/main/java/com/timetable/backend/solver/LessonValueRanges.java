@@ -0,0 +1,88 @@
+package com.timetable.backend.solver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-lesson timeslot ranges that leave out the timeslots a lesson can only take by breaking
+ * a hard constraint, so the solver neither builds nor evaluates those moves.
+ * <p>
+ * A lesson's range holds the timeslots its teacher is available in; the lessons of one teacher
+ * share one range list. A teacher with fewer available timeslots than lessons keeps every timeslot,
+ * so the solver can still trade an unavailability against a teacher conflict. Rooms keep the
+ * schedule's room list: whether a room fits depends on the other lessons in it, not on the lesson alone.
+ */
+public final class LessonValueRanges {
+
+    private LessonValueRanges() {
+    }
+
+    /**
+     * Sets the timeslot range of every lesson of a newly built schedule.
+     *
+     * @param schedule the schedule, before solving
+     * @return search space of the movable lessons before and after
+     */
+    public static Pruning restrict(DanceSchedule schedule) {
+        Map<PlanningTeacher, Integer> lessonCounts = new HashMap<>();
+        for (PlanningLesson lesson : schedule.getLessonList()) {
+            lessonCounts.merge(lesson.getTeacher(), 1, Integer::sum);
+        }
+
+        int timeslotCount = schedule.getTimeslotList().size();
+        double log10Rooms = Math.log10(Math.max(1, schedule.getRoomList().size()));
+        Map<PlanningTeacher, List<PlanningTimeslot>> ranges = new HashMap<>();
+        long valuesBefore = 0;
+        long valuesAfter = 0;
+        double log10ScaleBefore = 0;
+        double log10ScaleAfter = 0;
+        for (PlanningLesson lesson : schedule.getLessonList()) {
+            List<PlanningTimeslot> range = ranges.computeIfAbsent(lesson.getTeacher(),
+                teacher -> timeslotRange(teacher, lessonCounts.get(teacher), schedule.getTimeslotList()));
+            lesson.setTimeslotRange(range);
+            if (!lesson.isPinned()) {
+                valuesBefore += timeslotCount;
+                valuesAfter += range.size();
+                log10ScaleBefore += Math.log10(Math.max(1, timeslotCount)) + log10Rooms;
+                log10ScaleAfter += Math.log10(Math.max(1, range.size())) + log10Rooms;
+            }
+        }
+        return new Pruning(valuesBefore, valuesAfter, log10ScaleBefore, log10ScaleAfter);
+    }
+
+    /**
+     * @param schedule the (working) schedule
+     * @param teacher a teacher of the schedule
+     * @return timeslot range of the teacher's lessons, for their current number
+     */
+    public static List<PlanningTimeslot> timeslotRange(DanceSchedule schedule, PlanningTeacher teacher) {
+        int lessonCount = 0;
+        for (PlanningLesson lesson : schedule.getLessonList()) {
+            if (lesson.getTeacher() == teacher) {
+                lessonCount++;
+            }
+        }
+        return timeslotRange(teacher, lessonCount, schedule.getTimeslotList());
+    }
+
+    private static List<PlanningTimeslot> timeslotRange(PlanningTeacher teacher, int lessonCount,
+                                                        List<PlanningTimeslot> timeslots) {
+        List<PlanningTimeslot> available = new ArrayList<>(timeslots.size());
+        for (PlanningTimeslot timeslot : timeslots) {
+            if (!teacher.isUnavailable(timeslot)) {
+                available.add(timeslot);
+            }
+        }
+        return available.size() >= lessonCount ? available : timeslots;
+    }
+
+    /**
+     * Timeslot values summed over the movable lessons, and log10 of the number of possible
+     * assignments of those lessons, with the schedule's timeslots and with the restricted ranges.
+     */
+    public record Pruning(long timeslotValuesBefore, long timeslotValuesAfter,
+                          double log10ScaleBefore, double log10ScaleAfter) {
+    }
+}
@@ -0,0 +1,74 @@
+package com.timetable.backend.solver;
+
+import ai.timefold.solver.core.api.domain.entity.PlanningEntity;
+import ai.timefold.solver.core.api.domain.entity.PlanningPin;
+import ai.timefold.solver.core.api.domain.lookup.PlanningId;
+import ai.timefold.solver.core.api.domain.valuerange.ValueRangeProvider;
+import ai.timefold.solver.core.api.domain.variable.PlanningVariable;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Solver-side copy of a {@link com.timetable.backend.domain.model.Lesson}.
+ * This is the planning entity - Timefold Solver assigns timeslot and room.
+ * <p>
+ * Holds plain references to the immutable planning facts only, so score calculation
+ * and solution cloning never touch JPA-managed objects.
+ * <p>
+ * The timeslot comes from the lesson's own range (see {@link LessonValueRanges}), the room
+ * from the schedule's room list.
+ */
+@PlanningEntity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class PlanningLesson {
+
+    @PlanningId
+    private Long id;
+
+    private PlanningTeacher teacher;
+
+    private String danceGroupName;
+
+    private int durationMinutes;
+
+    private boolean isPrivate;
+
+    @PlanningPin
+    private boolean pinned;
+
+    @PlanningVariable(valueRangeProviderRefs = "lessonTimeslotRange")
+    private PlanningTimeslot timeslot;
+
+    @PlanningVariable(valueRangeProviderRefs = "roomRange")
+    private PlanningRoom room;
+
+    // Timeslots the lesson may take, shared by the lessons of a teacher. Set before solving.
+    @ValueRangeProvider(id = "lessonTimeslotRange")
+    @ToString.Exclude
+    private List<PlanningTimeslot> timeslotRange;
+
+    public PlanningLesson(Long id, PlanningTeacher teacher, String danceGroupName, int durationMinutes,
+                          boolean isPrivate, boolean pinned, PlanningTimeslot timeslot, PlanningRoom room) {
+        this(id, teacher, danceGroupName, durationMinutes, isPrivate, pinned, timeslot, room, null);
+    }
+
+    /**
+     * @return start of the lesson in minutes since Monday 00:00; only for an assigned lesson
+     */
+    public int getStartMinuteOfWeek() {
+        return timeslot.getStartMinuteOfWeek();
+    }
+
+    /**
+     * @return end of the lesson in minutes since Monday 00:00: its start plus its duration,
+     *         which may run past the end of its timeslot; only for an assigned lesson
+     */
+    public int getEndMinuteOfWeek() {
+        return timeslot.getStartMinuteOfWeek() + durationMinutes;
+    }
+}
@@ -0,0 +1,25 @@
+package com.timetable.backend.solver;
+
+import ai.timefold.solver.core.api.domain.lookup.PlanningId;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Solver-side copy of a {@link com.timetable.backend.domain.model.Room}.
+ * Immutable problem fact with a dense index (position in {@link DanceSchedule#getRoomList()}).
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public final class PlanningRoom {
+
+    private final int index;
+
+    @PlanningId
+    private final Long id;
+
+    private final String name;
+    private final int capacity;
+    private final boolean allowsParallelPrivate;
+}
@@ -0,0 +1,68 @@
+package com.timetable.backend.solver;
+
+import ai.timefold.solver.core.api.domain.lookup.PlanningId;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.BitSet;
+
+/**
+ * Solver-side copy of a {@link com.timetable.backend.domain.model.Teacher}.
+ * Carries only what the constraints need - no role, credentials or dance style collection.
+ * Immutable problem fact with a dense index (position in {@link DanceSchedule#getTeacherList()}).
+ * <p>
+ * The teacher's {@link com.timetable.backend.domain.model.ResourceUnavailability} rows are
+ * compressed into a bitset indexed by {@link PlanningTimeslot#getIndex()}, so checking
+ * availability is a single bit lookup instead of a join in the score calculation.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public final class PlanningTeacher {
+
+    private final int index;
+
+    @PlanningId
+    private final Long id;
+
+    private final String fullName;
+    private final int maxDailyHours;
+
+    // Bit i set = unavailable in the timeslot with index i
+    @Getter(AccessLevel.NONE)
+    private final BitSet unavailableTimeslots;
+
+    public PlanningTeacher(int index, Long id, String fullName, int maxDailyHours) {
+        this(index, id, fullName, maxDailyHours, new BitSet());
+    }
+
+    /**
+     * @return the most minutes the teacher may teach in one day
+     */
+    public int getMaxDailyMinutes() {
+        return maxDailyHours * 60;
+    }
+
+    /**
+     * @param timeslot the timeslot to check
+     * @return true if the teacher cannot teach in the timeslot
+     */
+    public boolean isUnavailable(PlanningTimeslot timeslot) {
+        return unavailableTimeslots.get(timeslot.getIndex());
+    }
+
+    /**
+     * Best solutions already handed out share this fact, so availability changes make a copy.
+     *
+     * @param timeslot the timeslot
+     * @param unavailable true if the teacher cannot teach in the timeslot
+     * @return copy of the teacher with the changed availability
+     */
+    public PlanningTeacher withUnavailable(PlanningTimeslot timeslot, boolean unavailable) {
+        BitSet changed = (BitSet) unavailableTimeslots.clone();
+        changed.set(timeslot.getIndex(), unavailable);
+        return new PlanningTeacher(index, id, fullName, maxDailyHours, changed);
+    }
+}
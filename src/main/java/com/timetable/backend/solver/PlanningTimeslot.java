@@ -0,0 +1,57 @@
+package com.timetable.backend.solver;
+
+import ai.timefold.solver.core.api.domain.lookup.PlanningId;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * Solver-side copy of a {@link com.timetable.backend.domain.model.Timeslot}.
+ * Immutable problem fact with a dense index (position in {@link DanceSchedule#getTimeslotList()}).
+ * <p>
+ * Time is also precomputed as primitive fields (day index, minute-of-week start and end,
+ * prime-time flag), so constraints never compare {@link LocalTime} values or build
+ * {@link java.time.Duration} objects during score calculation.
+ */
+@Getter
+@ToString
+public final class PlanningTimeslot {
+
+    /** Prime time (most students prefer to attend): 16:00 - 21:00, by start time. */
+    public static final LocalTime PRIME_TIME_START = LocalTime.of(16, 0);
+    public static final LocalTime PRIME_TIME_END = LocalTime.of(21, 0);
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final int index;
+
+    @PlanningId
+    private final Long id;
+
+    private final DayOfWeek dayOfWeek;
+    private final LocalTime startTime;
+    private final LocalTime endTime;
+
+    /** 0 = Monday ... 6 = Sunday. */
+    private final int dayIndex;
+    /** Minutes since Monday 00:00. */
+    private final int startMinuteOfWeek;
+    /** Minutes since Monday 00:00. */
+    private final int endMinuteOfWeek;
+    private final boolean primeTime;
+
+    public PlanningTimeslot(int index, Long id, DayOfWeek dayOfWeek, LocalTime startTime, LocalTime endTime) {
+        this.index = index;
+        this.id = id;
+        this.dayOfWeek = dayOfWeek;
+        this.startTime = startTime;
+        this.endTime = endTime;
+
+        this.dayIndex = dayOfWeek.ordinal();
+        this.startMinuteOfWeek = dayIndex * MINUTES_PER_DAY + startTime.getHour() * 60 + startTime.getMinute();
+        this.endMinuteOfWeek = dayIndex * MINUTES_PER_DAY + endTime.getHour() * 60 + endTime.getMinute();
+        this.primeTime = !startTime.isBefore(PRIME_TIME_START) && startTime.isBefore(PRIME_TIME_END);
+    }
+}
@@ -0,0 +1,30 @@
+-- Flyway migration: schedules (terms / branches) that lessons, timeslots and unavailabilities belong to
+
+CREATE TABLE schedules (
+  id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  name VARCHAR(255) NOT NULL,
+  UNIQUE KEY uk_schedule_name (name)
+);
+
+-- Existing data becomes the default schedule
+INSERT INTO schedules (id, name) VALUES (1, 'Default');
+
+-- Timeslots: the same weekly slot may exist once per schedule
+ALTER TABLE timeslots ADD COLUMN schedule_id BIGINT NULL;
+UPDATE timeslots SET schedule_id = 1;
+ALTER TABLE timeslots MODIFY schedule_id BIGINT NOT NULL;
+ALTER TABLE timeslots DROP INDEX uk_timeslot;
+ALTER TABLE timeslots ADD UNIQUE KEY uk_timeslot (schedule_id, day_of_week, start_time, end_time);
+ALTER TABLE timeslots ADD CONSTRAINT fk_timeslot_schedule FOREIGN KEY (schedule_id) REFERENCES schedules(id) ON DELETE CASCADE;
+
+ALTER TABLE lessons ADD COLUMN schedule_id BIGINT NULL;
+UPDATE lessons SET schedule_id = 1;
+ALTER TABLE lessons MODIFY schedule_id BIGINT NOT NULL;
+CREATE INDEX idx_lessons_schedule ON lessons(schedule_id);
+ALTER TABLE lessons ADD CONSTRAINT fk_lesson_schedule FOREIGN KEY (schedule_id) REFERENCES schedules(id) ON DELETE CASCADE;
+
+ALTER TABLE resource_unavailability ADD COLUMN schedule_id BIGINT NULL;
+UPDATE resource_unavailability SET schedule_id = 1;
+ALTER TABLE resource_unavailability MODIFY schedule_id BIGINT NOT NULL;
+CREATE INDEX idx_unavail_schedule ON resource_unavailability(schedule_id);
+ALTER TABLE resource_unavailability ADD CONSTRAINT fk_unavail_schedule FOREIGN KEY (schedule_id) REFERENCES schedules(id) ON DELETE CASCADE;
@@ -0,0 +1,4 @@
+-- Flyway migration: version of a schedule's problem data, incremented by every edit of its
+-- lessons, unavailabilities or the shared rooms (solver assignments do not count)
+
+ALTER TABLE schedules ADD COLUMN data_version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,16 @@
+-- Flyway migration: every solution the solver saves, as a compact binary snapshot of the
+-- lessons' timeslots and rooms (see AssignmentSnapshot), numbered per schedule
+
+CREATE TABLE solution_snapshots (
+  id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  schedule_id BIGINT NOT NULL,
+  version INT NOT NULL,
+  hard_score INT NOT NULL,
+  soft_score INT NOT NULL,
+  lesson_count INT NOT NULL,
+  assigned_count INT NOT NULL,
+  created_at DATETIME(6) NOT NULL,
+  assignments MEDIUMBLOB NOT NULL,
+  UNIQUE KEY uk_snapshot_version (schedule_id, version),
+  CONSTRAINT fk_snapshot_schedule FOREIGN KEY (schedule_id) REFERENCES schedules(id) ON DELETE CASCADE
+);
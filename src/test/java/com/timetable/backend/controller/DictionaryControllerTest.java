@@ -9,6 +9,7 @@ import com.timetable.backend.domain.repository.DanceStyleRepository;
 import com.timetable.backend.domain.repository.RoomRepository;
 import com.timetable.backend.security.JwtAuthenticationFilter;
 import com.timetable.backend.security.JwtService;
+import com.timetable.backend.service.ScheduleChangeService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -41,6 +42,8 @@ class DictionaryControllerTest {
     @MockitoBean
     private DictionaryMapper dictionaryMapper;
     @MockitoBean
+    private ScheduleChangeService scheduleChangeService;
+    @MockitoBean
     private JwtService jwtService;
     @MockitoBean
     private UserDetailsService userDetailsService;
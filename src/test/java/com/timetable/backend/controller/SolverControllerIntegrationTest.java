@@ -1,10 +1,21 @@
 package com.timetable.backend.controller;
 
+import ai.timefold.solver.core.api.solver.SolverStatus;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.timetable.backend.domain.dto.ConstraintAnalysisDTO;
+import com.timetable.backend.domain.dto.LessonIndictmentDTO;
+import com.timetable.backend.domain.dto.ScheduleAnalysisResponse;
+import com.timetable.backend.domain.dto.ScheduleChangeResponse;
+import com.timetable.backend.domain.dto.ScheduleSolutionResponse;
+import com.timetable.backend.domain.dto.SnapshotDiffResponse;
+import com.timetable.backend.domain.dto.SnapshotRestoreResponse;
+import com.timetable.backend.domain.dto.SolutionSnapshotDTO;
 import com.timetable.backend.domain.dto.SolveResponse;
 import com.timetable.backend.domain.dto.SolverStatusResponse;
 import com.timetable.backend.domain.model.*;
 import com.timetable.backend.domain.repository.*;
+import com.timetable.backend.service.SolverService;
+import com.timetable.backend.solver.DanceSchedule;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -20,8 +31,10 @@ import java.time.DayOfWeek;
 import java.time.LocalTime;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -64,7 +77,13 @@ class SolverControllerIntegrationTest {
     @Autowired
     private ResourceUnavailabilityRepository resourceUnavailabilityRepository;
 
-    private static Long testScheduleId;
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private SolverService solverService;
+
+    private Schedule schedule;
 
     @BeforeEach
     void setUp() {
@@ -76,20 +95,25 @@ class SolverControllerIntegrationTest {
         danceStyleRepository.deleteAll();
         timeslotRepository.deleteAll();
         roomRepository.deleteAll();
+        scheduleRepository.deleteAll();
 
         // Create test data
         createTestData();
     }
 
+    @AfterEach
+    void tearDown() {
+        // Free the solver thread for the next test
+        solverService.terminateEarly(schedule.getId());
+    }
+
     @Test
     @Order(1)
     @DisplayName("E2E: Complete solver workflow")
     @WithMockUser(username = "admin@test.com", roles = {"ADMIN"})
     void testCompleteSolverWorkflow() throws Exception {
-        testScheduleId = System.currentTimeMillis();
-
         // Step 1: Start solving
-        MvcResult solveResult = mockMvc.perform(post("/api/solver/solve")
+        MvcResult solveResult = mockMvc.perform(post("/api/solver/solve/" + schedule.getId())
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isAccepted())
                 .andReturn();
@@ -98,7 +122,7 @@ class SolverControllerIntegrationTest {
         SolveResponse solveResponse = objectMapper.readValue(solveJson, SolveResponse.class);
 
         assertThat(solveResponse).isNotNull();
-        assertThat(solveResponse.scheduleId()).isNotNull();
+        assertThat(solveResponse.scheduleId()).isEqualTo(schedule.getId());
 
         Long scheduleId = solveResponse.scheduleId();
 
@@ -136,10 +160,10 @@ class SolverControllerIntegrationTest {
 
     @Test
     @Order(2)
-    @DisplayName("POST /api/solver/solve - requires ADMIN role")
+    @DisplayName("POST /api/solver/solve/{id} - requires ADMIN role")
     void testSolveRequiresAdminRole() throws Exception {
         // Without authentication, should get 401 or 403
-        mockMvc.perform(post("/api/solver/solve"))
+        mockMvc.perform(post("/api/solver/solve/" + schedule.getId()))
                 .andExpect(status().isForbidden()); // Spring Security defaults to 403 for missing auth in some configs, or 401.
                 // Actually without user it might be 401, but let's check.
                 // If @WithMockUser is missing, it is anonymous user.
@@ -169,7 +193,7 @@ class SolverControllerIntegrationTest {
     @WithMockUser(username = "admin@test.com", roles = {"ADMIN"})
     void testTerminateSolver() throws Exception {
         // Start solver first
-        MvcResult solveResult = mockMvc.perform(post("/api/solver/solve"))
+        MvcResult solveResult = mockMvc.perform(post("/api/solver/solve/" + schedule.getId()))
                 .andExpect(status().isAccepted())
                 .andReturn();
 
@@ -185,10 +209,307 @@ class SolverControllerIntegrationTest {
                 .andExpect(status().isOk()); // Or BAD_REQUEST if already finished
     }
 
+    @Test
+    @Order(5)
+    @DisplayName("POST /api/solver/solve/{id} - unknown schedule returns 404")
+    @WithMockUser(username = "admin@test.com", roles = {"ADMIN"})
+    void testSolveUnknownSchedule() throws Exception {
+        mockMvc.perform(post("/api/solver/solve/" + (schedule.getId() + 1000)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("POST /api/solver/solve/{id} - rejects invalid or unavailable move thread counts")
+    @WithMockUser(username = "admin@test.com", roles = {"ADMIN"})
+    void testSolveRejectsUnsupportedMoveThreadCount() throws Exception {
+        mockMvc.perform(post("/api/solver/solve/" + schedule.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"moveThreadCount\": \"lots\"}"))
+                .andExpect(status().isBadRequest());
+
+        // Multi-threaded solving needs Timefold Solver Enterprise Edition, which is not on the test classpath
+        mockMvc.perform(post("/api/solver/solve/" + schedule.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"moveThreadCount\": \"4\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("POST /api/solver/solve/{id} - warm start finishes within its time budget")
+    @WithMockUser(username = "admin@test.com", roles = {"ADMIN"})
+    void testWarmStartFinishesWithinBudget() throws Exception {
+        mockMvc.perform(post("/api/solver/solve/" + schedule.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"warmStart\": true}"))
+                .andExpect(status().isAccepted());
+
+        // 3 unassigned lessons: 2s base + 1s per lesson, far below the 60s default limit
+        assertThat(awaitStatus(SolverStatus.NOT_SOLVING, 30).status()).isEqualTo(SolverStatus.NOT_SOLVING);
+        assertThat(lessonRepository.findAll())
+                .allSatisfy(lesson -> assertThat(lesson.getTimeslot()).isNotNull());
+    }
+
+    @Test
+    @Order(8)
+    @DisplayName("POST/DELETE /api/schedules/{id}/lessons - running solve takes the change")
+    @WithMockUser(username = "admin@test.com", roles = {"ADMIN"})
+    void testLessonChangesDuringSolve() throws Exception {
+        mockMvc.perform(post("/api/solver/solve/" + schedule.getId())
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isAccepted());
+
+        Lesson existing = lessonRepository.findAll().get(0);
+        String lessonJson = String.format("{\"teacherId\": %d, \"danceGroupId\": %d, \"durationMinutes\": 60}",
+                existing.getTeacher().getId(), existing.getDanceGroup().getId());
+        MvcResult addResult = mockMvc.perform(post("/api/schedules/" + schedule.getId() + "/lessons")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(lessonJson))
+                .andExpect(status().isCreated())
+                .andReturn();
+        ScheduleChangeResponse added = objectMapper.readValue(addResult.getResponse().getContentAsString(),
+                ScheduleChangeResponse.class);
+
+        assertThat(added.appliedToSolver()).isTrue();
+        assertThat(lessonRepository.findById(added.id())).isPresent();
+
+        mockMvc.perform(delete("/api/schedules/" + schedule.getId() + "/lessons/" + added.id()))
+                .andExpect(status().isOk());
+        assertThat(lessonRepository.findById(added.id())).isEmpty();
+
+        mockMvc.perform(delete("/api/schedules/" + schedule.getId() + "/lessons/" + added.id()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Order(9)
+    @DisplayName("POST /api/solver/solve/{id} - per-request time limit replaces the default")
+    @WithMockUser(username = "admin@test.com", roles = {"ADMIN"})
+    void testPerRequestTimeLimit() throws Exception {
+        mockMvc.perform(post("/api/solver/solve/" + schedule.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"timeLimitSeconds\": 2, \"priority\": \"BATCH\"}"))
+                .andExpect(status().isAccepted());
+
+        // A second solve of the same data attaches to the first one instead of starting another job
+        MvcResult secondResult = mockMvc.perform(post("/api/solver/solve/" + schedule.getId())
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isAccepted())
+                .andReturn();
+        assertThat(objectMapper.readValue(secondResult.getResponse().getContentAsString(), SolveResponse.class))
+                .isEqualTo(SolveResponse.attached(schedule.getId()));
+
+        assertThat(awaitStatus(SolverStatus.NOT_SOLVING, 20).status()).isEqualTo(SolverStatus.NOT_SOLVING);
+    }
+
+    @Test
+    @Order(10)
+    @DisplayName("POST /api/solver/solve/{id} - retries with the same idempotency key are safe")
+    @WithMockUser(username = "admin@test.com", roles = {"ADMIN"})
+    void testIdempotencyKey() throws Exception {
+        String key = "solve-" + schedule.getId();
+        MvcResult first = mockMvc.perform(post("/api/solver/solve/" + schedule.getId())
+                .header("Idempotency-Key", key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"timeLimitSeconds\": 2}"))
+                .andExpect(status().isAccepted())
+                .andReturn();
+        MvcResult retry = mockMvc.perform(post("/api/solver/solve/" + schedule.getId())
+                .header("Idempotency-Key", key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"timeLimitSeconds\": 2}"))
+                .andExpect(status().isAccepted())
+                .andReturn();
+
+        assertThat(retry.getResponse().getContentAsString()).isEqualTo(first.getResponse().getContentAsString());
+
+        // The same key with other settings is not a retry
+        mockMvc.perform(post("/api/solver/solve/" + schedule.getId())
+                .header("Idempotency-Key", key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"timeLimitSeconds\": 3}"))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    @Order(11)
+    @DisplayName("GET /api/solver/analysis/{id} - score and indictments of the stored schedule")
+    @WithMockUser(username = "admin@test.com", roles = {"ADMIN"})
+    void testScheduleAnalysis() throws Exception {
+        // All three lessons of the one teacher in the same timeslot and room
+        Timeslot timeslot = timeslotRepository.findAll().get(0);
+        Room room = roomRepository.findAll().get(0);
+        lessonRepository.findAll().forEach(lesson -> {
+            lesson.setTimeslot(timeslot);
+            lesson.setRoom(room);
+            lessonRepository.save(lesson);
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/solver/analysis/" + schedule.getId()))
+                .andExpect(status().isOk())
+                .andReturn();
+        ScheduleAnalysisResponse analysis = objectMapper.readValue(result.getResponse().getContentAsString(),
+                ScheduleAnalysisResponse.class);
+
+        assertThat(analysis.hardScore()).isNegative();
+        assertThat(analysis.constraints())
+                .extracting(ConstraintAnalysisDTO::constraintName)
+                .contains("Teacher conflict", "Room conflict (Dual-Mode weighted)");
+        assertThat(analysis.lessons())
+                .extracting(LessonIndictmentDTO::lessonId)
+                .containsExactlyInAnyOrderElementsOf(lessonRepository.findAll().stream().map(Lesson::getId).toList());
+
+        // An edit through the API changes the data version, so the analysis is recalculated
+        Long teacherId = lessonRepository.findAll().get(0).getTeacher().getId();
+        mockMvc.perform(post("/api/schedules/" + schedule.getId() + "/unavailabilities")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(String.format("{\"teacherId\": %d, \"timeslotId\": %d}", teacherId, timeslot.getId())))
+                .andExpect(status().isCreated());
+        MvcResult updated = mockMvc.perform(get("/api/solver/analysis/" + schedule.getId()))
+                .andExpect(status().isOk())
+                .andReturn();
+        ScheduleAnalysisResponse updatedAnalysis = objectMapper.readValue(
+                updated.getResponse().getContentAsString(), ScheduleAnalysisResponse.class);
+
+        assertThat(updatedAnalysis.dataVersion()).isEqualTo(analysis.dataVersion() + 1);
+        assertThat(updatedAnalysis.constraints())
+                .extracting(ConstraintAnalysisDTO::constraintName)
+                .contains("Teacher unavailability");
+
+        mockMvc.perform(get("/api/solver/analysis/999999"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Order(12)
+    @DisplayName("GET /api/solver/stream/{id} - pushes best solutions and the end of the solve")
+    @WithMockUser(username = "admin@test.com", roles = {"ADMIN"})
+    void testProgressStream() throws Exception {
+        MvcResult stream = mockMvc.perform(get("/api/solver/stream/" + schedule.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(post("/api/solver/solve/" + schedule.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"timeLimitSeconds\": 2}"))
+                .andExpect(status().isAccepted());
+        assertThat(awaitStatus(SolverStatus.NOT_SOLVING, 20).status()).isEqualTo(SolverStatus.NOT_SOLVING);
+
+        String events = stream.getResponse().getContentAsString();
+        assertThat(stream.getResponse().getContentType()).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+        assertThat(events).contains("event:best-solution", "event:finished", "\"totalLessons\":3");
+
+        mockMvc.perform(get("/api/solver/stream/999999"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Order(13)
+    @DisplayName("GET /api/solver/solution/{id} - recent solve served from memory until an edit")
+    @WithMockUser(username = "admin@test.com", roles = {"ADMIN"})
+    void testSolutionServedFromMemory() throws Exception {
+        mockMvc.perform(post("/api/solver/solve/" + schedule.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"timeLimitSeconds\": 2}"))
+                .andExpect(status().isAccepted());
+        assertThat(awaitStatus(SolverStatus.NOT_SOLVING, 20).status()).isEqualTo(SolverStatus.NOT_SOLVING);
+
+        DanceSchedule best = solverService.getBestSolution(schedule.getId());
+        assertThat(best).isNotNull();
+        MvcResult result = mockMvc.perform(get("/api/solver/solution/" + schedule.getId()))
+                .andExpect(status().isOk())
+                .andReturn();
+        ScheduleSolutionResponse solution = objectMapper.readValue(result.getResponse().getContentAsString(),
+                ScheduleSolutionResponse.class);
+        assertThat(solution.score()).isEqualTo(best.getScore().toString());
+        assertThat(solution.lessons()).hasSize(3);
+
+        // The schedule is not being solved, so the edit outdates the stored solution
+        Long teacherId = lessonRepository.findAll().get(0).getTeacher().getId();
+        Long timeslotId = timeslotRepository.findAll().get(0).getId();
+        mockMvc.perform(post("/api/schedules/" + schedule.getId() + "/unavailabilities")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(String.format("{\"teacherId\": %d, \"timeslotId\": %d}", teacherId, timeslotId)))
+                .andExpect(status().isCreated());
+        assertThat(solverService.getBestSolution(schedule.getId())).isNull();
+        mockMvc.perform(get("/api/solver/solution/" + schedule.getId()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @Order(14)
+    @DisplayName("Snapshots - every saved solution is listed, compared and restorable")
+    @WithMockUser(username = "admin@test.com", roles = {"ADMIN"})
+    void testSolutionSnapshots() throws Exception {
+        mockMvc.perform(post("/api/solver/solve/" + schedule.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"timeLimitSeconds\": 2}"))
+                .andExpect(status().isAccepted());
+        assertThat(awaitStatus(SolverStatus.NOT_SOLVING, 20).status()).isEqualTo(SolverStatus.NOT_SOLVING);
+
+        MvcResult listResult = mockMvc.perform(get("/api/schedules/" + schedule.getId() + "/snapshots"))
+                .andExpect(status().isOk())
+                .andReturn();
+        SolutionSnapshotDTO[] snapshots = objectMapper.readValue(listResult.getResponse().getContentAsString(),
+                SolutionSnapshotDTO[].class);
+        assertThat(snapshots).isNotEmpty();
+        SolutionSnapshotDTO latest = snapshots[0];
+        assertThat(latest.lessonCount()).isEqualTo(3);
+        assertThat(latest.assignedLessons()).isEqualTo(3);
+
+        // Unassign everything, then bring the latest solution back
+        lessonRepository.findAll().forEach(lesson -> {
+            lesson.setTimeslot(null);
+            lesson.setRoom(null);
+            lessonRepository.save(lesson);
+        });
+        MvcResult restoreResult = mockMvc.perform(
+                post("/api/schedules/" + schedule.getId() + "/snapshots/" + latest.version() + "/restore"))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertThat(objectMapper.readValue(restoreResult.getResponse().getContentAsString(),
+                SnapshotRestoreResponse.class).restoredLessons()).isEqualTo(3);
+        assertThat(lessonRepository.findAll())
+                .allMatch(lesson -> lesson.getTimeslot() != null && lesson.getRoom() != null);
+
+        MvcResult diffResult = mockMvc.perform(get("/api/schedules/" + schedule.getId() + "/snapshots/"
+                + snapshots[snapshots.length - 1].version() + "/diff/" + latest.version()))
+                .andExpect(status().isOk())
+                .andReturn();
+        SnapshotDiffResponse diff = objectMapper.readValue(diffResult.getResponse().getContentAsString(),
+                SnapshotDiffResponse.class);
+        assertThat(diff.changedLessons()).noneMatch(change -> change.added() || change.removed());
+
+        mockMvc.perform(post("/api/schedules/" + schedule.getId() + "/snapshots/999/restore"))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Polls the status endpoint every 500 ms until the status is reached or the attempts run out.
+     */
+    private SolverStatusResponse awaitStatus(SolverStatus expected, int attempts) throws Exception {
+        SolverStatusResponse response = null;
+        for (int i = 0; i < attempts; i++) {
+            Thread.sleep(500);
+            MvcResult statusResult = mockMvc.perform(get("/api/solver/status/" + schedule.getId()))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            response = objectMapper.readValue(statusResult.getResponse().getContentAsString(),
+                    SolverStatusResponse.class);
+            if (response.status() == expected) {
+                break;
+            }
+        }
+        return response;
+    }
+
     /**
      * Creates minimal test data for solver to work with.
      */
     private void createTestData() {
+        schedule = scheduleRepository.save(new Schedule("Test Schedule"));
+
         // Create timeslots
         createTimeslot(DayOfWeek.MONDAY, "09:00", "10:00");
         createTimeslot(DayOfWeek.MONDAY, "10:00", "11:00");
@@ -232,6 +553,7 @@ class SolverControllerIntegrationTest {
         // Create lessons (unassigned - solver will assign them)
         for (int i = 0; i < 3; i++) {
             Lesson lesson = new Lesson();
+            lesson.setSchedule(schedule);
             lesson.setTeacher(teacher);
             lesson.setDanceGroup(group);
             lesson.setDurationMinutes(60);
@@ -244,6 +566,7 @@ class SolverControllerIntegrationTest {
 
     private void createTimeslot(DayOfWeek day, String start, String end) {
         Timeslot slot = new Timeslot();
+        slot.setSchedule(schedule);
         slot.setDayOfWeek(day);
         slot.setStartTime(LocalTime.parse(start));
         slot.setEndTime(LocalTime.parse(end));
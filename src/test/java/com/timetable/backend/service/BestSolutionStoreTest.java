@@ -0,0 +1,100 @@
+package com.timetable.backend.service;
+
+import com.timetable.backend.solver.DanceSchedule;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BestSolutionStoreTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final BestSolutionStore store = new BestSolutionStore(2, Duration.ofMinutes(10), clock);
+
+    @Test
+    void shouldKeepFinishedSolutionsForTheRetention() {
+        DanceSchedule running = solution(1L);
+        store.put(running);
+        assertThat(store.get(1L)).containsSame(running);
+
+        DanceSchedule finalSolution = solution(1L);
+        store.finished(1L, finalSolution);
+        clock.advance(Duration.ofMinutes(9));
+        assertThat(store.get(1L)).containsSame(finalSolution);
+
+        clock.advance(Duration.ofMinutes(2));
+        assertThat(store.get(1L)).isEmpty();
+
+        store.put(solution(2L));
+        store.finished(2L, null);
+        assertThat(store.get(2L)).isEmpty();
+    }
+
+    @Test
+    void shouldDropLeastRecentlyUsedFinishedSolutionsButNeverRunningOnes() {
+        store.finished(2L, solution(2L));
+        store.finished(3L, solution(3L));
+        store.get(2L);
+        store.put(solution(1L));
+
+        assertThat(store.get(3L)).isEmpty();
+        assertThat(store.get(2L)).isPresent();
+
+        // Over the limit with running solves only: all are kept
+        store.put(solution(4L));
+        store.put(solution(5L));
+        assertThat(store.get(2L)).isEmpty();
+        assertThat(store.get(1L)).isPresent();
+        assertThat(store.get(4L)).isPresent();
+        assertThat(store.get(5L)).isPresent();
+    }
+
+    @Test
+    void shouldIgnoreSolutionsOfAnInvalidatedSolveUntilTheNextStarts() {
+        store.put(solution(1L));
+        store.invalidate(1L);
+        assertThat(store.get(1L)).isEmpty();
+
+        store.put(solution(1L));
+        store.finished(1L, solution(1L));
+        assertThat(store.get(1L)).isEmpty();
+
+        store.started(1L);
+        store.put(solution(1L));
+        assertThat(store.get(1L)).isPresent();
+    }
+
+    private DanceSchedule solution(Long scheduleId) {
+        return new DanceSchedule(scheduleId, List.of(), List.of(), List.of(), List.of());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.timetable.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyKeyStoreTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final IdempotencyKeyStore store = new IdempotencyKeyStore(Duration.ofHours(1), 2, clock);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void shouldRunActionOncePerKey() {
+        assertThat(store.execute("a", 1L, calls::incrementAndGet)).isEqualTo(1);
+        assertThat(store.execute("a", 1L, calls::incrementAndGet)).isEqualTo(1);
+        assertThat(store.execute("b", 1L, calls::incrementAndGet)).isEqualTo(2);
+
+        assertThatThrownBy(() -> store.execute("a", 2L, calls::incrementAndGet))
+            .isInstanceOf(IdempotencyKeyReuseException.class);
+    }
+
+    @Test
+    void shouldForgetExpiredAndOldestKeys() {
+        store.execute("a", 1L, calls::incrementAndGet);
+        clock.advance(Duration.ofMinutes(61));
+        assertThat(store.execute("a", 1L, calls::incrementAndGet)).isEqualTo(2);
+
+        // At most two keys: the third evicts the oldest
+        store.execute("b", 1L, calls::incrementAndGet);
+        store.execute("c", 1L, calls::incrementAndGet);
+        assertThat(store.execute("a", 1L, calls::incrementAndGet)).isEqualTo(5);
+    }
+
+    @Test
+    void shouldNotRememberFailures() {
+        assertThatThrownBy(() -> store.execute("a", 1L, () -> {
+            throw new IllegalStateException("busy");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(store.execute("a", 1L, calls::incrementAndGet)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotHoldLockWhileActionRuns() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> slow = executor.submit(() -> store.execute("a", 1L, () -> {
+                started.countDown();
+                await(release);
+                return calls.incrementAndGet();
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // Another key runs while the first action is still in progress
+            assertThat(store.execute("b", 1L, () -> 42)).isEqualTo(42);
+
+            // A retry of the first key waits for its outcome instead of running again
+            Future<Integer> retry = executor.submit(() -> store.execute("a", 1L, calls::incrementAndGet));
+            release.countDown();
+            assertThat(slow.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+            assertThat(retry.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+            assertThat(calls.get()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
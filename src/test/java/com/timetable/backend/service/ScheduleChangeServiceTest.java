@@ -0,0 +1,115 @@
+package com.timetable.backend.service;
+
+import com.timetable.backend.domain.model.Room;
+import com.timetable.backend.domain.repository.DanceGroupRepository;
+import com.timetable.backend.domain.repository.LessonRepository;
+import com.timetable.backend.domain.repository.ResourceUnavailabilityRepository;
+import com.timetable.backend.domain.repository.RoomRepository;
+import com.timetable.backend.domain.repository.ScheduleRepository;
+import com.timetable.backend.domain.repository.TeacherRepository;
+import com.timetable.backend.domain.repository.TimeslotRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScheduleChangeServiceTest {
+
+    @Mock
+    private ScheduleRepository scheduleRepository;
+    @Mock
+    private LessonRepository lessonRepository;
+    @Mock
+    private TeacherRepository teacherRepository;
+    @Mock
+    private DanceGroupRepository danceGroupRepository;
+    @Mock
+    private TimeslotRepository timeslotRepository;
+    @Mock
+    private ResourceUnavailabilityRepository resourceUnavailabilityRepository;
+    @Mock
+    private RoomRepository roomRepository;
+    @Mock
+    private SolverService solverService;
+    @Mock
+    private BestSolutionStore bestSolutionStore;
+
+    @InjectMocks
+    private ScheduleChangeService scheduleChangeService;
+
+    @Test
+    void shouldDeleteRoomOnceEveryRunningSolveAppliedTheRemoval() {
+        when(roomRepository.findById(1L)).thenReturn(Optional.of(createRoom()));
+        when(solverService.addProblemChangeToAll(any()))
+            .thenReturn(Map.of(10L, CompletableFuture.completedFuture(null), 20L, CompletableFuture.completedFuture(null)));
+
+        assertTrue(scheduleChangeService.removeRoom(1L));
+
+        verify(scheduleRepository).incrementAllDataVersions();
+        verify(roomRepository).deleteById(1L);
+    }
+
+    @Test
+    void shouldKeepRoomIfARunningSolveFailedToApplyTheRemoval() {
+        when(roomRepository.findById(1L)).thenReturn(Optional.of(createRoom()));
+        when(solverService.addProblemChangeToAll(any())).thenReturn(Map.of(
+            10L, CompletableFuture.completedFuture(null),
+            20L, CompletableFuture.failedFuture(new IllegalStateException("Solver job ended"))));
+
+        assertThrows(IllegalStateException.class, () -> scheduleChangeService.removeRoom(1L));
+
+        verify(roomRepository, never()).deleteById(any());
+        verify(solverService).addProblemChange(eq(10L), any());
+        verify(solverService).terminateEarly(20L);
+    }
+
+    @Test
+    void shouldBringSolvesBackInLineIfTheRemovalTimesOut() {
+        ReflectionTestUtils.setField(scheduleChangeService, "roomRemovalTimeout", Duration.ofMillis(50));
+        when(roomRepository.findById(1L)).thenReturn(Optional.of(createRoom()));
+        when(solverService.addProblemChangeToAll(any())).thenReturn(Map.of(
+            10L, CompletableFuture.completedFuture(null),
+            20L, new CompletableFuture<>()));
+
+        assertThrows(IllegalStateException.class, () -> scheduleChangeService.removeRoom(1L));
+
+        verify(scheduleRepository).incrementAllDataVersions();
+        verify(roomRepository, never()).deleteById(any());
+        // The solve that dropped the room gets it back, the one still holding the change is stopped
+        verify(solverService).addProblemChange(eq(10L), any());
+        verify(solverService, never()).terminateEarly(10L);
+        verify(solverService).terminateEarly(20L);
+        verify(solverService, never()).addProblemChange(eq(20L), any());
+    }
+
+    @Test
+    void shouldNotTouchSolvesForUnknownRoom() {
+        when(roomRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertFalse(scheduleChangeService.removeRoom(1L));
+
+        verifyNoInteractions(solverService, scheduleRepository);
+        verify(roomRepository, never()).deleteById(any());
+    }
+
+    private Room createRoom() {
+        Room room = new Room();
+        room.setId(1L);
+        room.setName("Studio A");
+        room.setCapacity(20);
+        return room;
+    }
+}
@@ -0,0 +1,189 @@
+package com.timetable.backend.service;
+
+import com.timetable.backend.domain.model.*;
+import com.timetable.backend.domain.repository.*;
+import com.timetable.backend.solver.DanceSchedule;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
+@Import(ScheduleProblemLoader.class)
+class ScheduleProblemLoaderJpaTest {
+
+    private static final int TEACHER_COUNT = 40;
+    private static final int ROOM_COUNT = 10;
+    private static final int STYLE_COUNT = 8;
+    private static final int GROUP_COUNT = 200;
+    private static final int LESSON_COUNT = 2000;
+
+    @Autowired
+    private ScheduleProblemLoader scheduleProblemLoader;
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TimeslotRepository timeslotRepository;
+    @Autowired
+    private RoomRepository roomRepository;
+    @Autowired
+    private TeacherRepository teacherRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private DanceStyleRepository danceStyleRepository;
+    @Autowired
+    private DanceGroupRepository danceGroupRepository;
+    @Autowired
+    private LessonRepository lessonRepository;
+    @Autowired
+    private ResourceUnavailabilityRepository resourceUnavailabilityRepository;
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("Loads a large schedule in a constant number of statements")
+    void loadsLargeScheduleInConstantNumberOfStatements() {
+        Schedule spring = scheduleRepository.save(new Schedule("Spring"));
+        generateData(spring, "");
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        DanceSchedule schedule = scheduleProblemLoader.load(spring.getId());
+
+        // timeslots, rooms, teachers, unavailabilities, lessons
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(5);
+        assertThat(schedule.getLessonList()).hasSize(LESSON_COUNT);
+        assertThat(schedule.getTeacherList()).hasSize(TEACHER_COUNT);
+        assertThat(schedule.getRoomList()).hasSize(ROOM_COUNT);
+        assertThat(schedule.getTimeslotList()).hasSize(45);
+        assertThat(schedule.getLessonList())
+            .allSatisfy(lesson -> {
+                assertThat(lesson.getTeacher()).isNotNull();
+                assertThat(lesson.getDanceGroupName()).isNotNull();
+                assertThat(lesson.getTimeslot()).isSameAs(schedule.getTimeslotList().get(lesson.getTimeslot().getIndex()));
+                assertThat(lesson.getRoom()).isSameAs(schedule.getRoomList().get(lesson.getRoom().getIndex()));
+            });
+        assertThat(schedule.getTeacherList())
+            .allSatisfy(teacher -> assertThat(schedule.getTimeslotList())
+                .filteredOn(teacher::isUnavailable)
+                .hasSize(3));
+    }
+
+    @Test
+    @DisplayName("Loads only the rows of the requested schedule")
+    void loadsOnlyRequestedSchedule() {
+        Schedule spring = scheduleRepository.save(new Schedule("Spring"));
+        Schedule autumn = scheduleRepository.save(new Schedule("Autumn"));
+        generateData(spring, "spring-");
+        generateData(autumn, "autumn-");
+        entityManager.flush();
+        entityManager.clear();
+
+        DanceSchedule schedule = scheduleProblemLoader.load(autumn.getId());
+
+        List<Long> autumnLessonIds = lessonRepository.findAll().stream()
+            .filter(lesson -> lesson.getSchedule().getId().equals(autumn.getId()))
+            .map(Lesson::getId)
+            .toList();
+        assertThat(schedule.getLessonList())
+            .extracting(lesson -> lesson.getId())
+            .containsExactlyInAnyOrderElementsOf(autumnLessonIds);
+        assertThat(schedule.getTimeslotList()).hasSize(45);
+        assertThat(schedule.getTeacherList())
+            .hasSize(TEACHER_COUNT)
+            .allSatisfy(teacher -> assertThat(teacher.getFullName()).startsWith("autumn-"));
+        // Rooms are shared by all schedules
+        assertThat(schedule.getRoomList()).hasSize(2 * ROOM_COUNT);
+    }
+
+    private void generateData(Schedule schedule, String prefix) {
+        Role teacherRole = roleRepository.findByName("TEACHER")
+            .orElseGet(() -> roleRepository.save(new Role(null, "TEACHER")));
+
+        // Mon-Fri, 09:00-18:00 -> 45 timeslots
+        List<Timeslot> timeslots = new ArrayList<>();
+        for (DayOfWeek day : List.of(DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY,
+                DayOfWeek.THURSDAY, DayOfWeek.FRIDAY)) {
+            for (int h = 9; h < 18; h++) {
+                timeslots.add(new Timeslot(schedule, day, LocalTime.of(h, 0), LocalTime.of(h + 1, 0)));
+            }
+        }
+        timeslotRepository.saveAll(timeslots);
+
+        List<Room> rooms = new ArrayList<>();
+        for (int i = 0; i < ROOM_COUNT; i++) {
+            rooms.add(new Room(prefix + "Room " + i, 20, i % 2 == 0));
+        }
+        roomRepository.saveAll(rooms);
+
+        List<Teacher> teachers = new ArrayList<>();
+        for (int i = 0; i < TEACHER_COUNT; i++) {
+            Teacher teacher = new Teacher();
+            teacher.setFullName(prefix + "Teacher " + i);
+            teacher.setEmail(prefix + "teacher" + i + "@test.com");
+            teacher.setPasswordHash("hashedPassword");
+            teacher.setRole(teacherRole);
+            teachers.add(teacher);
+        }
+        teacherRepository.saveAll(teachers);
+
+        List<DanceStyle> styles = new ArrayList<>();
+        for (int i = 0; i < STYLE_COUNT; i++) {
+            styles.add(new DanceStyle(prefix + "Style " + i));
+        }
+        danceStyleRepository.saveAll(styles);
+
+        List<DanceGroup> groups = new ArrayList<>();
+        for (int i = 0; i < GROUP_COUNT; i++) {
+            groups.add(new DanceGroup(prefix + "Group " + i, styles.get(i % STYLE_COUNT), DanceLevel.BEGINNER));
+        }
+        danceGroupRepository.saveAll(groups);
+
+        List<Lesson> lessons = new ArrayList<>();
+        for (int i = 0; i < LESSON_COUNT; i++) {
+            Lesson lesson = new Lesson(schedule, teachers.get(i % TEACHER_COUNT), groups.get(i % GROUP_COUNT), 60, i % 5 == 0);
+            lesson.setTimeslot(timeslots.get(i % timeslots.size()));
+            lesson.setRoom(rooms.get(i % ROOM_COUNT));
+            lessons.add(lesson);
+        }
+        lessonRepository.saveAll(lessons);
+
+        List<ResourceUnavailability> unavailabilities = new ArrayList<>();
+        for (int i = 0; i < TEACHER_COUNT; i++) {
+            for (int j = 0; j < 3; j++) {
+                unavailabilities.add(new ResourceUnavailability(schedule,
+                    teachers.get(i), timeslots.get((i + j * 7) % timeslots.size()), "Blocked"));
+            }
+        }
+        resourceUnavailabilityRepository.saveAll(unavailabilities);
+    }
+}
@@ -0,0 +1,187 @@
+package com.timetable.backend.service;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import com.timetable.backend.solver.DanceSchedule;
+import com.timetable.backend.solver.PlanningLesson;
+import com.timetable.backend.solver.PlanningRoom;
+import com.timetable.backend.solver.PlanningTimeslot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SolutionPersistenceServiceTest {
+
+    private static final Long SCHEDULE_ID = 1L;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private SolutionSnapshotService solutionSnapshotService;
+
+    @InjectMocks
+    private SolutionPersistenceService solutionPersistenceService;
+
+    @Test
+    void shouldWriteAllLessonsInOneBatchWithoutBaseline() {
+        List<PlanningLesson> lessons = createLessons(100);
+        PlanningTimeslot timeslot = createTimeslot(1L);
+        PlanningRoom room = createRoom(1L);
+        lessons.forEach(lesson -> assign(lesson, timeslot, room));
+
+        int written = solutionPersistenceService.persist(createSolution(lessons));
+
+        assertEquals(100, written);
+        assertEquals(100, captureSingleBatch().getBatchSize());
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void shouldWriteOnlyChangedLessons() {
+        List<PlanningLesson> lessons = createLessons(1000);
+        PlanningTimeslot timeslot1 = createTimeslot(1L);
+        PlanningTimeslot timeslot2 = createTimeslot(2L);
+        PlanningRoom room = createRoom(1L);
+        lessons.forEach(lesson -> assign(lesson, timeslot1, room));
+        solutionPersistenceService.rememberPersistedAssignment(SCHEDULE_ID, lessons);
+
+        // The solver moves 3 of 1000 lessons
+        assign(lessons.get(10), timeslot2, room);
+        assign(lessons.get(500), timeslot2, room);
+        assign(lessons.get(999), null, null);
+
+        int written = solutionPersistenceService.persist(createSolution(lessons));
+
+        assertEquals(3, written);
+        assertEquals(3, captureSingleBatch().getBatchSize());
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void shouldNotTouchDatabaseWhenNothingChangedSinceLastSave() {
+        List<PlanningLesson> lessons = createLessons(50);
+        PlanningTimeslot timeslot = createTimeslot(1L);
+        PlanningRoom room = createRoom(1L);
+        lessons.forEach(lesson -> assign(lesson, timeslot, room));
+
+        solutionPersistenceService.persist(createSolution(lessons));
+        clearInvocations(jdbcTemplate);
+
+        int written = solutionPersistenceService.persist(createSolution(lessons));
+
+        assertEquals(0, written);
+        verifyNoInteractions(jdbcTemplate);
+        // Only the first save is a new snapshot
+        verify(solutionSnapshotService, times(1)).record(any());
+    }
+
+    @Test
+    void shouldWriteAllLessonsAgainAfterScheduleIsForgotten() {
+        List<PlanningLesson> lessons = createLessons(20);
+        solutionPersistenceService.rememberPersistedAssignment(SCHEDULE_ID, lessons);
+        solutionPersistenceService.forget(SCHEDULE_ID);
+
+        int written = solutionPersistenceService.persist(createSolution(lessons));
+
+        assertEquals(20, written);
+        assertEquals(20, captureSingleBatch().getBatchSize());
+    }
+
+    @Test
+    void shouldWriteLessonsAgainAfterRollback() {
+        List<PlanningLesson> lessons = createLessons(10);
+        PlanningTimeslot timeslot = createTimeslot(1L);
+        PlanningRoom room = createRoom(1L);
+        lessons.forEach(lesson -> assign(lesson, timeslot, room));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            solutionPersistenceService.persist(createSolution(lessons));
+            // Rolled back: the registered after-commit hooks never run
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(0, solutionPersistenceService.assignmentVersion(SCHEDULE_ID));
+        clearInvocations(jdbcTemplate);
+
+        int written = solutionPersistenceService.persist(createSolution(lessons));
+
+        assertEquals(10, written);
+        assertEquals(10, captureSingleBatch().getBatchSize());
+        assertEquals(1, solutionPersistenceService.assignmentVersion(SCHEDULE_ID));
+    }
+
+    @Test
+    void shouldRememberLessonsOnlyAfterCommit() {
+        List<PlanningLesson> lessons = createLessons(10);
+        PlanningTimeslot timeslot = createTimeslot(1L);
+        PlanningRoom room = createRoom(1L);
+        lessons.forEach(lesson -> assign(lesson, timeslot, room));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            solutionPersistenceService.persist(createSolution(lessons));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        clearInvocations(jdbcTemplate);
+
+        assertEquals(0, solutionPersistenceService.persist(createSolution(lessons)));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private BatchPreparedStatementSetter captureSingleBatch() {
+        ArgumentCaptor<BatchPreparedStatementSetter> captor =
+            ArgumentCaptor.forClass(BatchPreparedStatementSetter.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), captor.capture());
+        return captor.getValue();
+    }
+
+    private DanceSchedule createSolution(List<PlanningLesson> lessons) {
+        DanceSchedule solution = new DanceSchedule(SCHEDULE_ID, List.of(), List.of(), List.of(), lessons);
+        solution.setScore(HardSoftScore.ZERO);
+        return solution;
+    }
+
+    private List<PlanningLesson> createLessons(int count) {
+        List<PlanningLesson> lessons = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            PlanningLesson lesson = new PlanningLesson();
+            lesson.setId(id);
+            lessons.add(lesson);
+        }
+        return lessons;
+    }
+
+    private void assign(PlanningLesson lesson, PlanningTimeslot timeslot, PlanningRoom room) {
+        lesson.setTimeslot(timeslot);
+        lesson.setRoom(room);
+    }
+
+    private PlanningTimeslot createTimeslot(Long id) {
+        return new PlanningTimeslot(id.intValue() - 1, id, DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(10, 0));
+    }
+
+    private PlanningRoom createRoom(Long id) {
+        return new PlanningRoom(id.intValue() - 1, id, "Room " + id, 20, false);
+    }
+}
@@ -0,0 +1,141 @@
+package com.timetable.backend.service;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import com.timetable.backend.solver.DanceSchedule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SolutionWriteBehindServiceTest {
+
+    private static final Long SCHEDULE_ID = 1L;
+
+    @Mock
+    private SolutionPersistenceService solutionPersistenceService;
+
+    private SolutionWriteBehindService writeBehindService;
+
+    @AfterEach
+    void tearDown() {
+        if (writeBehindService != null) {
+            writeBehindService.stop();
+        }
+    }
+
+    @Test
+    void shouldCoalesceSmallImprovementsUntilFinalFlush() {
+        writeBehindService = startService(Duration.ofHours(1), 100);
+
+        DanceSchedule first = createSolution(HardSoftScore.of(0, -500));
+        writeBehindService.offer(first);
+        verify(solutionPersistenceService, timeout(1000)).persist(first);
+
+        // 50 tiny soft improvements: below the delta threshold and no cadence tick
+        DanceSchedule latest = null;
+        for (int i = 1; i <= 50; i++) {
+            latest = createSolution(HardSoftScore.of(0, -500 + i));
+            writeBehindService.offer(latest);
+        }
+        verifyNoMoreInteractions(solutionPersistenceService);
+
+        DanceSchedule finalSolution = createSolution(HardSoftScore.of(0, -440));
+        writeBehindService.flushFinal(finalSolution);
+
+        verify(solutionPersistenceService).persist(finalSolution);
+        verify(solutionPersistenceService, never()).persist(latest);
+        verify(solutionPersistenceService).forget(SCHEDULE_ID);
+    }
+
+    @Test
+    void shouldFlushImmediatelyWhenHardScoreChanges() {
+        writeBehindService = startService(Duration.ofHours(1), 100);
+
+        writeBehindService.offer(createSolution(HardSoftScore.of(-3, -10)));
+        verify(solutionPersistenceService, timeout(1000)).persist(any());
+
+        DanceSchedule feasible = createSolution(HardSoftScore.of(0, -20));
+        writeBehindService.offer(feasible);
+
+        verify(solutionPersistenceService, timeout(1000)).persist(feasible);
+    }
+
+    @Test
+    void shouldKeepImmediateFlushesOfAHardScoreBurstApart() {
+        writeBehindService = startService(Duration.ofHours(1), 100, Duration.ofMillis(500));
+
+        writeBehindService.offer(createSolution(HardSoftScore.of(-30, 0)));
+        verify(solutionPersistenceService, timeout(1000)).persist(any());
+
+        // Every offer changes the hard score, all of them inside the minimum gap
+        DanceSchedule latest = null;
+        for (int hard = -29; hard <= 0; hard++) {
+            latest = createSolution(HardSoftScore.of(hard, 0));
+            writeBehindService.offer(latest);
+        }
+        verify(solutionPersistenceService, after(200).times(1)).persist(any());
+
+        // The burst is written once, when the gap has passed
+        verify(solutionPersistenceService, timeout(1000)).persist(latest);
+        verify(solutionPersistenceService, after(700).times(2)).persist(any());
+    }
+
+    @Test
+    void shouldWriteOnlyLatestSolutionOnCadence() {
+        writeBehindService = startService(Duration.ofMillis(100), Integer.MAX_VALUE);
+
+        DanceSchedule first = createSolution(HardSoftScore.of(0, -100));
+        writeBehindService.offer(first);
+        verify(solutionPersistenceService, timeout(1000)).persist(first);
+
+        DanceSchedule second = createSolution(HardSoftScore.of(0, -90));
+        DanceSchedule third = createSolution(HardSoftScore.of(0, -80));
+        writeBehindService.offer(second);
+        writeBehindService.offer(third);
+
+        verify(solutionPersistenceService, timeout(1000)).persist(third);
+        verify(solutionPersistenceService, never()).persist(second);
+    }
+
+    @Test
+    void shouldWritePendingSolutionWhenSolvingFails() {
+        writeBehindService = startService(Duration.ofHours(1), Integer.MAX_VALUE);
+
+        DanceSchedule first = createSolution(HardSoftScore.of(0, -100));
+        writeBehindService.offer(first);
+        verify(solutionPersistenceService, timeout(1000)).persist(first);
+
+        DanceSchedule pending = createSolution(HardSoftScore.of(0, -90));
+        writeBehindService.offer(pending);
+        writeBehindService.flushAndRelease(SCHEDULE_ID);
+
+        verify(solutionPersistenceService).persist(pending);
+        verify(solutionPersistenceService).forget(SCHEDULE_ID);
+    }
+
+    private SolutionWriteBehindService startService(Duration flushInterval, int softScoreDelta) {
+        return startService(flushInterval, softScoreDelta, Duration.ZERO);
+    }
+
+    private SolutionWriteBehindService startService(Duration flushInterval, int softScoreDelta,
+                                                    Duration minFlushGap) {
+        SolutionWriteBehindService service =
+            new SolutionWriteBehindService(solutionPersistenceService, flushInterval, softScoreDelta, minFlushGap);
+        service.start();
+        return service;
+    }
+
+    private DanceSchedule createSolution(HardSoftScore score) {
+        DanceSchedule solution = new DanceSchedule(SCHEDULE_ID, List.of(), List.of(), List.of(), List.of());
+        solution.setScore(score);
+        return solution;
+    }
+}
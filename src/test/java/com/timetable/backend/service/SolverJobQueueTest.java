@@ -0,0 +1,91 @@
+package com.timetable.backend.service;
+
+import com.timetable.backend.domain.dto.SolvePriority;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SolverJobQueueTest {
+
+    private final SolverJobQueue queue = new SolverJobQueue("1", 2);
+    private final List<Long> started = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        queue.stop();
+    }
+
+    @Test
+    void shouldQueueByPriorityAndRejectWhenFull() {
+        assertThat(queue.submit(1L, 0, SolvePriority.INTERACTIVE, () -> started.add(1L)))
+            .isEqualTo(SolverJobQueue.Admission.STARTED);
+        assertThat(queue.submit(2L, 0, SolvePriority.BATCH, () -> started.add(2L)))
+            .isEqualTo(SolverJobQueue.Admission.QUEUED);
+        assertThat(queue.submit(3L, 0, null, () -> started.add(3L)))
+            .isEqualTo(SolverJobQueue.Admission.QUEUED);
+
+        assertThat(started).containsExactly(1L);
+        // The interactive solve overtakes the earlier batch solve
+        assertThat(queue.queuePosition(3L)).isEqualTo(1);
+        assertThat(queue.queuePosition(2L)).isEqualTo(2);
+        assertThat(queue.queuePosition(1L)).isZero();
+
+        assertThatThrownBy(() -> queue.submit(4L, 0, SolvePriority.INTERACTIVE, () -> started.add(4L)))
+            .isInstanceOf(SolverQueueFullException.class);
+    }
+
+    @Test
+    void shouldAttachToSolveOfTheSameData() {
+        queue.submit(1L, 5, SolvePriority.INTERACTIVE, () -> started.add(1L));
+        queue.submit(2L, 0, SolvePriority.BATCH, () -> started.add(2L));
+
+        assertThat(queue.submit(1L, 5, SolvePriority.INTERACTIVE, () -> started.add(1L)))
+            .isEqualTo(SolverJobQueue.Admission.ATTACHED);
+        // A queued solve loads the data when it starts, whatever the version now
+        assertThat(queue.submit(2L, 1, SolvePriority.INTERACTIVE, () -> started.add(2L)))
+            .isEqualTo(SolverJobQueue.Admission.ATTACHED);
+        assertThatThrownBy(() -> queue.submit(1L, 6, SolvePriority.INTERACTIVE, () -> started.add(1L)))
+            .isInstanceOf(IllegalStateException.class);
+
+        // The running solve took the edit that made version 6
+        queue.solvingDataVersion(1L, 6);
+        assertThat(queue.submit(1L, 6, SolvePriority.INTERACTIVE, () -> started.add(1L)))
+            .isEqualTo(SolverJobQueue.Admission.ATTACHED);
+        assertThat(started).containsExactly(1L);
+    }
+
+    @Test
+    void shouldStartNextQueuedSolveWhenOneFinishes() throws InterruptedException {
+        CountDownLatch nextStarted = new CountDownLatch(1);
+        queue.submit(1L, 0, SolvePriority.INTERACTIVE, () -> started.add(1L));
+        queue.submit(2L, 0, SolvePriority.BATCH, () -> started.add(2L));
+        queue.submit(3L, 0, SolvePriority.BATCH, () -> {
+            started.add(3L);
+            nextStarted.countDown();
+        });
+
+        assertThat(queue.cancel(2L)).isTrue();
+        queue.finished(1L);
+
+        assertThat(nextStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(started).containsExactly(1L, 3L);
+        assertThat(queue.isQueued(3L)).isFalse();
+    }
+
+    @Test
+    void shouldFreeTheSolverIfStartingFails() {
+        assertThatThrownBy(() -> queue.submit(1L, 0, SolvePriority.INTERACTIVE, () -> {
+            throw new IllegalArgumentException("Schedule not found: 1");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(queue.submit(2L, 0, SolvePriority.INTERACTIVE, () -> started.add(2L)))
+            .isEqualTo(SolverJobQueue.Admission.STARTED);
+    }
+}
@@ -0,0 +1,89 @@
+package com.timetable.backend.service;
+
+import ai.timefold.solver.core.api.solver.SolverManager;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import com.timetable.backend.solver.DanceSchedule;
+import com.timetable.backend.solver.DanceScheduleConstraintProvider;
+import com.timetable.backend.solver.PlanningLesson;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ExtendWith(MockitoExtension.class)
+class SolverManagerRegistryTest {
+
+    @Mock
+    private SolverManager<DanceSchedule, Long> configuredSolverManager;
+
+    private SolverManagerRegistry registry;
+
+    @AfterEach
+    void tearDown() {
+        registry.stop();
+    }
+
+    @Test
+    void shouldFallBackToSingleThreadedDefaultWithoutMultithreadedSolving() {
+        registry = new SolverManagerRegistry(solverConfig(), configuredSolverManager, "AUTO", 4, false);
+
+        assertThat(registry.forMoveThreadCount(null)).isSameAs(configuredSolverManager);
+        assertThat(registry.forMoveThreadCount("NONE")).isSameAs(configuredSolverManager);
+        assertThat(registry.all()).containsExactly(configuredSolverManager);
+    }
+
+    @Test
+    void shouldRejectExplicitThreadCountWithoutMultithreadedSolving() {
+        registry = new SolverManagerRegistry(solverConfig(), configuredSolverManager, "AUTO", 4, false);
+
+        assertThatThrownBy(() -> registry.forMoveThreadCount("4"))
+            .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> registry.forMoveThreadCount("AUTO"))
+            .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void shouldKeepConfiguredManagerForConfiguredThreadCount() {
+        registry = new SolverManagerRegistry(solverConfig().withMoveThreadCount("NONE"),
+            configuredSolverManager, "NONE", 4, true);
+
+        assertThat(registry.forMoveThreadCount(null)).isSameAs(configuredSolverManager);
+        assertThat(registry.forMoveThreadCount("NONE")).isSameAs(configuredSolverManager);
+        assertThat(registry.all()).containsExactly(configuredSolverManager);
+    }
+
+    @Test
+    void shouldBoundMoveThreadsByShareOfProcessors() {
+        registry = new SolverManagerRegistry(solverConfig(), configuredSolverManager, "AUTO", 3, true);
+
+        assertThat(registry.resolve("AUTO")).isEqualTo("3");
+        assertThat(registry.resolve("2")).isEqualTo("2");
+        assertThat(registry.resolve("NONE")).isEqualTo("NONE");
+        assertThatThrownBy(() -> registry.forMoveThreadCount("4"))
+            .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> registry.forMoveThreadCount("0"))
+            .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void shouldStaySingleThreadedWithoutProcessorsToSpare() {
+        registry = new SolverManagerRegistry(solverConfig(), configuredSolverManager, "AUTO", 1, true);
+
+        assertThat(registry.forMoveThreadCount(null)).isSameAs(configuredSolverManager);
+        assertThatThrownBy(() -> registry.forMoveThreadCount("AUTO"))
+            .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> registry.forMoveThreadCount("2"))
+            .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    private SolverConfig solverConfig() {
+        return new SolverConfig()
+            .withSolutionClass(DanceSchedule.class)
+            .withEntityClasses(PlanningLesson.class)
+            .withConstraintProviderClass(DanceScheduleConstraintProvider.class);
+    }
+}
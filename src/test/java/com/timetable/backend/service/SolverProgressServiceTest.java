@@ -0,0 +1,195 @@
+package com.timetable.backend.service;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import com.timetable.backend.domain.dto.ScheduledLessonDTO;
+import com.timetable.backend.domain.dto.SolverProgressEvent;
+import com.timetable.backend.solver.DanceSchedule;
+import com.timetable.backend.solver.PlanningLesson;
+import com.timetable.backend.solver.PlanningRoom;
+import com.timetable.backend.solver.PlanningTeacher;
+import com.timetable.backend.solver.PlanningTimeslot;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SolverProgressServiceTest {
+
+    private static final Long SCHEDULE_ID = 1L;
+
+    private final BestSolutionStore bestSolutionStore = new BestSolutionStore(10, Duration.ofMinutes(10));
+    private final SolverProgressService progressService =
+        new SolverProgressService(bestSolutionStore, Duration.ofMinutes(1), 16, Runnable::run);
+
+    private final PlanningTimeslot monday = new PlanningTimeslot(0, 1L, DayOfWeek.MONDAY, LocalTime.of(17, 0), LocalTime.of(18, 0));
+    private final PlanningTimeslot tuesday = new PlanningTimeslot(1, 2L, DayOfWeek.TUESDAY, LocalTime.of(17, 0), LocalTime.of(18, 0));
+    private final PlanningRoom room = new PlanningRoom(0, 1L, "Studio A", 20, false);
+    private final PlanningTeacher teacher = new PlanningTeacher(0, 1L, "Teacher 1", 8);
+
+    @Test
+    void shouldSendOnlyChangedLessons() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        progressService.subscribe(SCHEDULE_ID, emitter);
+
+        publishBest(solution(HardSoftScore.of(-1, 0), lesson(1L, null), lesson(2L, null)));
+        publishBest(solution(HardSoftScore.of(0, -5), lesson(1L, monday), lesson(2L, null)));
+        publishFinished(SCHEDULE_ID, solution(HardSoftScore.of(0, -2), lesson(1L, monday), lesson(3L, tuesday)));
+
+        assertThat(emitter.names).containsExactly(SolverProgressService.BEST_SOLUTION,
+            SolverProgressService.BEST_SOLUTION, SolverProgressService.FINISHED);
+        assertThat(emitter.events.get(0).changedLessons()).extracting(ScheduledLessonDTO::lessonId)
+            .containsExactly(1L, 2L);
+
+        SolverProgressEvent improved = emitter.events.get(1);
+        assertThat(improved.score()).isEqualTo("0hard/-5soft");
+        assertThat(improved.assignedLessons()).isEqualTo(1);
+        assertThat(improved.totalLessons()).isEqualTo(2);
+        assertThat(improved.changedLessons()).extracting(ScheduledLessonDTO::lessonId).containsExactly(1L);
+
+        SolverProgressEvent finished = emitter.events.get(2);
+        assertThat(finished.changedLessons()).extracting(ScheduledLessonDTO::lessonId).containsExactly(3L);
+        assertThat(finished.removedLessonIds()).containsExactly(2L);
+    }
+
+    @Test
+    void shouldStartLateSubscribersWithSnapshot() {
+        publishBest(solution(HardSoftScore.of(0, -5), lesson(1L, monday), lesson(2L, null)));
+
+        RecordingEmitter first = new RecordingEmitter();
+        progressService.subscribe(SCHEDULE_ID, first);
+        publishBest(solution(HardSoftScore.of(0, -3), lesson(1L, monday), lesson(2L, tuesday)));
+        RecordingEmitter second = new RecordingEmitter();
+        progressService.subscribe(SCHEDULE_ID, second);
+        publishFinished(SCHEDULE_ID, null);
+
+        assertThat(first.names).containsExactly(SolverProgressService.SNAPSHOT,
+            SolverProgressService.BEST_SOLUTION, SolverProgressService.FAILED);
+        assertThat(first.events.get(1).changedLessons()).extracting(ScheduledLessonDTO::lessonId)
+            .containsExactly(2L);
+        assertThat(second.names).containsExactly(SolverProgressService.SNAPSHOT, SolverProgressService.FAILED);
+        assertThat(second.events.get(0).changedLessons()).extracting(ScheduledLessonDTO::lessonId)
+            .containsExactly(1L, 2L);
+        assertThat(second.events.get(1).score()).isNull();
+    }
+
+    @Test
+    void shouldDropDisconnectedSubscribers() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        progressService.subscribe(SCHEDULE_ID, emitter);
+        emitter.disconnected = true;
+
+        publishBest(solution(HardSoftScore.of(0, -5), lesson(1L, monday)));
+        emitter.disconnected = false;
+        publishBest(solution(HardSoftScore.of(0, -3), lesson(1L, tuesday)));
+
+        assertThat(emitter.events).isEmpty();
+    }
+
+    @Test
+    void shouldCloseSubscriberThatFallsBehindWithoutBlockingOthers() throws Exception {
+        ExecutorService sender = Executors.newCachedThreadPool();
+        SolverProgressService asyncService = new SolverProgressService(bestSolutionStore, Duration.ofMinutes(1), 2, sender);
+        try {
+            CountDownLatch stalled = new CountDownLatch(1);
+            RecordingEmitter slow = new RecordingEmitter() {
+                @Override
+                public void send(SseEventBuilder builder) throws IOException {
+                    try {
+                        stalled.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    super.send(builder);
+                }
+            };
+            RecordingEmitter fast = new RecordingEmitter();
+            asyncService.subscribe(SCHEDULE_ID, slow);
+            asyncService.subscribe(SCHEDULE_ID, fast);
+
+            // The slow client takes no event: one in flight, two queued, then it is closed.
+            // Publishing does not wait for it, and the other client gets every event.
+            for (int i = 1; i <= 5; i++) {
+                asyncService.bestSolution(solution(HardSoftScore.of(0, -i), lesson(1L, i % 2 == 0 ? monday : tuesday)));
+                awaitEvents(fast, i);
+            }
+            stalled.countDown();
+
+            assertThat(fast.eventCount()).isEqualTo(5);
+            // Only the event it was stuck on; the queued ones were dropped with it
+            assertThat(slow.eventCount()).isLessThanOrEqualTo(1);
+        } finally {
+            sender.shutdownNow();
+        }
+    }
+
+    private static void awaitEvents(RecordingEmitter emitter, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (emitter.eventCount() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Same order as the solver's consumers: the store first, then the stream.
+     */
+    private void publishBest(DanceSchedule best) {
+        bestSolutionStore.put(best);
+        progressService.bestSolution(best);
+    }
+
+    private void publishFinished(Long scheduleId, DanceSchedule finalBest) {
+        bestSolutionStore.finished(scheduleId, finalBest);
+        progressService.finished(scheduleId, finalBest);
+    }
+
+    private DanceSchedule solution(HardSoftScore score, PlanningLesson... lessons) {
+        DanceSchedule solution = new DanceSchedule(SCHEDULE_ID, List.of(monday, tuesday), List.of(room),
+            List.of(teacher), List.of(lessons));
+        solution.setScore(score);
+        return solution;
+    }
+
+    private PlanningLesson lesson(Long id, PlanningTimeslot timeslot) {
+        return new PlanningLesson(id, teacher, "Group " + id, 60, false, false, timeslot,
+            timeslot != null ? room : null);
+    }
+
+    /**
+     * Emitter that keeps the events it is sent instead of writing them to a response.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<String> names = new ArrayList<>();
+        private final List<SolverProgressEvent> events = new ArrayList<>();
+        private volatile boolean disconnected;
+
+        synchronized int eventCount() {
+            return events.size();
+        }
+
+        @Override
+        public synchronized void send(SseEventBuilder builder) throws IOException {
+            if (disconnected) {
+                throw new IOException("Broken pipe");
+            }
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof SolverProgressEvent event) {
+                    events.add(event);
+                } else if (part.getData() instanceof String text && text.startsWith("event:")) {
+                    names.add(text.substring("event:".length(), text.indexOf('\n')));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.timetable.backend.service;
+
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import ai.timefold.solver.core.config.solver.termination.TerminationCompositionStyle;
+import ai.timefold.solver.core.config.solver.termination.TerminationConfig;
+import com.timetable.backend.solver.DanceSchedule;
+import com.timetable.backend.solver.DanceScheduleConstraintProvider;
+import com.timetable.backend.solver.LessonValueRanges;
+import com.timetable.backend.solver.PlanningLesson;
+import com.timetable.backend.solver.PlanningRoom;
+import com.timetable.backend.solver.PlanningTeacher;
+import com.timetable.backend.solver.PlanningTimeslot;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TerminationPolicyTest {
+
+    private final TerminationPolicy terminationPolicy = new TerminationPolicy(Duration.ofSeconds(10),
+        Duration.ofSeconds(1), Duration.ofMinutes(5), 0.25, 0.1, Duration.ofSeconds(2));
+
+    private final PlanningTeacher teacher = new PlanningTeacher(0, 1L, "Teacher 1", 8);
+
+    @Test
+    void shouldGrowTimeLimitWithProblemSizeUpToMaximum() {
+        // 100 lessons × (40 timeslots + 10 rooms) = 5000 change moves
+        assertThat(terminationPolicy.timeLimit(schedule(100, 40, 10))).isEqualTo(Duration.ofSeconds(15));
+        assertThat(terminationPolicy.timeLimit(schedule(0, 40, 10))).isEqualTo(Duration.ofSeconds(10));
+        assertThat(terminationPolicy.timeLimit(schedule(3000, 100, 20))).isEqualTo(Duration.ofMinutes(5));
+    }
+
+    @Test
+    void shouldDeriveUnimprovedLimitsFromTimeLimit() {
+        TerminationConfig termination = terminationPolicy.terminationConfig(Duration.ofSeconds(60), null, null);
+
+        assertThat(termination.getSpentLimit()).isEqualTo(Duration.ofSeconds(60));
+        assertThat(termination.getUnimprovedSpentLimit()).isNull();
+        assertThat(termination.getTerminationConfigList()).satisfiesExactly(assigned -> {
+            assertThat(assigned.getTerminationCompositionStyle()).isEqualTo(TerminationCompositionStyle.AND);
+            assertThat(assigned.getBestScoreLimit()).isEqualTo(TerminationPolicy.ASSIGNED_SCORE);
+            assertThat(assigned.getUnimprovedSpentLimit()).isEqualTo(Duration.ofSeconds(15));
+        }, feasible -> {
+            assertThat(feasible.getTerminationCompositionStyle()).isEqualTo(TerminationCompositionStyle.AND);
+            assertThat(feasible.getBestScoreFeasible()).isTrue();
+            assertThat(feasible.getUnimprovedSpentLimit()).isEqualTo(Duration.ofSeconds(6));
+        });
+    }
+
+    @Test
+    void shouldKeepGivenLimitsAndMinimum() {
+        TerminationConfig termination = terminationPolicy.terminationConfig(Duration.ofSeconds(5),
+            Duration.ofSeconds(4), null);
+
+        assertThat(termination.getTerminationConfigList().get(0).getUnimprovedSpentLimit())
+            .isEqualTo(Duration.ofSeconds(4));
+        assertThat(termination.getTerminationConfigList().get(1).getUnimprovedSpentLimit())
+            .isEqualTo(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void shouldNotStopConstructionHeuristicAtUnimprovedLimit() {
+        // The construction heuristic of 100 lessons × 20 timeslots × 5 rooms takes far longer than 1ms
+        DanceSchedule problem = schedule(100, 20, 5);
+        LessonValueRanges.restrict(problem);
+        TerminationConfig termination = terminationPolicy.terminationConfig(Duration.ofMinutes(1),
+            Duration.ofMillis(1), Duration.ofMillis(1));
+        SolverConfig solverConfig = new SolverConfig()
+            .withSolutionClass(DanceSchedule.class)
+            .withEntityClasses(PlanningLesson.class)
+            .withConstraintProviderClass(DanceScheduleConstraintProvider.class)
+            .withTerminationConfig(termination);
+
+        DanceSchedule solution = SolverFactory.<DanceSchedule>create(solverConfig).buildSolver().solve(problem);
+
+        assertThat(solution.getLessonList())
+            .allSatisfy(lesson -> assertThat(lesson.getTimeslot()).isNotNull())
+            .allSatisfy(lesson -> assertThat(lesson.getRoom()).isNotNull());
+    }
+
+    private DanceSchedule schedule(int lessonCount, int timeslotCount, int roomCount) {
+        List<PlanningTimeslot> timeslots = new ArrayList<>();
+        for (int i = 0; i < timeslotCount; i++) {
+            timeslots.add(new PlanningTimeslot(i, (long) i + 1, DayOfWeek.MONDAY,
+                LocalTime.of(8, 0), LocalTime.of(9, 0)));
+        }
+        List<PlanningRoom> rooms = new ArrayList<>();
+        for (int i = 0; i < roomCount; i++) {
+            rooms.add(new PlanningRoom(i, (long) i + 1, "Studio " + i, 20, false));
+        }
+        List<PlanningLesson> lessons = new ArrayList<>();
+        for (int i = 0; i < lessonCount; i++) {
+            lessons.add(new PlanningLesson((long) i + 1, teacher, "Group " + i, 60, false, false, null, null));
+        }
+        return new DanceSchedule(1L, timeslots, rooms, List.of(teacher), lessons);
+    }
+}
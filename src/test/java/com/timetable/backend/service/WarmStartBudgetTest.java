@@ -0,0 +1,99 @@
+package com.timetable.backend.service;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import ai.timefold.solver.core.api.solver.SolutionManager;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import com.timetable.backend.solver.DanceSchedule;
+import com.timetable.backend.solver.DanceScheduleConstraintProvider;
+import com.timetable.backend.solver.PlanningLesson;
+import com.timetable.backend.solver.PlanningRoom;
+import com.timetable.backend.solver.PlanningTeacher;
+import com.timetable.backend.solver.PlanningTimeslot;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WarmStartBudgetTest {
+
+    private final SolutionManager<DanceSchedule, HardSoftScore> solutionManager = SolutionManager.create(
+        SolverFactory.create(new SolverConfig()
+            .withSolutionClass(DanceSchedule.class)
+            .withEntityClasses(PlanningLesson.class)
+            .withConstraintProviderClass(DanceScheduleConstraintProvider.class)));
+
+    private final WarmStartBudget warmStartBudget = new WarmStartBudget(solutionManager,
+        Duration.ofSeconds(2), Duration.ofSeconds(1), Duration.ofSeconds(10));
+
+    private final List<PlanningTimeslot> timeslots = List.of(
+        new PlanningTimeslot(0, 1L, DayOfWeek.MONDAY, LocalTime.of(17, 0), LocalTime.of(18, 0)),
+        new PlanningTimeslot(1, 2L, DayOfWeek.MONDAY, LocalTime.of(18, 0), LocalTime.of(19, 0)),
+        new PlanningTimeslot(2, 3L, DayOfWeek.MONDAY, LocalTime.of(19, 0), LocalTime.of(20, 0))
+    );
+    private final List<PlanningRoom> rooms = List.of(
+        new PlanningRoom(0, 1L, "Studio A", 20, false),
+        new PlanningRoom(1, 2L, "Studio B", 20, false)
+    );
+
+    @Test
+    void shouldCountUnassignedAndHardViolatingLessons() {
+        BitSet unavailable = new BitSet();
+        unavailable.set(2);
+        PlanningTeacher teacher1 = new PlanningTeacher(0, 1L, "Teacher 1", 8);
+        PlanningTeacher teacher2 = new PlanningTeacher(1, 2L, "Teacher 2", 8, unavailable);
+        DanceSchedule schedule = new DanceSchedule(1L, timeslots, rooms, List.of(teacher1, teacher2), List.of(
+            // Fine where they are
+            createLesson(1L, teacher1, timeslots.get(0), rooms.get(0), false),
+            createLesson(2L, teacher2, timeslots.get(0), rooms.get(1), false),
+            // New lesson, not assigned yet
+            createLesson(3L, teacher1, null, null, false),
+            // Teacher became unavailable
+            createLesson(4L, teacher2, timeslots.get(2), rooms.get(1), false),
+            // Room conflict with a pinned lesson: only the movable one counts
+            createLesson(5L, teacher1, timeslots.get(1), rooms.get(0), true),
+            createLesson(6L, teacher2, timeslots.get(1), rooms.get(0), false)
+        ));
+
+        assertThat(warmStartBudget.countChangedLessons(schedule)).isEqualTo(3);
+    }
+
+    @Test
+    void shouldCountLessonsOfOverloadedTeacherDay() {
+        // One hour a day: both Monday lessons are part of the violation
+        PlanningTeacher teacher = new PlanningTeacher(0, 1L, "Teacher 1", 1);
+        DanceSchedule schedule = new DanceSchedule(1L, timeslots, rooms, List.of(teacher), List.of(
+            createLesson(1L, teacher, timeslots.get(0), rooms.get(0), false),
+            createLesson(2L, teacher, timeslots.get(2), rooms.get(1), false)
+        ));
+
+        assertThat(warmStartBudget.countChangedLessons(schedule)).isEqualTo(2);
+    }
+
+    @Test
+    void shouldGrowTimeLimitWithChangedLessonsUpToMaximum() {
+        assertThat(warmStartBudget.timeLimit(0)).isEqualTo(Duration.ofSeconds(2));
+        assertThat(warmStartBudget.timeLimit(3)).isEqualTo(Duration.ofSeconds(5));
+        assertThat(warmStartBudget.timeLimit(500)).isEqualTo(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void shouldSizeTimeLimitOfSchedule() {
+        PlanningTeacher teacher = new PlanningTeacher(0, 1L, "Teacher 1", 8);
+        DanceSchedule schedule = new DanceSchedule(1L, timeslots, rooms, List.of(teacher), List.of(
+            createLesson(1L, teacher, null, null, false)
+        ));
+
+        assertThat(warmStartBudget.timeLimit(schedule)).isEqualTo(Duration.ofSeconds(3));
+    }
+
+    private PlanningLesson createLesson(Long id, PlanningTeacher teacher, PlanningTimeslot timeslot,
+                                        PlanningRoom room, boolean pinned) {
+        return new PlanningLesson(id, teacher, "Group " + id, 60, false, pinned, timeslot, room);
+    }
+}
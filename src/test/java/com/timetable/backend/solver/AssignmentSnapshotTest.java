@@ -0,0 +1,78 @@
+package com.timetable.backend.solver;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AssignmentSnapshotTest {
+
+    private final PlanningTeacher teacher = new PlanningTeacher(0, 1L, "Teacher 1", 8);
+
+    @Test
+    void shouldRoundTripCompactly() {
+        List<PlanningTimeslot> timeslots = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            timeslots.add(new PlanningTimeslot(i, 1000L + i, DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(10, 0)));
+        }
+        List<PlanningRoom> rooms = List.of(new PlanningRoom(0, 7L, "Studio A", 20, false),
+            new PlanningRoom(1, 9L, "Studio B", 20, false));
+        List<PlanningLesson> lessons = new ArrayList<>();
+        for (long id = 500; id > 0; id--) {
+            boolean assigned = id % 50 != 0;
+            lessons.add(lesson(id, assigned ? timeslots.get((int) (id % 40)) : null,
+                assigned ? rooms.get((int) (id % 2)) : null));
+        }
+
+        AssignmentSnapshot snapshot = AssignmentSnapshot.of(lessons);
+        byte[] bytes = snapshot.encode();
+        AssignmentSnapshot decoded = AssignmentSnapshot.decode(bytes);
+
+        // One byte per lesson id, timeslot and room, plus the id lists
+        assertThat(bytes.length).isLessThan(500 * 3 + 100);
+        assertThat(decoded.assignments()).isEqualTo(snapshot.assignments());
+        assertThat(decoded.size()).isEqualTo(500);
+        assertThat(decoded.assignedCount()).isEqualTo(490);
+        assertThat(decoded.assignments().get(0))
+            .isEqualTo(new AssignmentSnapshot.LessonAssignment(1L, 1001L, 9L));
+        assertThat(decoded.assignments().get(49))
+            .isEqualTo(new AssignmentSnapshot.LessonAssignment(50L, null, null));
+    }
+
+    @Test
+    void shouldDiffMovedAddedAndRemovedLessons() {
+        PlanningTimeslot monday = new PlanningTimeslot(0, 1L, DayOfWeek.MONDAY, LocalTime.of(17, 0), LocalTime.of(18, 0));
+        PlanningTimeslot tuesday = new PlanningTimeslot(1, 2L, DayOfWeek.TUESDAY, LocalTime.of(17, 0), LocalTime.of(18, 0));
+        PlanningRoom room = new PlanningRoom(0, 1L, "Studio A", 20, false);
+
+        AssignmentSnapshot from = AssignmentSnapshot.of(List.of(
+            lesson(1L, monday, room), lesson(2L, monday, room), lesson(3L, null, null)));
+        AssignmentSnapshot to = AssignmentSnapshot.of(List.of(
+            lesson(1L, monday, room), lesson(2L, tuesday, room), lesson(4L, tuesday, room)));
+
+        assertThat(from.diff(to)).containsExactly(
+            new AssignmentSnapshot.AssignmentChange(2L,
+                new AssignmentSnapshot.LessonAssignment(2L, 1L, 1L),
+                new AssignmentSnapshot.LessonAssignment(2L, 2L, 1L)),
+            new AssignmentSnapshot.AssignmentChange(3L,
+                new AssignmentSnapshot.LessonAssignment(3L, null, null), null),
+            new AssignmentSnapshot.AssignmentChange(4L, null,
+                new AssignmentSnapshot.LessonAssignment(4L, 2L, 1L)));
+        assertThat(to.diff(to)).isEmpty();
+    }
+
+    @Test
+    void shouldRejectUnknownFormat() {
+        assertThatThrownBy(() -> AssignmentSnapshot.decode(new byte[]{2, 0, 0, 0}))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private PlanningLesson lesson(Long id, PlanningTimeslot timeslot, PlanningRoom room) {
+        return new PlanningLesson(id, teacher, "Group " + id, 60, false, false, timeslot, room);
+    }
+}
@@ -1,14 +1,13 @@
 package com.timetable.backend.solver;
 
 import ai.timefold.solver.test.api.score.stream.ConstraintVerifier;
-import com.timetable.backend.domain.model.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.time.DayOfWeek;
-import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.BitSet;
 
 /**
  * Unit tests for DanceScheduleConstraintProvider.
@@ -23,7 +22,7 @@ class DanceScheduleConstraintProviderTest {
         constraintVerifier = ConstraintVerifier.build(
             new DanceScheduleConstraintProvider(),
             DanceSchedule.class,
-            Lesson.class
+            PlanningLesson.class
         );
     }
 
@@ -33,15 +32,15 @@ class DanceScheduleConstraintProviderTest {
     @DisplayName("Room conflict (weighted): Two group lessons exceed capacity")
     void penaltyForRoomConflict_twoGroupLessons() {
         // Given: Two group lessons (100 + 100 = 200, exceeds 100)
-        Room room = createRoom(1L, "Studio A", 20, false);
-        Timeslot timeslot = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
-        Teacher teacher1 = createTeacher(1L, "John Doe");
-        Teacher teacher2 = createTeacher(2L, "Jane Smith");
-        DanceGroup group1 = createDanceGroup(1L, "Beginners Salsa");
-        DanceGroup group2 = createDanceGroup(2L, "Intermediate Bachata");
+        PlanningRoom room = createRoom(1L, "Studio A", 20, false);
+        PlanningTimeslot timeslot = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
+        PlanningTeacher teacher1 = createTeacher(1L, "John Doe");
+        PlanningTeacher teacher2 = createTeacher(2L, "Jane Smith");
+        String group1 = "Beginners Salsa";
+        String group2 = "Intermediate Bachata";
 
-        Lesson lesson1 = createLesson(1L, teacher1, group1, timeslot, room, false, false);
-        Lesson lesson2 = createLesson(2L, teacher2, group2, timeslot, room, false, false);
+        PlanningLesson lesson1 = createLesson(1L, teacher1, group1, timeslot, room, false, false);
+        PlanningLesson lesson2 = createLesson(2L, teacher2, group2, timeslot, room, false, false);
 
         // When/Then: Should penalize with 100 HARD (200 - 100 = 100 excess)
         constraintVerifier.verifyThat(DanceScheduleConstraintProvider::roomConflict)
@@ -53,21 +52,21 @@ class DanceScheduleConstraintProviderTest {
     @DisplayName("Room conflict (weighted): Four private lessons within capacity")
     void noPenaltyForRoomConflict_fourPrivateLessons() {
         // Given: Four private lessons (25 * 4 = 100, exactly at capacity)
-        Room room = createRoom(1L, "Studio B", 15, true);
-        Timeslot timeslot = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
-        Teacher teacher1 = createTeacher(1L, "Teacher 1");
-        Teacher teacher2 = createTeacher(2L, "Teacher 2");
-        Teacher teacher3 = createTeacher(3L, "Teacher 3");
-        Teacher teacher4 = createTeacher(4L, "Teacher 4");
-        DanceGroup group1 = createDanceGroup(1L, "Private 1");
-        DanceGroup group2 = createDanceGroup(2L, "Private 2");
-        DanceGroup group3 = createDanceGroup(3L, "Private 3");
-        DanceGroup group4 = createDanceGroup(4L, "Private 4");
-
-        Lesson lesson1 = createLesson(1L, teacher1, group1, timeslot, room, true, false);
-        Lesson lesson2 = createLesson(2L, teacher2, group2, timeslot, room, true, false);
-        Lesson lesson3 = createLesson(3L, teacher3, group3, timeslot, room, true, false);
-        Lesson lesson4 = createLesson(4L, teacher4, group4, timeslot, room, true, false);
+        PlanningRoom room = createRoom(1L, "Studio B", 15, true);
+        PlanningTimeslot timeslot = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
+        PlanningTeacher teacher1 = createTeacher(1L, "Teacher 1");
+        PlanningTeacher teacher2 = createTeacher(2L, "Teacher 2");
+        PlanningTeacher teacher3 = createTeacher(3L, "Teacher 3");
+        PlanningTeacher teacher4 = createTeacher(4L, "Teacher 4");
+        String group1 = "Private 1";
+        String group2 = "Private 2";
+        String group3 = "Private 3";
+        String group4 = "Private 4";
+
+        PlanningLesson lesson1 = createLesson(1L, teacher1, group1, timeslot, room, true, false);
+        PlanningLesson lesson2 = createLesson(2L, teacher2, group2, timeslot, room, true, false);
+        PlanningLesson lesson3 = createLesson(3L, teacher3, group3, timeslot, room, true, false);
+        PlanningLesson lesson4 = createLesson(4L, teacher4, group4, timeslot, room, true, false);
 
         // When/Then: No penalty (exactly at 100% capacity)
         constraintVerifier.verifyThat(DanceScheduleConstraintProvider::roomConflict)
@@ -79,19 +78,19 @@ class DanceScheduleConstraintProviderTest {
     @DisplayName("Room conflict (weighted): Five private lessons exceed capacity")
     void penaltyForRoomConflict_fivePrivateLessons() {
         // Given: Five private lessons (25 * 5 = 125, exceeds 100)
-        Room room = createRoom(1L, "Studio B", 15, true);
-        Timeslot timeslot = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
-        Teacher teacher1 = createTeacher(1L, "Teacher 1");
-        Teacher teacher2 = createTeacher(2L, "Teacher 2");
-        Teacher teacher3 = createTeacher(3L, "Teacher 3");
-        Teacher teacher4 = createTeacher(4L, "Teacher 4");
-        Teacher teacher5 = createTeacher(5L, "Teacher 5");
-
-        Lesson lesson1 = createLesson(1L, teacher1, null, timeslot, room, true, false);
-        Lesson lesson2 = createLesson(2L, teacher2, null, timeslot, room, true, false);
-        Lesson lesson3 = createLesson(3L, teacher3, null, timeslot, room, true, false);
-        Lesson lesson4 = createLesson(4L, teacher4, null, timeslot, room, true, false);
-        Lesson lesson5 = createLesson(5L, teacher5, null, timeslot, room, true, false);
+        PlanningRoom room = createRoom(1L, "Studio B", 15, true);
+        PlanningTimeslot timeslot = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
+        PlanningTeacher teacher1 = createTeacher(1L, "Teacher 1");
+        PlanningTeacher teacher2 = createTeacher(2L, "Teacher 2");
+        PlanningTeacher teacher3 = createTeacher(3L, "Teacher 3");
+        PlanningTeacher teacher4 = createTeacher(4L, "Teacher 4");
+        PlanningTeacher teacher5 = createTeacher(5L, "Teacher 5");
+
+        PlanningLesson lesson1 = createLesson(1L, teacher1, null, timeslot, room, true, false);
+        PlanningLesson lesson2 = createLesson(2L, teacher2, null, timeslot, room, true, false);
+        PlanningLesson lesson3 = createLesson(3L, teacher3, null, timeslot, room, true, false);
+        PlanningLesson lesson4 = createLesson(4L, teacher4, null, timeslot, room, true, false);
+        PlanningLesson lesson5 = createLesson(5L, teacher5, null, timeslot, room, true, false);
 
         // When/Then: Should penalize with 25 HARD (125 - 100 = 25 excess)
         constraintVerifier.verifyThat(DanceScheduleConstraintProvider::roomConflict)
@@ -103,15 +102,15 @@ class DanceScheduleConstraintProviderTest {
     @DisplayName("Room conflict (weighted): Group + Private exceeds capacity")
     void penaltyForRoomConflict_groupPlusPrivate() {
         // Given: One group (100) + one private (25) = 125, exceeds 100
-        Room room = createRoom(1L, "Studio C", 15, true);
-        Timeslot timeslot = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
-        Teacher teacher1 = createTeacher(1L, "John Doe");
-        Teacher teacher2 = createTeacher(2L, "Jane Smith");
-        DanceGroup group1 = createDanceGroup(1L, "Private");
-        DanceGroup group2 = createDanceGroup(2L, "Group");
+        PlanningRoom room = createRoom(1L, "Studio C", 15, true);
+        PlanningTimeslot timeslot = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
+        PlanningTeacher teacher1 = createTeacher(1L, "John Doe");
+        PlanningTeacher teacher2 = createTeacher(2L, "Jane Smith");
+        String group1 = "Private";
+        String group2 = "Group";
 
-        Lesson lesson1 = createLesson(1L, teacher1, group1, timeslot, room, true, false);  // private = 25
-        Lesson lesson2 = createLesson(2L, teacher2, group2, timeslot, room, false, false); // group = 100
+        PlanningLesson lesson1 = createLesson(1L, teacher1, group1, timeslot, room, true, false);  // private = 25
+        PlanningLesson lesson2 = createLesson(2L, teacher2, group2, timeslot, room, false, false); // group = 100
 
         // When/Then: Should penalize with 25 HARD (125 - 100 = 25 excess)
         constraintVerifier.verifyThat(DanceScheduleConstraintProvider::roomConflict)
@@ -123,18 +122,18 @@ class DanceScheduleConstraintProviderTest {
     @DisplayName("Room conflict (weighted): Three private lessons within capacity")
     void noPenaltyForRoomConflict_threePrivateLessons() {
         // Given: Three private lessons (25 * 3 = 75, under 100)
-        Room room = createRoom(1L, "Studio B", 15, true);
-        Timeslot timeslot = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
-        Teacher teacher1 = createTeacher(1L, "Teacher 1");
-        Teacher teacher2 = createTeacher(2L, "Teacher 2");
-        Teacher teacher3 = createTeacher(3L, "Teacher 3");
-        DanceGroup group1 = createDanceGroup(1L, "Private 1");
-        DanceGroup group2 = createDanceGroup(2L, "Private 2");
-        DanceGroup group3 = createDanceGroup(3L, "Private 3");
-
-        Lesson lesson1 = createLesson(1L, teacher1, group1, timeslot, room, true, false);
-        Lesson lesson2 = createLesson(2L, teacher2, group2, timeslot, room, true, false);
-        Lesson lesson3 = createLesson(3L, teacher3, group3, timeslot, room, true, false);
+        PlanningRoom room = createRoom(1L, "Studio B", 15, true);
+        PlanningTimeslot timeslot = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
+        PlanningTeacher teacher1 = createTeacher(1L, "Teacher 1");
+        PlanningTeacher teacher2 = createTeacher(2L, "Teacher 2");
+        PlanningTeacher teacher3 = createTeacher(3L, "Teacher 3");
+        String group1 = "Private 1";
+        String group2 = "Private 2";
+        String group3 = "Private 3";
+
+        PlanningLesson lesson1 = createLesson(1L, teacher1, group1, timeslot, room, true, false);
+        PlanningLesson lesson2 = createLesson(2L, teacher2, group2, timeslot, room, true, false);
+        PlanningLesson lesson3 = createLesson(3L, teacher3, group3, timeslot, room, true, false);
 
         // When/Then: No penalty (75 < 100)
         constraintVerifier.verifyThat(DanceScheduleConstraintProvider::roomConflict)
@@ -142,21 +141,61 @@ class DanceScheduleConstraintProviderTest {
             .penalizesBy(0);
     }
 
+    @Test
+    @DisplayName("Room conflict (weighted): Long group lesson runs into the next timeslot")
+    void penaltyForRoomConflict_longLessonOverlapsNextTimeslot() {
+        // Given: A 90-minute group lesson at 09:00 and a group lesson at 10:00 in one room
+        PlanningRoom room = createRoom(1L, "Studio A", 20, false);
+        PlanningTimeslot timeslot1 = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
+        PlanningTimeslot timeslot2 = createTimeslot(2L, DayOfWeek.MONDAY, "10:00", "11:00");
+        PlanningTeacher teacher1 = createTeacher(1L, "John Doe");
+        PlanningTeacher teacher2 = createTeacher(2L, "Jane Smith");
+
+        PlanningLesson lesson1 = new PlanningLesson(1L, teacher1, "Group 1", 90, false, false, timeslot1, room);
+        PlanningLesson lesson2 = createLesson(2L, teacher2, "Group 2", timeslot2, room, false, false);
+
+        // When/Then: Both run 10:00-10:30, 200 - 100 = 100 excess
+        constraintVerifier.verifyThat(DanceScheduleConstraintProvider::roomConflict)
+            .given(lesson1, lesson2, room, timeslot1, timeslot2)
+            .penalizesBy(100);
+    }
+
+    @Test
+    @DisplayName("Room conflict (weighted): Private lessons only count while they run")
+    void penaltyForRoomConflict_privateLessonsOverlapPartly() {
+        // Given: Two 90-minute private lessons at 09:00 and three private lessons at 10:00
+        PlanningRoom room = createRoom(1L, "Studio B", 15, true);
+        PlanningTimeslot timeslot1 = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
+        PlanningTimeslot timeslot2 = createTimeslot(2L, DayOfWeek.MONDAY, "10:00", "11:00");
+        PlanningTeacher teacher = createTeacher(1L, "John Doe");
+
+        PlanningLesson lesson1 = new PlanningLesson(1L, teacher, null, 90, true, false, timeslot1, room);
+        PlanningLesson lesson2 = new PlanningLesson(2L, teacher, null, 90, true, false, timeslot1, room);
+        PlanningLesson lesson3 = createLesson(3L, teacher, null, timeslot2, room, true, false);
+        PlanningLesson lesson4 = createLesson(4L, teacher, null, timeslot2, room, true, false);
+        PlanningLesson lesson5 = createLesson(5L, teacher, null, timeslot2, room, true, false);
+
+        // When/Then: Five run 10:00-10:30 (125), three afterwards (75): 25 excess
+        constraintVerifier.verifyThat(DanceScheduleConstraintProvider::roomConflict)
+            .given(lesson1, lesson2, lesson3, lesson4, lesson5, room, timeslot1, timeslot2)
+            .penalizesBy(25);
+    }
+
     // ==================== HARD CONSTRAINT 2: Teacher Conflict ====================
 
     @Test
     @DisplayName("Teacher conflict: Teacher cannot teach two lessons simultaneously")
     void penaltyForTeacherConflict() {
         // Given: Same teacher, same timeslot, different rooms
-        Teacher teacher = createTeacher(1L, "John Doe");
-        Room room1 = createRoom(1L, "Studio A", 20, false);
-        Room room2 = createRoom(2L, "Studio B", 15, false);
-        Timeslot timeslot = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
-        DanceGroup group1 = createDanceGroup(1L, "Group 1");
-        DanceGroup group2 = createDanceGroup(2L, "Group 2");
+        PlanningTeacher teacher = createTeacher(1L, "John Doe");
+        PlanningRoom room1 = createRoom(1L, "Studio A", 20, false);
+        PlanningRoom room2 = createRoom(2L, "Studio B", 15, false);
+        PlanningTimeslot timeslot = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
+        String group1 = "Group 1";
+        String group2 = "Group 2";
 
-        Lesson lesson1 = createLesson(1L, teacher, group1, timeslot, room1, false, false);
-        Lesson lesson2 = createLesson(2L, teacher, group2, timeslot, room2, false, false);
+        PlanningLesson lesson1 = createLesson(1L, teacher, group1, timeslot, room1, false, false);
+        PlanningLesson lesson2 = createLesson(2L, teacher, group2, timeslot, room2, false, false);
 
         // When/Then: Should penalize with 1 HARD
         constraintVerifier.verifyThat(DanceScheduleConstraintProvider::teacherConflict)
@@ -168,16 +207,16 @@ class DanceScheduleConstraintProviderTest {
     @DisplayName("Teacher conflict: No penalty for different timeslots")
     void noPenaltyForTeacherConflict_differentTimeslots() {
         // Given: Same teacher, different timeslots
-        Teacher teacher = createTeacher(1L, "John Doe");
-        Room room1 = createRoom(1L, "Studio A", 20, false);
-        Room room2 = createRoom(2L, "Studio B", 15, false);
-        Timeslot timeslot1 = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
-        Timeslot timeslot2 = createTimeslot(2L, DayOfWeek.MONDAY, "10:00", "11:00");
-        DanceGroup group1 = createDanceGroup(1L, "Group 1");
-        DanceGroup group2 = createDanceGroup(2L, "Group 2");
+        PlanningTeacher teacher = createTeacher(1L, "John Doe");
+        PlanningRoom room1 = createRoom(1L, "Studio A", 20, false);
+        PlanningRoom room2 = createRoom(2L, "Studio B", 15, false);
+        PlanningTimeslot timeslot1 = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
+        PlanningTimeslot timeslot2 = createTimeslot(2L, DayOfWeek.MONDAY, "10:00", "11:00");
+        String group1 = "Group 1";
+        String group2 = "Group 2";
 
-        Lesson lesson1 = createLesson(1L, teacher, group1, timeslot1, room1, false, false);
-        Lesson lesson2 = createLesson(2L, teacher, group2, timeslot2, room2, false, false);
+        PlanningLesson lesson1 = createLesson(1L, teacher, group1, timeslot1, room1, false, false);
+        PlanningLesson lesson2 = createLesson(2L, teacher, group2, timeslot2, room2, false, false);
 
         // When/Then: No conflict (different times)
         constraintVerifier.verifyThat(DanceScheduleConstraintProvider::teacherConflict)
@@ -189,15 +228,15 @@ class DanceScheduleConstraintProviderTest {
     @DisplayName("Teacher conflict: No penalty for different teachers")
     void noPenaltyForTeacherConflict_differentTeachers() {
         // Given: Different teachers, same timeslot
-        Teacher teacher1 = createTeacher(1L, "John Doe");
-        Teacher teacher2 = createTeacher(2L, "Jane Smith");
-        Room room = createRoom(1L, "Studio A", 20, false);
-        Timeslot timeslot = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
-        DanceGroup group1 = createDanceGroup(1L, "Group 1");
-        DanceGroup group2 = createDanceGroup(2L, "Group 2");
+        PlanningTeacher teacher1 = createTeacher(1L, "John Doe");
+        PlanningTeacher teacher2 = createTeacher(2L, "Jane Smith");
+        PlanningRoom room = createRoom(1L, "Studio A", 20, false);
+        PlanningTimeslot timeslot = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
+        String group1 = "Group 1";
+        String group2 = "Group 2";
 
-        Lesson lesson1 = createLesson(1L, teacher1, group1, timeslot, room, false, false);
-        Lesson lesson2 = createLesson(2L, teacher2, group2, timeslot, room, false, false);
+        PlanningLesson lesson1 = createLesson(1L, teacher1, group1, timeslot, room, false, false);
+        PlanningLesson lesson2 = createLesson(2L, teacher2, group2, timeslot, room, false, false);
 
         // When/Then: No teacher conflict (different teachers)
         constraintVerifier.verifyThat(DanceScheduleConstraintProvider::teacherConflict)
@@ -205,23 +244,79 @@ class DanceScheduleConstraintProviderTest {
             .penalizesBy(0);
     }
 
+    @Test
+    @DisplayName("Teacher conflict: Long lesson overlaps the next timeslot")
+    void penaltyForTeacherConflict_longLessonOverlapsNextTimeslot() {
+        // Given: Same teacher, a 90-minute lesson at 09:00 and a lesson at 10:00
+        PlanningTeacher teacher = createTeacher(1L, "John Doe");
+        PlanningRoom room1 = createRoom(1L, "Studio A", 20, false);
+        PlanningRoom room2 = createRoom(2L, "Studio B", 15, false);
+        PlanningTimeslot timeslot1 = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
+        PlanningTimeslot timeslot2 = createTimeslot(2L, DayOfWeek.MONDAY, "10:00", "11:00");
+
+        PlanningLesson lesson1 = new PlanningLesson(1L, teacher, "Group 1", 90, false, false, timeslot1, room1);
+        PlanningLesson lesson2 = createLesson(2L, teacher, "Group 2", timeslot2, room2, false, false);
+
+        // When/Then: Should penalize with 1 HARD (10:00-10:30 overlap)
+        constraintVerifier.verifyThat(DanceScheduleConstraintProvider::teacherConflict)
+            .given(lesson1, lesson2, teacher, timeslot1, timeslot2, room1, room2)
+            .penalizesBy(1);
+    }
+
+    @Test
+    @DisplayName("Room conflict (weighted): Lessons in overlapping timeslots")
+    void penaltyForRoomConflict_overlappingTimeslots() {
+        // Given: Group lessons in one room at 09:00-10:00 and 09:30-10:30
+        PlanningRoom room = createRoom(1L, "Studio A", 20, false);
+        PlanningTimeslot timeslot1 = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
+        PlanningTimeslot timeslot2 = createTimeslot(2L, DayOfWeek.MONDAY, "09:30", "10:30");
+        PlanningTeacher teacher1 = createTeacher(1L, "John Doe");
+        PlanningTeacher teacher2 = createTeacher(2L, "Jane Smith");
+
+        PlanningLesson lesson1 = createLesson(1L, teacher1, "Group 1", timeslot1, room, false, false);
+        PlanningLesson lesson2 = createLesson(2L, teacher2, "Group 2", timeslot2, room, false, false);
+
+        // When/Then: Both run 09:30-10:00, 200 - 100 = 100 excess
+        constraintVerifier.verifyThat(DanceScheduleConstraintProvider::roomConflict)
+            .given(lesson1, lesson2, room, timeslot1, timeslot2)
+            .penalizesBy(100);
+    }
+
+    @Test
+    @DisplayName("Teacher conflict: Lessons in overlapping timeslots")
+    void penaltyForTeacherConflict_overlappingTimeslots() {
+        // Given: Same teacher at 09:00-10:00 and 09:30-10:30
+        PlanningTeacher teacher = createTeacher(1L, "John Doe");
+        PlanningRoom room1 = createRoom(1L, "Studio A", 20, false);
+        PlanningRoom room2 = createRoom(2L, "Studio B", 15, false);
+        PlanningTimeslot timeslot1 = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
+        PlanningTimeslot timeslot2 = createTimeslot(2L, DayOfWeek.MONDAY, "09:30", "10:30");
+
+        PlanningLesson lesson1 = createLesson(1L, teacher, "Group 1", timeslot1, room1, false, false);
+        PlanningLesson lesson2 = createLesson(2L, teacher, "Group 2", timeslot2, room2, false, false);
+
+        // When/Then: Should penalize with 1 HARD, like the room conflict above
+        constraintVerifier.verifyThat(DanceScheduleConstraintProvider::teacherConflict)
+            .given(lesson1, lesson2, teacher, timeslot1, timeslot2, room1, room2)
+            .penalizesBy(1);
+    }
+
     // ==================== HARD CONSTRAINT 3: Teacher Availability ====================
 
     @Test
     @DisplayName("Teacher availability: Penalty when lesson scheduled during unavailable time")
     void penaltyForTeacherUnavailability() {
         // Given: Teacher unavailable on Monday 9:00-10:00
-        Teacher teacher = createTeacher(1L, "John Doe");
-        Timeslot timeslot = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
-        Room room = createRoom(1L, "Studio A", 20, false);
-        DanceGroup group = createDanceGroup(1L, "Group 1");
+        PlanningTimeslot timeslot = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
+        PlanningTeacher teacher = createUnavailableTeacher(1L, "John Doe", timeslot);
+        PlanningRoom room = createRoom(1L, "Studio A", 20, false);
+        String group = "Group 1";
 
-        Lesson lesson = createLesson(1L, teacher, group, timeslot, room, false, false);
-        ResourceUnavailability unavailability = createUnavailability(1L, teacher, timeslot, "Vacation");
+        PlanningLesson lesson = createLesson(1L, teacher, group, timeslot, room, false, false);
 
         // When/Then: Should penalize with 1 HARD
         constraintVerifier.verifyThat(DanceScheduleConstraintProvider::teacherAvailability)
-            .given(lesson, unavailability, teacher, timeslot, room)
+            .given(lesson, teacher, timeslot, room)
             .penalizesBy(1);
     }
 
@@ -229,12 +324,12 @@ class DanceScheduleConstraintProviderTest {
     @DisplayName("Teacher availability: No penalty when teacher is available")
     void noPenaltyForTeacherAvailability_teacherAvailable() {
         // Given: Teacher available (no unavailability record)
-        Teacher teacher = createTeacher(1L, "John Doe");
-        Timeslot timeslot = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
-        Room room = createRoom(1L, "Studio A", 20, false);
-        DanceGroup group = createDanceGroup(1L, "Group 1");
+        PlanningTeacher teacher = createTeacher(1L, "John Doe");
+        PlanningTimeslot timeslot = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
+        PlanningRoom room = createRoom(1L, "Studio A", 20, false);
+        String group = "Group 1";
 
-        Lesson lesson = createLesson(1L, teacher, group, timeslot, room, false, false);
+        PlanningLesson lesson = createLesson(1L, teacher, group, timeslot, room, false, false);
 
         // When/Then: No penalty (teacher is available)
         constraintVerifier.verifyThat(DanceScheduleConstraintProvider::teacherAvailability)
@@ -246,18 +341,58 @@ class DanceScheduleConstraintProviderTest {
     @DisplayName("Teacher availability: No penalty for different timeslot")
     void noPenaltyForTeacherAvailability_differentTimeslot() {
         // Given: Teacher unavailable at 9:00, but lesson is at 10:00
-        Teacher teacher = createTeacher(1L, "John Doe");
-        Timeslot unavailableSlot = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
-        Timeslot lessonSlot = createTimeslot(2L, DayOfWeek.MONDAY, "10:00", "11:00");
-        Room room = createRoom(1L, "Studio A", 20, false);
-        DanceGroup group = createDanceGroup(1L, "Group 1");
+        PlanningTimeslot unavailableSlot = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
+        PlanningTimeslot lessonSlot = createTimeslot(2L, DayOfWeek.MONDAY, "10:00", "11:00");
+        PlanningTeacher teacher = createUnavailableTeacher(1L, "John Doe", unavailableSlot);
+        PlanningRoom room = createRoom(1L, "Studio A", 20, false);
+        String group = "Group 1";
 
-        Lesson lesson = createLesson(1L, teacher, group, lessonSlot, room, false, false);
-        ResourceUnavailability unavailability = createUnavailability(1L, teacher, unavailableSlot, "Meeting");
+        PlanningLesson lesson = createLesson(1L, teacher, group, lessonSlot, room, false, false);
 
         // When/Then: No penalty (different timeslot)
         constraintVerifier.verifyThat(DanceScheduleConstraintProvider::teacherAvailability)
-            .given(lesson, unavailability, teacher, unavailableSlot, lessonSlot, room)
+            .given(lesson, teacher, unavailableSlot, lessonSlot, room)
+            .penalizesBy(0);
+    }
+
+    // ==================== HARD CONSTRAINT 4: Teacher Max Daily Hours ====================
+
+    @Test
+    @DisplayName("Max daily hours: Penalty for minutes over the teacher's daily maximum")
+    void penaltyForTeacherMaxDailyHours() {
+        // Given: A 2-hour teacher with 60 + 90 minutes on Monday
+        PlanningTeacher teacher = new PlanningTeacher(0, 1L, "John Doe", 2);
+        PlanningRoom room = createRoom(1L, "Studio A", 20, false);
+        PlanningTimeslot timeslot1 = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
+        PlanningTimeslot timeslot2 = createTimeslot(2L, DayOfWeek.MONDAY, "12:00", "13:00");
+
+        PlanningLesson lesson1 = createLesson(1L, teacher, "Group 1", timeslot1, room, false, false);
+        PlanningLesson lesson2 = new PlanningLesson(2L, teacher, "Group 2", 90, false, false, timeslot2, room);
+
+        // When/Then: 150 - 120 = 30 minutes over
+        constraintVerifier.verifyThat(DanceScheduleConstraintProvider::teacherMaxDailyHours)
+            .given(lesson1, lesson2, teacher, timeslot1, timeslot2, room)
+            .penalizesBy(30);
+    }
+
+    @Test
+    @DisplayName("Max daily hours: Days and teachers are summed separately")
+    void noPenaltyForTeacherMaxDailyHours_otherDayOrTeacher() {
+        // Given: Two 1-hour teachers, each with one lesson on Monday; one also on Tuesday
+        PlanningTeacher teacher1 = new PlanningTeacher(0, 1L, "John Doe", 1);
+        PlanningTeacher teacher2 = new PlanningTeacher(1, 2L, "Jane Smith", 1);
+        PlanningRoom room = createRoom(1L, "Studio A", 20, false);
+        PlanningTimeslot monday = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
+        PlanningTimeslot tuesday = createTimeslot(2L, DayOfWeek.TUESDAY, "09:00", "10:00");
+
+        PlanningLesson lesson1 = createLesson(1L, teacher1, "Group 1", monday, room, false, false);
+        PlanningLesson lesson2 = createLesson(2L, teacher1, "Group 2", tuesday, room, false, false);
+        PlanningLesson lesson3 = createLesson(3L, teacher2, "Group 3", monday, room, false, false);
+        PlanningLesson unassigned = createLesson(4L, teacher1, "Group 4", null, null, false, false);
+
+        // When/Then: 60 minutes per teacher and day, no penalty
+        constraintVerifier.verifyThat(DanceScheduleConstraintProvider::teacherMaxDailyHours)
+            .given(lesson1, lesson2, lesson3, unassigned, teacher1, teacher2, monday, tuesday, room)
             .penalizesBy(0);
     }
 
@@ -267,16 +402,16 @@ class DanceScheduleConstraintProviderTest {
     @DisplayName("Minimize gaps: Penalty proportional to gap duration")
     void penaltyForTeacherGaps_proportionalToGapDuration() {
         // Given: Teacher has lessons at 9:00-10:00 and 12:00-13:00 (2 hours = 120 min gap)
-        Teacher teacher = createTeacher(1L, "John Doe");
-        Room room1 = createRoom(1L, "Studio A", 20, false);
-        Room room2 = createRoom(2L, "Studio B", 15, false);
-        Timeslot timeslot1 = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
-        Timeslot timeslot2 = createTimeslot(2L, DayOfWeek.MONDAY, "12:00", "13:00");
-        DanceGroup group1 = createDanceGroup(1L, "Group 1");
-        DanceGroup group2 = createDanceGroup(2L, "Group 2");
+        PlanningTeacher teacher = createTeacher(1L, "John Doe");
+        PlanningRoom room1 = createRoom(1L, "Studio A", 20, false);
+        PlanningRoom room2 = createRoom(2L, "Studio B", 15, false);
+        PlanningTimeslot timeslot1 = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
+        PlanningTimeslot timeslot2 = createTimeslot(2L, DayOfWeek.MONDAY, "12:00", "13:00");
+        String group1 = "Group 1";
+        String group2 = "Group 2";
 
-        Lesson lesson1 = createLesson(1L, teacher, group1, timeslot1, room1, false, false);
-        Lesson lesson2 = createLesson(2L, teacher, group2, timeslot2, room2, false, false);
+        PlanningLesson lesson1 = createLesson(1L, teacher, group1, timeslot1, room1, false, false);
+        PlanningLesson lesson2 = createLesson(2L, teacher, group2, timeslot2, room2, false, false);
 
         // When/Then: Should penalize with 120 SOFT (120 minutes gap)
         constraintVerifier.verifyThat(DanceScheduleConstraintProvider::minimizeTeacherGaps)
@@ -284,20 +419,99 @@ class DanceScheduleConstraintProviderTest {
             .penalizesBy(120);
     }
 
+    @Test
+    @DisplayName("Minimize gaps: Only gaps between adjacent lessons count")
+    void penaltyForTeacherGaps_adjacentLessonsOnly() {
+        // Given: Lessons at 9:00-10:00, 12:00-13:00 and 15:00-16:00, listed out of order
+        PlanningTeacher teacher = createTeacher(1L, "John Doe");
+        PlanningRoom room = createRoom(1L, "Studio A", 20, false);
+        PlanningTimeslot timeslot1 = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
+        PlanningTimeslot timeslot2 = createTimeslot(2L, DayOfWeek.MONDAY, "12:00", "13:00");
+        PlanningTimeslot timeslot3 = createTimeslot(3L, DayOfWeek.MONDAY, "15:00", "16:00");
+
+        PlanningLesson lesson1 = createLesson(1L, teacher, "Group 1", timeslot3, room, false, false);
+        PlanningLesson lesson2 = createLesson(2L, teacher, "Group 2", timeslot1, room, false, false);
+        PlanningLesson lesson3 = createLesson(3L, teacher, "Group 3", timeslot2, room, false, false);
+
+        // When/Then: 120 + 120 minutes; the 09:00-16:00 span is not counted again
+        constraintVerifier.verifyThat(DanceScheduleConstraintProvider::minimizeTeacherGaps)
+            .given(lesson1, lesson2, lesson3, teacher, timeslot1, timeslot2, timeslot3, room)
+            .penalizesBy(240);
+    }
+
+    @Test
+    @DisplayName("Minimize gaps: Gap counts from the end of a long lesson")
+    void penaltyForTeacherGaps_fromEndOfLongLesson() {
+        // Given: A 90-minute lesson at 9:00 and a lesson at 12:00
+        PlanningTeacher teacher = createTeacher(1L, "John Doe");
+        PlanningRoom room = createRoom(1L, "Studio A", 20, false);
+        PlanningTimeslot timeslot1 = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
+        PlanningTimeslot timeslot2 = createTimeslot(2L, DayOfWeek.MONDAY, "12:00", "13:00");
+
+        PlanningLesson lesson1 = new PlanningLesson(1L, teacher, "Group 1", 90, false, false, timeslot1, room);
+        PlanningLesson lesson2 = createLesson(2L, teacher, "Group 2", timeslot2, room, false, false);
+
+        // When/Then: 10:30 to 12:00 = 90 minutes
+        constraintVerifier.verifyThat(DanceScheduleConstraintProvider::minimizeTeacherGaps)
+            .given(lesson1, lesson2, teacher, timeslot1, timeslot2, room)
+            .penalizesBy(90);
+    }
+
+    @Test
+    @DisplayName("Minimize gaps: Overlapping lessons are no gap and no reward")
+    void noPenaltyForTeacherGaps_overlappingLessons() {
+        // Given: A 90-minute lesson at 9:00 overlapping a lesson at 10:00, then a lesson at 12:00
+        PlanningTeacher teacher = createTeacher(1L, "John Doe");
+        PlanningRoom room1 = createRoom(1L, "Studio A", 20, false);
+        PlanningRoom room2 = createRoom(2L, "Studio B", 20, false);
+        PlanningTimeslot timeslot1 = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
+        PlanningTimeslot timeslot2 = createTimeslot(2L, DayOfWeek.MONDAY, "10:00", "11:00");
+        PlanningTimeslot timeslot3 = createTimeslot(3L, DayOfWeek.MONDAY, "12:00", "13:00");
+
+        PlanningLesson lesson1 = new PlanningLesson(1L, teacher, "Group 1", 90, false, false, timeslot1, room1);
+        PlanningLesson lesson2 = createLesson(2L, teacher, "Group 2", timeslot2, room2, false, false);
+        PlanningLesson lesson3 = createLesson(3L, teacher, "Group 3", timeslot3, room1, false, false);
+
+        // When/Then: Only 11:00 to 12:00 counts; the -30 minute overlap does not offset it
+        constraintVerifier.verifyThat(DanceScheduleConstraintProvider::minimizeTeacherGaps)
+            .given(lesson1, lesson2, lesson3, teacher, timeslot1, timeslot2, timeslot3, room1, room2)
+            .penalizesBy(60);
+    }
+
+    @Test
+    @DisplayName("Minimize gaps: Lessons starting together count as one block")
+    void penaltyForTeacherGaps_sameStart() {
+        // Given: Two lessons at 9:00-10:00 (a teacher conflict) and one at 11:00-12:00
+        PlanningTeacher teacher = createTeacher(1L, "John Doe");
+        PlanningRoom room1 = createRoom(1L, "Studio A", 20, false);
+        PlanningRoom room2 = createRoom(2L, "Studio B", 15, false);
+        PlanningTimeslot timeslot1 = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
+        PlanningTimeslot timeslot2 = createTimeslot(2L, DayOfWeek.MONDAY, "11:00", "12:00");
+
+        PlanningLesson lesson1 = createLesson(1L, teacher, "Group 1", timeslot1, room1, false, false);
+        PlanningLesson lesson2 = createLesson(2L, teacher, "Group 2", timeslot1, room2, false, false);
+        PlanningLesson lesson3 = createLesson(3L, teacher, "Group 3", timeslot2, room1, false, false);
+
+        // When/Then: One 60-minute gap
+        constraintVerifier.verifyThat(DanceScheduleConstraintProvider::minimizeTeacherGaps)
+            .given(lesson1, lesson2, lesson3, teacher, timeslot1, timeslot2, room1, room2)
+            .penalizesBy(60);
+    }
+
     @Test
     @DisplayName("Minimize gaps: No penalty for consecutive lessons")
     void noPenaltyForTeacherGaps_consecutiveLessons() {
         // Given: Teacher has consecutive lessons (9:00-10:00, 10:00-11:00)
-        Teacher teacher = createTeacher(1L, "John Doe");
-        Room room1 = createRoom(1L, "Studio A", 20, false);
-        Room room2 = createRoom(2L, "Studio B", 15, false);
-        Timeslot timeslot1 = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
-        Timeslot timeslot2 = createTimeslot(2L, DayOfWeek.MONDAY, "10:00", "11:00");
-        DanceGroup group1 = createDanceGroup(1L, "Group 1");
-        DanceGroup group2 = createDanceGroup(2L, "Group 2");
+        PlanningTeacher teacher = createTeacher(1L, "John Doe");
+        PlanningRoom room1 = createRoom(1L, "Studio A", 20, false);
+        PlanningRoom room2 = createRoom(2L, "Studio B", 15, false);
+        PlanningTimeslot timeslot1 = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
+        PlanningTimeslot timeslot2 = createTimeslot(2L, DayOfWeek.MONDAY, "10:00", "11:00");
+        String group1 = "Group 1";
+        String group2 = "Group 2";
 
-        Lesson lesson1 = createLesson(1L, teacher, group1, timeslot1, room1, false, false);
-        Lesson lesson2 = createLesson(2L, teacher, group2, timeslot2, room2, false, false);
+        PlanningLesson lesson1 = createLesson(1L, teacher, group1, timeslot1, room1, false, false);
+        PlanningLesson lesson2 = createLesson(2L, teacher, group2, timeslot2, room2, false, false);
 
         // When/Then: No penalty (no gap)
         constraintVerifier.verifyThat(DanceScheduleConstraintProvider::minimizeTeacherGaps)
@@ -309,16 +523,16 @@ class DanceScheduleConstraintProviderTest {
     @DisplayName("Minimize gaps: No penalty for different days")
     void noPenaltyForTeacherGaps_differentDays() {
         // Given: Teacher has lessons on different days
-        Teacher teacher = createTeacher(1L, "John Doe");
-        Room room1 = createRoom(1L, "Studio A", 20, false);
-        Room room2 = createRoom(2L, "Studio B", 15, false);
-        Timeslot timeslot1 = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
-        Timeslot timeslot2 = createTimeslot(2L, DayOfWeek.TUESDAY, "09:00", "10:00");
-        DanceGroup group1 = createDanceGroup(1L, "Group 1");
-        DanceGroup group2 = createDanceGroup(2L, "Group 2");
+        PlanningTeacher teacher = createTeacher(1L, "John Doe");
+        PlanningRoom room1 = createRoom(1L, "Studio A", 20, false);
+        PlanningRoom room2 = createRoom(2L, "Studio B", 15, false);
+        PlanningTimeslot timeslot1 = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
+        PlanningTimeslot timeslot2 = createTimeslot(2L, DayOfWeek.TUESDAY, "09:00", "10:00");
+        String group1 = "Group 1";
+        String group2 = "Group 2";
 
-        Lesson lesson1 = createLesson(1L, teacher, group1, timeslot1, room1, false, false);
-        Lesson lesson2 = createLesson(2L, teacher, group2, timeslot2, room2, false, false);
+        PlanningLesson lesson1 = createLesson(1L, teacher, group1, timeslot1, room1, false, false);
+        PlanningLesson lesson2 = createLesson(2L, teacher, group2, timeslot2, room2, false, false);
 
         // When/Then: No penalty (different days)
         constraintVerifier.verifyThat(DanceScheduleConstraintProvider::minimizeTeacherGaps)
@@ -330,16 +544,16 @@ class DanceScheduleConstraintProviderTest {
     @DisplayName("Minimize gaps: No penalty for different teachers")
     void noPenaltyForTeacherGaps_differentTeachers() {
         // Given: Different teachers on same day
-        Teacher teacher1 = createTeacher(1L, "John Doe");
-        Teacher teacher2 = createTeacher(2L, "Jane Smith");
-        Room room = createRoom(1L, "Studio A", 20, false);
-        Timeslot timeslot1 = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
-        Timeslot timeslot2 = createTimeslot(2L, DayOfWeek.MONDAY, "12:00", "13:00");
-        DanceGroup group1 = createDanceGroup(1L, "Group 1");
-        DanceGroup group2 = createDanceGroup(2L, "Group 2");
+        PlanningTeacher teacher1 = createTeacher(1L, "John Doe");
+        PlanningTeacher teacher2 = createTeacher(2L, "Jane Smith");
+        PlanningRoom room = createRoom(1L, "Studio A", 20, false);
+        PlanningTimeslot timeslot1 = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
+        PlanningTimeslot timeslot2 = createTimeslot(2L, DayOfWeek.MONDAY, "12:00", "13:00");
+        String group1 = "Group 1";
+        String group2 = "Group 2";
 
-        Lesson lesson1 = createLesson(1L, teacher1, group1, timeslot1, room, false, false);
-        Lesson lesson2 = createLesson(2L, teacher2, group2, timeslot2, room, false, false);
+        PlanningLesson lesson1 = createLesson(1L, teacher1, group1, timeslot1, room, false, false);
+        PlanningLesson lesson2 = createLesson(2L, teacher2, group2, timeslot2, room, false, false);
 
         // When/Then: No penalty (different teachers)
         constraintVerifier.verifyThat(DanceScheduleConstraintProvider::minimizeTeacherGaps)
@@ -353,16 +567,16 @@ class DanceScheduleConstraintProviderTest {
     @DisplayName("Prime-Time: Reward for lesson during prime hours")
     void rewardForPrimeTime_lessonAt18() {
         // Given: Lesson at 18:00 (within 16:00-21:00 prime time)
-        Teacher teacher = createTeacher(1L, "John Doe");
-        Room room = createRoom(1L, "Studio A", 20, false);
-        Timeslot timeslot = createTimeslot(1L, DayOfWeek.MONDAY, "18:00", "19:00");
-        DanceGroup group = createDanceGroup(1L, "Group 1");
+        PlanningTeacher teacher = createTeacher(1L, "John Doe");
+        PlanningRoom room = createRoom(1L, "Studio A", 20, false);
+        PlanningTimeslot timeslot = createTimeslot(1L, DayOfWeek.MONDAY, "18:00", "19:00");
+        String group = "Group 1";
 
-        Lesson lesson = createLesson(1L, teacher, group, timeslot, room, false, false);
+        PlanningLesson lesson = createLesson(1L, teacher, group, timeslot, room, false, false);
 
         // When/Then: Should reward with 1 SOFT
         constraintVerifier.verifyThat(DanceScheduleConstraintProvider::rewardPrimeTime)
-            .given(lesson, teacher, room, timeslot, group)
+            .given(lesson, teacher, room, timeslot)
             .rewardsWith(1);
     }
 
@@ -370,16 +584,16 @@ class DanceScheduleConstraintProviderTest {
     @DisplayName("Prime-Time: Reward for lesson at 16:00")
     void rewardForPrimeTime_lessonAt16() {
         // Given: Lesson at 16:00 (start of prime time)
-        Teacher teacher = createTeacher(1L, "John Doe");
-        Room room = createRoom(1L, "Studio A", 20, false);
-        Timeslot timeslot = createTimeslot(1L, DayOfWeek.MONDAY, "16:00", "17:00");
-        DanceGroup group = createDanceGroup(1L, "Group 1");
+        PlanningTeacher teacher = createTeacher(1L, "John Doe");
+        PlanningRoom room = createRoom(1L, "Studio A", 20, false);
+        PlanningTimeslot timeslot = createTimeslot(1L, DayOfWeek.MONDAY, "16:00", "17:00");
+        String group = "Group 1";
 
-        Lesson lesson = createLesson(1L, teacher, group, timeslot, room, false, false);
+        PlanningLesson lesson = createLesson(1L, teacher, group, timeslot, room, false, false);
 
         // When/Then: Should reward with 1 SOFT
         constraintVerifier.verifyThat(DanceScheduleConstraintProvider::rewardPrimeTime)
-            .given(lesson, teacher, room, timeslot, group)
+            .given(lesson, teacher, room, timeslot)
             .rewardsWith(1);
     }
 
@@ -387,16 +601,16 @@ class DanceScheduleConstraintProviderTest {
     @DisplayName("Prime-Time: No reward for lesson before prime time")
     void noRewardForPrimeTime_lessonAt15() {
         // Given: Lesson at 15:00 (before prime time)
-        Teacher teacher = createTeacher(1L, "John Doe");
-        Room room = createRoom(1L, "Studio A", 20, false);
-        Timeslot timeslot = createTimeslot(1L, DayOfWeek.MONDAY, "15:00", "16:00");
-        DanceGroup group = createDanceGroup(1L, "Group 1");
+        PlanningTeacher teacher = createTeacher(1L, "John Doe");
+        PlanningRoom room = createRoom(1L, "Studio A", 20, false);
+        PlanningTimeslot timeslot = createTimeslot(1L, DayOfWeek.MONDAY, "15:00", "16:00");
+        String group = "Group 1";
 
-        Lesson lesson = createLesson(1L, teacher, group, timeslot, room, false, false);
+        PlanningLesson lesson = createLesson(1L, teacher, group, timeslot, room, false, false);
 
         // When/Then: No reward
         constraintVerifier.verifyThat(DanceScheduleConstraintProvider::rewardPrimeTime)
-            .given(lesson, teacher, room, timeslot, group)
+            .given(lesson, teacher, room, timeslot)
             .rewardsWith(0);
     }
 
@@ -404,126 +618,133 @@ class DanceScheduleConstraintProviderTest {
     @DisplayName("Prime-Time: No reward for lesson after prime time")
     void noRewardForPrimeTime_lessonAt21() {
         // Given: Lesson at 21:00 (after prime time)
-        Teacher teacher = createTeacher(1L, "John Doe");
-        Room room = createRoom(1L, "Studio A", 20, false);
-        Timeslot timeslot = createTimeslot(1L, DayOfWeek.MONDAY, "21:00", "22:00");
-        DanceGroup group = createDanceGroup(1L, "Group 1");
+        PlanningTeacher teacher = createTeacher(1L, "John Doe");
+        PlanningRoom room = createRoom(1L, "Studio A", 20, false);
+        PlanningTimeslot timeslot = createTimeslot(1L, DayOfWeek.MONDAY, "21:00", "22:00");
+        String group = "Group 1";
 
-        Lesson lesson = createLesson(1L, teacher, group, timeslot, room, false, false);
+        PlanningLesson lesson = createLesson(1L, teacher, group, timeslot, room, false, false);
 
         // When/Then: No reward
         constraintVerifier.verifyThat(DanceScheduleConstraintProvider::rewardPrimeTime)
-            .given(lesson, teacher, room, timeslot, group)
+            .given(lesson, teacher, room, timeslot)
             .rewardsWith(0);
     }
 
     // ==================== SOFT CONSTRAINT: Load Balancing ====================
 
     @Test
-    @DisplayName("Load Balancing: Penalty for teacher with many lessons")
-    void penaltyForLoadBalance_manyLessons() {
-        // Given: One teacher with 3 lessons (penalty = 9 for one teacher: 3*3)
-        Teacher teacher = createTeacher(1L, "John Doe");
-        Room room = createRoom(1L, "Studio A", 20, false);
-        Timeslot timeslot1 = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
-        Timeslot timeslot2 = createTimeslot(2L, DayOfWeek.MONDAY, "10:00", "11:00");
-        Timeslot timeslot3 = createTimeslot(3L, DayOfWeek.MONDAY, "11:00", "12:00");
-        DanceGroup group1 = createDanceGroup(1L, "Group 1");
-        DanceGroup group2 = createDanceGroup(2L, "Group 2");
-        DanceGroup group3 = createDanceGroup(3L, "Group 3");
-
-        Lesson lesson1 = createLesson(1L, teacher, group1, timeslot1, room, false, false);
-        Lesson lesson2 = createLesson(2L, teacher, group2, timeslot2, room, false, false);
-        Lesson lesson3 = createLesson(3L, teacher, group3, timeslot3, room, false, false);
-
-        // When/Then: Should penalize with 9 SOFT (3 * 3 = 9)
+    @DisplayName("Load Balancing: Penalty shrinks as a teacher's lessons spread over the days")
+    void penaltyForLoadBalance_unevenDays() {
+        // Given: 3 lessons of one teacher, timeslots on Monday and Tuesday (share: 180 / 2 = 90 minutes a day)
+        PlanningTeacher teacher = createTeacher(1L, "Teacher 1");
+        PlanningRoom room = createRoom(1L, "Studio A", 20, false);
+        PlanningTimeslot monday9 = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
+        PlanningTimeslot monday10 = createTimeslot(2L, DayOfWeek.MONDAY, "10:00", "11:00");
+        PlanningTimeslot monday11 = createTimeslot(3L, DayOfWeek.MONDAY, "11:00", "12:00");
+        PlanningTimeslot tuesday9 = createTimeslot(4L, DayOfWeek.TUESDAY, "09:00", "10:00");
+
+        PlanningLesson lesson1 = createLesson(1L, teacher, "Group 1", monday9, room, false, false);
+        PlanningLesson lesson2 = createLesson(2L, teacher, "Group 2", monday10, room, false, false);
+        PlanningLesson lesson3 = createLesson(3L, teacher, "Group 3", monday11, room, false, false);
+        PlanningLesson lesson3OnTuesday = createLesson(3L, teacher, "Group 3", tuesday9, room, false, false);
+
+        // When/Then: All on Monday, 180 - 90 = 90 SOFT
         constraintVerifier.verifyThat(DanceScheduleConstraintProvider::balanceTeacherLoad)
-            .given(lesson1, lesson2, lesson3, teacher, room, timeslot1, timeslot2, timeslot3)
-            .penalizesBy(9);
+            .given(lesson1, lesson2, lesson3, teacher, room, monday9, monday10, monday11, tuesday9)
+            .penalizesBy(90);
+        // Moving one lesson to Tuesday: 120 - 90 = 30 SOFT
+        constraintVerifier.verifyThat(DanceScheduleConstraintProvider::balanceTeacherLoad)
+            .given(lesson1, lesson2, lesson3OnTuesday, teacher, room, monday9, monday10, monday11, tuesday9)
+            .penalizesBy(30);
     }
 
     @Test
-    @DisplayName("Load Balancing: Lower penalty for balanced distribution")
-    void lowerPenaltyForLoadBalance_balanced() {
-        // Given: Two teachers with 1 lesson each (total penalty = 2: 1*1 + 1*1)
-        Teacher teacher1 = createTeacher(1L, "Teacher 1");
-        Teacher teacher2 = createTeacher(2L, "Teacher 2");
-        Room room = createRoom(1L, "Studio A", 20, false);
-        Timeslot timeslot1 = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
-        Timeslot timeslot2 = createTimeslot(2L, DayOfWeek.MONDAY, "10:00", "11:00");
-        DanceGroup group1 = createDanceGroup(1L, "Group 1");
-        DanceGroup group2 = createDanceGroup(2L, "Group 2");
+    @DisplayName("Load Balancing: Teachers are penalized independently")
+    void penaltyForLoadBalance_perTeacher() {
+        // Given: Teacher 1 teaches on Monday and Tuesday, teacher 2 teaches twice on Monday
+        PlanningTeacher teacher1 = createTeacher(1L, "Teacher 1");
+        PlanningTeacher teacher2 = createTeacher(2L, "Teacher 2");
+        PlanningRoom room = createRoom(1L, "Studio A", 20, false);
+        PlanningTimeslot monday9 = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
+        PlanningTimeslot monday10 = createTimeslot(2L, DayOfWeek.MONDAY, "10:00", "11:00");
+        PlanningTimeslot tuesday9 = createTimeslot(3L, DayOfWeek.TUESDAY, "09:00", "10:00");
+
+        PlanningLesson lesson1 = createLesson(1L, teacher1, "Group 1", monday9, room, false, false);
+        PlanningLesson lesson2 = createLesson(2L, teacher1, "Group 2", tuesday9, room, false, false);
+        PlanningLesson lesson3 = createLesson(3L, teacher2, "Group 3", monday9, room, false, false);
+        PlanningLesson lesson4 = createLesson(4L, teacher2, "Group 4", monday10, room, false, false);
+
+        // When/Then: Shares 60 each; teacher 1 even, teacher 2 120 - 60 = 60 SOFT
+        constraintVerifier.verifyThat(DanceScheduleConstraintProvider::balanceTeacherLoad)
+            .given(lesson1, lesson2, lesson3, lesson4, teacher1, teacher2, room, monday9, monday10, tuesday9)
+            .penalizesBy(60);
+    }
 
-        Lesson lesson1 = createLesson(1L, teacher1, group1, timeslot1, room, false, false);
-        Lesson lesson2 = createLesson(2L, teacher2, group2, timeslot2, room, false, false);
+    @Test
+    @DisplayName("Load Balancing: Days the teacher is unavailable do not get a share")
+    void noPenaltyForLoadBalance_unavailableDay() {
+        // Given: The teacher cannot teach on Tuesday, so both lessons belong on Monday
+        PlanningRoom room = createRoom(1L, "Studio A", 20, false);
+        PlanningTimeslot monday9 = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
+        PlanningTimeslot monday10 = createTimeslot(2L, DayOfWeek.MONDAY, "10:00", "11:00");
+        PlanningTimeslot tuesday9 = createTimeslot(3L, DayOfWeek.TUESDAY, "09:00", "10:00");
+        PlanningTeacher teacher = createUnavailableTeacher(1L, "Teacher 1", tuesday9);
+
+        PlanningLesson lesson1 = createLesson(1L, teacher, "Group 1", monday9, room, false, false);
+        PlanningLesson lesson2 = createLesson(2L, teacher, "Group 2", monday10, room, false, false);
+
+        // When/Then: One teaching day, share 120 minutes
+        constraintVerifier.verifyThat(DanceScheduleConstraintProvider::balanceTeacherLoad)
+            .given(lesson1, lesson2, teacher, room, monday9, monday10, tuesday9)
+            .penalizesBy(0);
+    }
 
-        // When/Then: Should penalize with 2 SOFT (1*1 + 1*1 = 2)
-        // This is LESS than having one teacher with 2 lessons (2*2 = 4)
+    @Test
+    @DisplayName("Load Balancing: Share counts unassigned lessons and lesson duration")
+    void penaltyForLoadBalance_unassignedAndLongLessons() {
+        // Given: A 90-minute lesson on Monday and an unassigned 60-minute lesson
+        PlanningTeacher teacher = createTeacher(1L, "Teacher 1");
+        PlanningRoom room = createRoom(1L, "Studio A", 20, false);
+        PlanningTimeslot monday9 = createTimeslot(1L, DayOfWeek.MONDAY, "09:00", "10:00");
+        PlanningTimeslot tuesday9 = createTimeslot(2L, DayOfWeek.TUESDAY, "09:00", "10:00");
+
+        PlanningLesson longLesson = new PlanningLesson(1L, teacher, "Group 1", 90, false, false, monday9, room);
+        PlanningLesson unassigned = createLesson(2L, teacher, "Group 2", null, null, false, false);
+
+        // When/Then: Share 150 / 2 = 75 minutes, Monday 90 - 75 = 15 SOFT
         constraintVerifier.verifyThat(DanceScheduleConstraintProvider::balanceTeacherLoad)
-            .given(lesson1, lesson2, teacher1, teacher2, room, timeslot1, timeslot2)
-            .penalizesBy(2);
+            .given(longLesson, unassigned, teacher, room, monday9, tuesday9)
+            .penalizesBy(15);
     }
 
     // ==================== Test Data Builders ====================
 
-    private Room createRoom(Long id, String name, int capacity, boolean allowsParallelPrivate) {
-        Room room = new Room();
-        room.setId(id);
-        room.setName(name);
-        room.setCapacity(capacity);
-        room.setAllowsParallelPrivate(allowsParallelPrivate);
-        return room;
-    }
-
-    private Timeslot createTimeslot(Long id, DayOfWeek dayOfWeek, String startTime, String endTime) {
-        Timeslot timeslot = new Timeslot();
-        timeslot.setId(id);
-        timeslot.setDayOfWeek(dayOfWeek);
-        timeslot.setStartTime(LocalTime.parse(startTime));
-        timeslot.setEndTime(LocalTime.parse(endTime));
-        return timeslot;
-    }
-
-    private Teacher createTeacher(Long id, String fullName) {
-        Teacher teacher = new Teacher();
-        teacher.setId(id);
-        teacher.setFullName(fullName);
-        teacher.setEmail(fullName.toLowerCase().replace(" ", ".") + "@example.com");
-        teacher.setMaxDailyHours(8);
-        teacher.setColorCode("#FF5733");
-        return teacher;
-    }
-
-    private DanceGroup createDanceGroup(Long id, String name) {
-        DanceGroup group = new DanceGroup();
-        group.setId(id);
-        group.setName(name);
-        return group;
-    }
-
-    private Lesson createLesson(Long id, Teacher teacher, DanceGroup group,
-                               Timeslot timeslot, Room room,
-                               boolean isPrivate, boolean isPinned) {
-        Lesson lesson = new Lesson();
-        lesson.setId(id);
-        lesson.setTeacher(teacher);
-        lesson.setDanceGroup(group);
-        lesson.setTimeslot(timeslot);
-        lesson.setRoom(room);
-        lesson.setDurationMinutes(60);
-        lesson.setPrivate(isPrivate);
-        lesson.setPinned(isPinned);
-        return lesson;
-    }
-
-    private ResourceUnavailability createUnavailability(Long id, Teacher teacher,
-                                                       Timeslot timeslot, String reason) {
-        ResourceUnavailability unavailability = new ResourceUnavailability();
-        unavailability.setId(id);
-        unavailability.setTeacher(teacher);
-        unavailability.setTimeslot(timeslot);
-        unavailability.setReason(reason);
-        return unavailability;
+    private PlanningRoom createRoom(Long id, String name, int capacity, boolean allowsParallelPrivate) {
+        return new PlanningRoom(id.intValue() - 1, id, name, capacity, allowsParallelPrivate);
     }
-}
 
+    private PlanningTimeslot createTimeslot(Long id, DayOfWeek dayOfWeek, String startTime, String endTime) {
+        return new PlanningTimeslot(id.intValue() - 1, id, dayOfWeek,
+            LocalTime.parse(startTime), LocalTime.parse(endTime));
+    }
+
+    private PlanningTeacher createTeacher(Long id, String fullName) {
+        return new PlanningTeacher(id.intValue() - 1, id, fullName, 8);
+    }
+
+    private PlanningLesson createLesson(Long id, PlanningTeacher teacher, String group,
+                                        PlanningTimeslot timeslot, PlanningRoom room,
+                                        boolean isPrivate, boolean isPinned) {
+        return new PlanningLesson(id, teacher, group, 60, isPrivate, isPinned, timeslot, room);
+    }
+
+    private PlanningTeacher createUnavailableTeacher(Long id, String fullName,
+                                                     PlanningTimeslot... unavailableTimeslots) {
+        BitSet unavailable = new BitSet();
+        for (PlanningTimeslot timeslot : unavailableTimeslots) {
+            unavailable.set(timeslot.getIndex());
+        }
+        return new PlanningTeacher(id.intValue() - 1, id, fullName, 8, unavailable);
+    }
+}
@@ -0,0 +1,146 @@
+package com.timetable.backend.solver;
+
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.api.solver.SolverManager;
+import ai.timefold.solver.core.api.solver.change.ProblemChange;
+import ai.timefold.solver.core.config.solver.EnvironmentMode;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import ai.timefold.solver.core.config.solver.SolverManagerConfig;
+import ai.timefold.solver.core.config.solver.termination.TerminationConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Applies each change to a running solve in FULL_ASSERT mode, which fails the solve
+ * if the incremental score no longer matches a score calculated from scratch.
+ */
+class DanceScheduleProblemChangesTest {
+
+    private static final Long SCHEDULE_ID = 1L;
+
+    private final SolverManager<DanceSchedule, Long> solverManager = SolverManager.create(
+        SolverFactory.create(new SolverConfig()
+            .withSolutionClass(DanceSchedule.class)
+            .withEntityClasses(PlanningLesson.class)
+            .withConstraintProviderClass(DanceScheduleConstraintProvider.class)
+            .withEnvironmentMode(EnvironmentMode.FULL_ASSERT)
+            .withTerminationConfig(new TerminationConfig().withSecondsSpentLimit(30L))),
+        new SolverManagerConfig());
+
+    private final List<PlanningTimeslot> timeslots = List.of(
+        new PlanningTimeslot(0, 1L, DayOfWeek.MONDAY, LocalTime.of(17, 0), LocalTime.of(18, 0)),
+        new PlanningTimeslot(1, 2L, DayOfWeek.MONDAY, LocalTime.of(18, 0), LocalTime.of(19, 0)),
+        new PlanningTimeslot(2, 3L, DayOfWeek.TUESDAY, LocalTime.of(17, 0), LocalTime.of(18, 0))
+    );
+    private final PlanningTeacher teacher = new PlanningTeacher(0, 1L, "Teacher 1", 8);
+
+    @AfterEach
+    void tearDown() {
+        solverManager.close();
+    }
+
+    @Test
+    @DisplayName("Added lesson of a new teacher is assigned, removed lesson is gone")
+    void shouldAddAndRemoveLessons() throws Exception {
+        PlanningTeacher newTeacher = new PlanningTeacher(-1, 2L, "Teacher 2", 8);
+        PlanningLesson newLesson = new PlanningLesson(10L, newTeacher, "Group 10", 60, false, false, null, null);
+
+        DanceSchedule solution = solveWithChanges(
+            DanceScheduleProblemChanges.addLesson(newLesson, Set.of(1L, 2L)),
+            DanceScheduleProblemChanges.removeLesson(1L));
+
+        assertThat(solution.getLessonList()).extracting(PlanningLesson::getId).containsExactlyInAnyOrder(2L, 3L, 10L);
+        assertThat(solution.getTeacherList()).extracting(PlanningTeacher::getId).containsExactly(1L, 2L);
+        PlanningLesson added = findLesson(solution, 10L);
+        // The new teacher is only available on Tuesday
+        assertThat(added.getTimeslot()).isEqualTo(timeslots.get(2));
+        assertThat(added.getTeacher().getIndex()).isEqualTo(1);
+        assertThat(solution.getScore().hardScore()).isZero();
+    }
+
+    @Test
+    @DisplayName("Changed unavailability is part of the score")
+    void shouldApplyUnavailability() throws Exception {
+        DanceSchedule solution = solveWithChanges(
+            DanceScheduleProblemChanges.setTeacherUnavailable(1L, 1L, true),
+            DanceScheduleProblemChanges.setTeacherUnavailable(1L, 2L, true));
+
+        // 3 lessons of one teacher, 1 available timeslot: at best two lessons break a hard constraint
+        assertThat(solution.getScore().hardScore()).isEqualTo(-2);
+        PlanningTeacher changed = solution.getTeacherList().get(0);
+        assertThat(changed.isUnavailable(timeslots.get(0))).isTrue();
+        assertThat(changed.isUnavailable(timeslots.get(2))).isFalse();
+        assertThat(solution.getLessonList()).extracting(PlanningLesson::getTeacher).containsOnly(changed);
+        // Earlier best solutions share the original fact, it keeps its availability
+        assertThat(teacher.isUnavailable(timeslots.get(0))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Removed room is no longer used, added room is")
+    void shouldReplaceRoom() throws Exception {
+        DanceSchedule solution = solveWithChanges(
+            DanceScheduleProblemChanges.removeRoom(1L),
+            DanceScheduleProblemChanges.addRoom(3L, "Studio C", 20, false));
+
+        assertThat(solution.getRoomList()).extracting(PlanningRoom::getId).containsExactly(2L, 3L);
+        assertThat(solution.getRoomList()).extracting(PlanningRoom::getIndex).containsExactly(1, 2);
+        assertThat(solution.getLessonList())
+            .extracting(lesson -> lesson.getRoom().getId())
+            .doesNotContain(1L);
+        assertThat(solution.getScore().hardScore()).isZero();
+    }
+
+    private DanceSchedule solveWithChanges(ProblemChange<DanceSchedule> first,
+                                           ProblemChange<DanceSchedule> second) throws Exception {
+        List<PlanningRoom> rooms = List.of(
+            new PlanningRoom(0, 1L, "Studio A", 20, false),
+            new PlanningRoom(1, 2L, "Studio B", 20, false)
+        );
+        List<PlanningLesson> lessons = new ArrayList<>();
+        for (long id = 1; id <= 3; id++) {
+            lessons.add(new PlanningLesson(id, teacher, "Group " + id, 60, false, false, null, null));
+        }
+        DanceSchedule problem = new DanceSchedule(SCHEDULE_ID, timeslots, rooms, List.of(teacher), lessons);
+        LessonValueRanges.restrict(problem);
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CompletableFuture<DanceSchedule> finalSolution = new CompletableFuture<>();
+        solverManager.solveBuilder()
+            .withProblemId(SCHEDULE_ID)
+            .withProblem(problem)
+            // Problem change futures complete with the best solution event that includes the change
+            .withBestSolutionConsumer(best -> {
+            })
+            .withFinalBestSolutionConsumer(finalSolution::complete)
+            .withExceptionHandler((id, throwable) -> {
+                failure.set(throwable);
+                finalSolution.completeExceptionally(throwable);
+            })
+            .run();
+
+        solverManager.addProblemChange(SCHEDULE_ID, first).get(10, TimeUnit.SECONDS);
+        solverManager.addProblemChange(SCHEDULE_ID, second).get(10, TimeUnit.SECONDS);
+        Thread.sleep(500);
+        solverManager.terminateEarly(SCHEDULE_ID);
+
+        DanceSchedule solution = finalSolution.get(10, TimeUnit.SECONDS);
+        assertThat(failure.get()).isNull();
+        return solution;
+    }
+
+    private PlanningLesson findLesson(DanceSchedule solution, Long id) {
+        return solution.getLessonList().stream().filter(lesson -> lesson.getId().equals(id)).findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,78 @@
+package com.timetable.backend.solver;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LessonValueRangesTest {
+
+    private final List<PlanningTimeslot> timeslots = List.of(
+        new PlanningTimeslot(0, 1L, DayOfWeek.MONDAY, LocalTime.of(17, 0), LocalTime.of(18, 0)),
+        new PlanningTimeslot(1, 2L, DayOfWeek.MONDAY, LocalTime.of(18, 0), LocalTime.of(19, 0)),
+        new PlanningTimeslot(2, 3L, DayOfWeek.TUESDAY, LocalTime.of(17, 0), LocalTime.of(18, 0)),
+        new PlanningTimeslot(3, 4L, DayOfWeek.TUESDAY, LocalTime.of(18, 0), LocalTime.of(19, 0))
+    );
+    private final List<PlanningRoom> rooms = List.of(
+        new PlanningRoom(0, 1L, "Studio A", 20, false),
+        new PlanningRoom(1, 2L, "Studio B", 20, true)
+    );
+
+    @Test
+    @DisplayName("Lessons only get the timeslots their teacher is available in")
+    void shouldLeaveOutUnavailableTimeslots() {
+        PlanningTeacher teacher = createTeacher(0, 0);
+        PlanningLesson lesson1 = createLesson(1L, teacher, false);
+        PlanningLesson lesson2 = createLesson(2L, teacher, false);
+        PlanningLesson pinned = createLesson(3L, teacher, true);
+        DanceSchedule schedule = new DanceSchedule(1L, timeslots, rooms, List.of(teacher),
+            List.of(lesson1, lesson2, pinned));
+
+        LessonValueRanges.Pruning pruning = LessonValueRanges.restrict(schedule);
+
+        assertThat(lesson1.getTimeslotRange()).containsExactly(timeslots.get(1), timeslots.get(2), timeslots.get(3));
+        assertThat(lesson2.getTimeslotRange()).isSameAs(lesson1.getTimeslotRange());
+        // Pinned lessons are not part of the search space
+        assertThat(pruning.timeslotValuesBefore()).isEqualTo(8);
+        assertThat(pruning.timeslotValuesAfter()).isEqualTo(6);
+        assertThat(pruning.log10ScaleBefore()).isCloseTo(2 * Math.log10(4 * 2), within(1e-9));
+        assertThat(pruning.log10ScaleAfter()).isCloseTo(2 * Math.log10(3 * 2), within(1e-9));
+    }
+
+    @Test
+    @DisplayName("A teacher with more lessons than available timeslots keeps every timeslot")
+    void shouldKeepAllTimeslotsIfTooFewAreAvailable() {
+        PlanningTeacher overbooked = createTeacher(0, 0, 1, 2);
+        PlanningTeacher free = createTeacher(1);
+        PlanningLesson lesson1 = createLesson(1L, overbooked, false);
+        PlanningLesson lesson2 = createLesson(2L, overbooked, false);
+        PlanningLesson lesson3 = createLesson(3L, free, false);
+        DanceSchedule schedule = new DanceSchedule(1L, timeslots, rooms, List.of(overbooked, free),
+            List.of(lesson1, lesson2, lesson3));
+
+        LessonValueRanges.restrict(schedule);
+
+        assertThat(lesson1.getTimeslotRange()).isEqualTo(timeslots);
+        assertThat(lesson3.getTimeslotRange()).isEqualTo(timeslots);
+        assertThat(LessonValueRanges.timeslotRange(schedule, free)).isEqualTo(timeslots);
+    }
+
+    private PlanningTeacher createTeacher(int index, int... unavailableTimeslots) {
+        BitSet unavailable = new BitSet();
+        for (int timeslot : unavailableTimeslots) {
+            unavailable.set(timeslot);
+        }
+        return new PlanningTeacher(index, (long) index + 1, "Teacher " + index, 8, unavailable);
+    }
+
+    private PlanningLesson createLesson(Long id, PlanningTeacher teacher, boolean pinned) {
+        return new PlanningLesson(id, teacher, "Group " + id, 60, false, pinned,
+            pinned ? timeslots.get(0) : null, pinned ? rooms.get(0) : null);
+    }
+}
@@ -0,0 +1,43 @@
+package com.timetable.backend.solver;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlanningTimeslotTest {
+
+    @Test
+    @DisplayName("Encodes day and times as minutes since Monday 00:00")
+    void encodesMinuteOfWeek() {
+        PlanningTimeslot monday = new PlanningTimeslot(0, 1L, DayOfWeek.MONDAY,
+            LocalTime.of(9, 0), LocalTime.of(10, 30));
+        PlanningTimeslot wednesday = new PlanningTimeslot(1, 2L, DayOfWeek.WEDNESDAY,
+            LocalTime.of(18, 15), LocalTime.of(19, 15));
+
+        assertThat(monday.getDayIndex()).isZero();
+        assertThat(monday.getStartMinuteOfWeek()).isEqualTo(9 * 60);
+        assertThat(monday.getEndMinuteOfWeek()).isEqualTo(10 * 60 + 30);
+
+        assertThat(wednesday.getDayIndex()).isEqualTo(2);
+        assertThat(wednesday.getStartMinuteOfWeek()).isEqualTo(2 * 24 * 60 + 18 * 60 + 15);
+        assertThat(wednesday.getEndMinuteOfWeek()).isEqualTo(2 * 24 * 60 + 19 * 60 + 15);
+    }
+
+    @Test
+    @DisplayName("Prime-time flag follows the start time (16:00 inclusive - 21:00 exclusive)")
+    void flagsPrimeTimeByStartTime() {
+        assertThat(timeslotStartingAt(15, 59).isPrimeTime()).isFalse();
+        assertThat(timeslotStartingAt(16, 0).isPrimeTime()).isTrue();
+        assertThat(timeslotStartingAt(20, 59).isPrimeTime()).isTrue();
+        assertThat(timeslotStartingAt(21, 0).isPrimeTime()).isFalse();
+    }
+
+    private PlanningTimeslot timeslotStartingAt(int hour, int minute) {
+        LocalTime start = LocalTime.of(hour, minute);
+        return new PlanningTimeslot(0, 1L, DayOfWeek.FRIDAY, start, start.plusHours(1));
+    }
+}
@@ -42,6 +42,8 @@ class SolverLoadIntegrationTest {
     private ResourceUnavailabilityRepository resourceUnavailabilityRepository;
     @Autowired
     private RoleRepository roleRepository;
+    @Autowired
+    private ScheduleRepository scheduleRepository;
 
     @BeforeEach
     void setUp() {
@@ -52,16 +54,18 @@ class SolverLoadIntegrationTest {
         danceStyleRepository.deleteAll();
         timeslotRepository.deleteAll();
         roomRepository.deleteAll();
+        scheduleRepository.deleteAll();
     }
 
     @Test
     @DisplayName("Load Test: 50 lessons, 10 teachers")
     void testSolverLoad() throws InterruptedException {
         // 1. Generate Data
-        generateLoadData(10, 5, 50);
+        Schedule schedule = scheduleRepository.save(new Schedule("Load Test"));
+        generateLoadData(schedule, 10, 5, 50);
 
         // 2. Start Solver
-        Long scheduleId = System.currentTimeMillis();
+        Long scheduleId = schedule.getId();
         solverService.solve(scheduleId);
 
         // 3. Wait for solution (max 75 seconds with 5-second intervals to reduce DB load)
@@ -99,7 +103,7 @@ class SolverLoadIntegrationTest {
         assertThat(assignedCount).isEqualTo(50);
     }
 
-    private void generateLoadData(int teacherCount, int roomCount, int lessonCount) {
+    private void generateLoadData(Schedule schedule, int teacherCount, int roomCount, int lessonCount) {
         // Create role for teachers
         Role teacherRole = roleRepository.findByName("TEACHER")
                 .orElseGet(() -> {
@@ -113,7 +117,7 @@ class SolverLoadIntegrationTest {
         for (DayOfWeek day : DayOfWeek.values()) {
             if (day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY) continue;
             for (int h = 9; h < 18; h++) {
-                timeslots.add(createTimeslot(day, String.format("%02d:00", h), String.format("%02d:00", h + 1)));
+                timeslots.add(createTimeslot(schedule, day, String.format("%02d:00", h), String.format("%02d:00", h + 1)));
             }
         }
         timeslotRepository.saveAll(timeslots);
@@ -143,6 +147,7 @@ class SolverLoadIntegrationTest {
         List<Lesson> lessons = new ArrayList<>();
         for (int i = 0; i < lessonCount; i++) {
             Lesson lesson = new Lesson();
+            lesson.setSchedule(schedule);
             lesson.setTeacher(teachers.get(i % teacherCount));
             lesson.setDanceGroup(groups.get(i));
             lesson.setDurationMinutes(60);
@@ -152,8 +157,9 @@ class SolverLoadIntegrationTest {
         lessonRepository.saveAll(lessons);
     }
 
-    private Timeslot createTimeslot(DayOfWeek day, String start, String end) {
+    private Timeslot createTimeslot(Schedule schedule, DayOfWeek day, String start, String end) {
         Timeslot t = new Timeslot();
+        t.setSchedule(schedule);
         t.setDayOfWeek(day);
         t.setStartTime(LocalTime.parse(start));
         t.setEndTime(LocalTime.parse(end));